@@ -0,0 +1,84 @@
+package com.gmail.voronovskyi.yaroslav.demo.benchmark;
+
+import com.gmail.voronovskyi.yaroslav.demo.DemoProjectForClearSolutionApplication;
+import com.gmail.voronovskyi.yaroslav.demo.model.User;
+import com.gmail.voronovskyi.yaroslav.demo.reactive.ReactiveUsersApplication;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+public final class BenchmarkApplication {
+
+    private static final String R2DBC_AUTO_CONFIGURATIONS = "--spring.autoconfigure.exclude="
+            + "org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration,"
+            + "org.springframework.boot.autoconfigure.r2dbc.R2dbcTransactionManagerAutoConfiguration,"
+            + "org.springframework.boot.autoconfigure.data.r2dbc.R2dbcDataAutoConfiguration,"
+            + "org.springframework.boot.autoconfigure.data.r2dbc.R2dbcRepositoriesAutoConfiguration";
+    private static final String LOGGING_CONFIG = "logging.config=";
+    private static final String JDBC_AUTO_CONFIGURATIONS = "--spring.autoconfigure.exclude="
+            + "org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration,"
+            + "org.springframework.boot.autoconfigure.jdbc.DataSourceTransactionManagerAutoConfiguration,"
+            + "org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration";
+
+    private BenchmarkApplication() {
+    }
+
+    public static ConfigurableApplicationContext start(String databaseName) {
+        return run(WebApplicationType.NONE, databaseName);
+    }
+
+    public static ConfigurableApplicationContext startWebServer(String databaseName, String... properties) {
+        return run(WebApplicationType.SERVLET, databaseName, properties);
+    }
+
+    public static ConfigurableApplicationContext startReactiveWebServer(String databaseName) {
+        SpringApplication application = new SpringApplication(ReactiveUsersApplication.class);
+        application.setWebApplicationType(WebApplicationType.REACTIVE);
+        return application.run(
+                "--server.port=0",
+                "--logging.config=classpath:logback-benchmark.xml",
+                JDBC_AUTO_CONFIGURATIONS,
+                "--spring.r2dbc.url=r2dbc:h2:mem:///" + databaseName + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+                "--spring.r2dbc.username=H2",
+                "--spring.r2dbc.password=");
+    }
+
+    private static ConfigurableApplicationContext run(WebApplicationType webApplicationType, String databaseName,
+                                                      String... properties) {
+        SpringApplication application = new SpringApplication(DemoProjectForClearSolutionApplication.class);
+        application.setWebApplicationType(webApplicationType);
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                R2DBC_AUTO_CONFIGURATIONS,
+                "--spring.datasource.driverClassName=org.h2.Driver",
+                "--spring.datasource.url=jdbc:h2:mem:" + databaseName + ";DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=H2",
+                "--spring.datasource.password=",
+                "--spring.jpa.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.properties.hibernate.generate_statistics=false"));
+        boolean loggingConfigured = false;
+        for (String property : properties) {
+            args.add("--" + property);
+            loggingConfigured |= property.startsWith(LOGGING_CONFIG);
+        }
+        if (!loggingConfigured) {
+            args.add("--" + LOGGING_CONFIG + "classpath:logback-benchmark.xml");
+        }
+        return application.run(args.toArray(new String[0]));
+    }
+
+    public static User createUser(long number) {
+        return User.builder()
+                .email("benchmark.user" + number + "@gmail.com")
+                .firstName("Benchmark")
+                .lastName("User" + number)
+                .birthDate(LocalDate.of(1980, 1, 1).plusDays(number % 7300))
+                .address("Ukraine, Kyiv")
+                .phoneNumber("+38" + (1_000_000_000L + number))
+                .build();
+    }
+}
@@ -0,0 +1,97 @@
+package com.gmail.voronovskyi.yaroslav.demo.benchmark;
+
+import com.gmail.voronovskyi.yaroslav.demo.model.User;
+import com.gmail.voronovskyi.yaroslav.demo.service.IUserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of requests that find nothing, as produced by clients scanning ids or paging past the end:
+ * a missing user through the service and over HTTP (404), and a page after the last user over HTTP.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Threads(4)
+@Fork(1)
+public class ErrorPathBenchmark {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+    private static final int USERS_COUNT = 1_000;
+    private static final long MISSING_IDS_COUNT = 1_000_000;
+
+    private ConfigurableApplicationContext context;
+    private IUserService userService;
+    private HttpClient httpClient;
+    private String usersUrl;
+
+    @Setup
+    public void setup() {
+        context = BenchmarkApplication.startWebServer("error-path");
+        userService = context.getBean(IUserService.class);
+        List<User> usersList = new ArrayList<>(USERS_COUNT);
+        for (int i = 0; i < USERS_COUNT; i++) {
+            usersList.add(BenchmarkApplication.createUser(i));
+        }
+        userService.registerUsers(usersList);
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        usersUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/users";
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object getMissingUserFromService() {
+        try {
+            return userService.getUserBuId(missingUserId());
+        } catch (RuntimeException exception) {
+            return exception;
+        }
+    }
+
+    @Benchmark
+    public int getMissingUser() throws IOException, InterruptedException {
+        return send(usersUrl + "/" + missingUserId());
+    }
+
+    @Benchmark
+    public int getPageAfterLastUser() throws IOException, InterruptedException {
+        return send(usersUrl + "?after=" + missingUserId());
+    }
+
+    private long missingUserId() {
+        return USERS_COUNT + 1 + ThreadLocalRandom.current().nextLong(MISSING_IDS_COUNT);
+    }
+
+    private int send(String url) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url)).timeout(REQUEST_TIMEOUT).GET().build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
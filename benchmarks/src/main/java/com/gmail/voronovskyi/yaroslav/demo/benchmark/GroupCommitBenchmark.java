@@ -0,0 +1,76 @@
+package com.gmail.voronovskyi.yaroslav.demo.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Throughput of concurrent POST /users with a transaction per registration and with group commit, where the
+ * registrations queued within {@code application.group-commit.max-delay-millis} share one transaction.
+ * The database is in-memory H2, so a commit costs no fsync here; against PostgreSQL the saved commits weigh more.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Threads(16)
+@Fork(1)
+public class GroupCommitBenchmark {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+    private static final String USER_JSON = "{\"email\":\"group.commit%1$d@gmail.com\",\"firstName\":\"Benchmark\","
+            + "\"lastName\":\"User\",\"birthDate\":\"01-01-1980\",\"address\":\"Ukraine, Kyiv\",\"phoneNumber\":\"+38%2$d\"}";
+
+    @Param({"false", "true"})
+    private boolean groupCommit;
+
+    private final AtomicLong userNumber = new AtomicLong();
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private URI usersUri;
+
+    @Setup
+    public void setup() {
+        context = BenchmarkApplication.startWebServer("group-commit-" + groupCommit,
+                "application.group-commit.enabled=" + groupCommit);
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        usersUri = URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/users");
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int registerUser() throws IOException, InterruptedException {
+        long number = userNumber.incrementAndGet();
+        HttpRequest request = HttpRequest.newBuilder(usersUri)
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(String.format(USER_JSON, number, 1_000_000_000L + number)))
+                .build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
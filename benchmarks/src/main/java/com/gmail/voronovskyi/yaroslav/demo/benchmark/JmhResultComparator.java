@@ -0,0 +1,67 @@
+package com.gmail.voronovskyi.yaroslav.demo.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Prints the score change of every benchmark between two JMH JSON result files,
+ * e.g. the results of the previous release and of the current build:
+ * <pre>
+ * java -cp ... JmhResultComparator baseline.json target/jmh-result.json
+ * </pre>
+ */
+public final class JmhResultComparator {
+
+    private JmhResultComparator() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: JmhResultComparator <baseline.json> <current.json>");
+            System.exit(1);
+        }
+        Map<String, JsonNode> baselineResults = readResults(new File(args[0]));
+        Map<String, JsonNode> currentResults = readResults(new File(args[1]));
+        System.out.printf("%-90s %15s %15s %9s%n", "Benchmark", "Baseline", "Current", "Change");
+        for (Map.Entry<String, JsonNode> entry : currentResults.entrySet()) {
+            JsonNode currentMetric = entry.getValue().get("primaryMetric");
+            JsonNode baselineResult = baselineResults.get(entry.getKey());
+            String unit = currentMetric.get("scoreUnit").asText();
+            double currentScore = currentMetric.get("score").asDouble();
+            if (baselineResult == null) {
+                System.out.printf("%-90s %15s %15.3f %9s %s%n", entry.getKey(), "-", currentScore, "new", unit);
+                continue;
+            }
+            double baselineScore = baselineResult.get("primaryMetric").get("score").asDouble();
+            double change = (currentScore - baselineScore) / baselineScore * 100;
+            System.out.printf("%-90s %15.3f %15.3f %+8.1f%% %s%n", entry.getKey(), baselineScore, currentScore, change, unit);
+        }
+    }
+
+    private static Map<String, JsonNode> readResults(File file) throws IOException {
+        Map<String, JsonNode> results = new LinkedHashMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(file)) {
+            results.put(resultKey(result), result);
+        }
+        return results;
+    }
+
+    private static String resultKey(JsonNode result) {
+        StringBuilder key = new StringBuilder(result.get("benchmark").asText());
+        JsonNode params = result.get("params");
+        if (params != null) {
+            Iterator<Map.Entry<String, JsonNode>> fields = params.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                key.append(' ').append(field.getKey()).append('=').append(field.getValue().asText());
+            }
+        }
+        return key.toString();
+    }
+}
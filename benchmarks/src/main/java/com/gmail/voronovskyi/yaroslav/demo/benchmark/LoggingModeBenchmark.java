@@ -0,0 +1,83 @@
+package com.gmail.voronovskyi.yaroslav.demo.benchmark;
+
+import com.gmail.voronovskyi.yaroslav.demo.model.User;
+import com.gmail.voronovskyi.yaroslav.demo.service.IUserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of GET /users/{id} over HTTP with the default logging configuration (synchronous file
+ * appenders, application and Spring loggers at DEBUG) and with the {@code prod} profile (asynchronous
+ * non-blocking appenders, Spring at INFO, application DEBUG kept for 1% of the requests). Each mode runs
+ * in its own fork because the logback configuration is global to the JVM; log files are written to the
+ * working directory.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Threads(16)
+@Fork(1)
+public class LoggingModeBenchmark {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+    private static final int USERS_COUNT = 1_000;
+
+    @Param({"default", "prod"})
+    private String loggingMode;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private String usersUrl;
+
+    @Setup
+    public void setup() {
+        context = "prod".equals(loggingMode)
+                ? BenchmarkApplication.startWebServer("logging-prod", "spring.profiles.active=prod",
+                "logging.config=classpath:logback-prod.xml")
+                : BenchmarkApplication.startWebServer("logging-default", "logging.config=classpath:logback.xml");
+        List<User> usersList = new ArrayList<>(USERS_COUNT);
+        for (int i = 0; i < USERS_COUNT; i++) {
+            usersList.add(BenchmarkApplication.createUser(i));
+        }
+        context.getBean(IUserService.class).registerUsers(usersList);
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        usersUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/users/";
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int getUser() throws IOException, InterruptedException {
+        long userId = 1 + ThreadLocalRandom.current().nextLong(USERS_COUNT);
+        HttpRequest request = HttpRequest.newBuilder(URI.create(usersUrl + userId)).timeout(REQUEST_TIMEOUT).GET().build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
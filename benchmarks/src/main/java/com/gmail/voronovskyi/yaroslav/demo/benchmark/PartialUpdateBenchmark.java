@@ -0,0 +1,83 @@
+package com.gmail.voronovskyi.yaroslav.demo.benchmark;
+
+import com.gmail.voronovskyi.yaroslav.demo.model.User;
+import com.gmail.voronovskyi.yaroslav.demo.service.IUserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the old PATCH path, which rebuilds the whole user and saves it (a SELECT by the merge and an
+ * UPDATE of every column), with {@link IUserService#patchUser(long, Map, Long)}, which issues one UPDATE
+ * of the changed column and reads the result back through the id projection.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PartialUpdateBenchmark {
+
+    private static final int USERS_COUNT = 1000;
+
+    private ConfigurableApplicationContext context;
+    private IUserService userService;
+    private List<User> usersList;
+    private long updateNumber;
+
+    @Setup
+    public void setup() {
+        context = BenchmarkApplication.start("partial-update");
+        userService = context.getBean(IUserService.class);
+        List<User> newUsersList = new ArrayList<>(USERS_COUNT);
+        for (int i = 0; i < USERS_COUNT; i++) {
+            newUsersList.add(BenchmarkApplication.createUser(i));
+        }
+        usersList = userService.registerUsers(newUsersList);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public User saveWholeUser() {
+        User storedUser = nextUser();
+        User user = User.builder()
+                .id(storedUser.getId())
+                .email(storedUser.getEmail())
+                .firstName(storedUser.getFirstName())
+                .lastName(storedUser.getLastName())
+                .birthDate(storedUser.getBirthDate())
+                .address("Ukraine, Lviv " + updateNumber)
+                .phoneNumber(storedUser.getPhoneNumber())
+                .version(userService.getUserVersion(storedUser.getId()))
+                .build();
+        return userService.updateUser(user);
+    }
+
+    @Benchmark
+    public User patchChangedColumn() {
+        return userService.patchUser(nextUser().getId(), Map.of("address", "Ukraine, Lviv " + updateNumber), null);
+    }
+
+    private User nextUser() {
+        return usersList.get((int) (updateNumber++ % USERS_COUNT));
+    }
+}
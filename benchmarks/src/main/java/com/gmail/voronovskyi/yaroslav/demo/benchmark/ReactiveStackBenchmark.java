@@ -0,0 +1,120 @@
+package com.gmail.voronovskyi.yaroslav.demo.benchmark;
+
+import com.gmail.voronovskyi.yaroslav.demo.model.User;
+import com.gmail.voronovskyi.yaroslav.demo.reactive.service.IReactiveUserService;
+import com.gmail.voronovskyi.yaroslav.demo.service.IUserService;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the same /users requests served by the servlet application (Tomcat + JPA)
+ * and by the reactive module (Netty + R2DBC), both on in-memory H2, at high client concurrency.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Threads(50)
+@Fork(1)
+public class ReactiveStackBenchmark {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+    private static final int USERS_COUNT = 10_000;
+    private static final int PAGE_LIMIT = 20;
+
+    @Param({"servlet", "reactive"})
+    private String stack;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private String baseUrl;
+
+    @Setup
+    public void setup() {
+        List<User> usersList = new ArrayList<>(USERS_COUNT);
+        for (int i = 0; i < USERS_COUNT; i++) {
+            usersList.add(BenchmarkApplication.createUser(i));
+        }
+        if ("reactive".equals(stack)) {
+            context = BenchmarkApplication.startReactiveWebServer("reactive-stack");
+            List<com.gmail.voronovskyi.yaroslav.demo.reactive.model.User> reactiveUsersList = new ArrayList<>(USERS_COUNT);
+            for (User user : usersList) {
+                reactiveUsersList.add(new com.gmail.voronovskyi.yaroslav.demo.reactive.model.User(0L, user.getEmail(),
+                        user.getFirstName(), user.getLastName(), user.getBirthDate(), user.getAddress(), user.getPhoneNumber(), 0L));
+            }
+            context.getBean(IReactiveUserService.class).registerUsers(reactiveUsersList).blockLast();
+        } else {
+            context = BenchmarkApplication.startWebServer("servlet-stack");
+            context.getBean(IUserService.class).registerUsers(usersList);
+        }
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/users";
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int getUsersPage(Failures failures) throws IOException, InterruptedException {
+        long after = ThreadLocalRandom.current().nextLong(USERS_COUNT - PAGE_LIMIT);
+        return send(baseUrl + "?limit=" + PAGE_LIMIT + "&after=" + after, failures);
+    }
+
+    @Benchmark
+    public int searchUsersByBirthDate(Failures failures) throws IOException, InterruptedException {
+        return send(baseUrl + "/search?from=01-01-1990&to=31-12-1990&limit=" + PAGE_LIMIT, failures);
+    }
+
+    private int send(String url, Failures failures) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url)).timeout(REQUEST_TIMEOUT).GET().build();
+        try {
+            int statusCode = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            if (statusCode != 200) {
+                failures.errors++;
+            }
+            return statusCode;
+        } catch (HttpTimeoutException exception) {
+            failures.timeouts++;
+            return 0;
+        }
+    }
+
+    /**
+     * Reported next to the throughput, so a stack that answers fast by failing does not look better.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Failures {
+
+        public long errors;
+        public long timeouts;
+    }
+}
@@ -0,0 +1,73 @@
+package com.gmail.voronovskyi.yaroslav.demo.benchmark;
+
+import com.gmail.voronovskyi.yaroslav.demo.model.User;
+import com.gmail.voronovskyi.yaroslav.demo.service.IUserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares registering users one by one (a transaction and an INSERT round trip per user)
+ * with {@link IUserService#registerUsers(List)}, which inserts them in one transaction
+ * using JDBC batches.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RegistrationBenchmark {
+
+    @Param({"100", "1000"})
+    private int usersCount;
+
+    private ConfigurableApplicationContext context;
+    private IUserService userService;
+    private long userNumber;
+
+    @Setup
+    public void setup() {
+        context = BenchmarkApplication.start("registration");
+        userService = context.getBean(IUserService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<User> registerOneByOne() {
+        List<User> usersList = createUsersList();
+        usersList.forEach(userService::registerUser);
+        return usersList;
+    }
+
+    @Benchmark
+    public List<User> registerInBatch() {
+        return userService.registerUsers(createUsersList());
+    }
+
+    private List<User> createUsersList() {
+        List<User> usersList = new ArrayList<>(usersCount);
+        for (int i = 0; i < usersCount; i++) {
+            usersList.add(BenchmarkApplication.createUser(userNumber++));
+        }
+        return usersList;
+    }
+}
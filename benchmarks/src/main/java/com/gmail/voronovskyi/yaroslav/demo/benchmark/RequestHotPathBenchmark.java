@@ -0,0 +1,128 @@
+package com.gmail.voronovskyi.yaroslav.demo.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.gmail.voronovskyi.yaroslav.demo.Utils;
+import com.gmail.voronovskyi.yaroslav.demo.controller.exception.CarRestControllerExceptionHandler;
+import com.gmail.voronovskyi.yaroslav.demo.controller.rest.dto.UserDto;
+import com.gmail.voronovskyi.yaroslav.demo.controller.rest.mapper.IUserMapper;
+import com.gmail.voronovskyi.yaroslav.demo.controller.rest.mapper.impl.UserMapper;
+import com.gmail.voronovskyi.yaroslav.demo.model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+
+import javax.persistence.EntityNotFoundException;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validation;
+import javax.validation.Validator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CPU work done by a single /users request outside of the database: mapping, e-mail check,
+ * bean validation, JSON serialization and building error responses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RequestHotPathBenchmark {
+
+    private IUserMapper userMapper;
+    private Validator validator;
+    private ObjectWriter userDtoWriter;
+    private ObjectWriter userDtosListWriter;
+    private CarRestControllerExceptionHandler exceptionHandler;
+    private User user;
+    private UserDto userDto;
+    private UserDto notValidUserDto;
+    private List<UserDto> userDtosList;
+    private MethodArgumentNotValidException methodArgumentNotValidException;
+
+    @Setup
+    public void setup() throws NoSuchMethodException {
+        userMapper = new UserMapper();
+        validator = Validation.buildDefaultValidatorFactory().getValidator();
+        userDtoWriter = Jackson2ObjectMapperBuilder.json().build().writerFor(UserDto.class);
+        userDtosListWriter = Jackson2ObjectMapperBuilder.json().build().writerFor(List.class);
+        exceptionHandler = new CarRestControllerExceptionHandler();
+        user = BenchmarkApplication.createUser(1);
+        userDto = userMapper.toDto(user);
+        notValidUserDto = userMapper.toDto(user);
+        notValidUserDto.setEmail("yaroslav.voronovskyigmail.com");
+        notValidUserDto.setFirstName("");
+        userDtosList = userMapper.toDtoList(List.of(user, user, user, user, user, user, user, user, user, user));
+        BeanPropertyBindingResult bindingResult = new BeanPropertyBindingResult(notValidUserDto, "userDto");
+        bindingResult.rejectValue("email", "Email", "Email should be valid");
+        bindingResult.rejectValue("firstName", "NotBlank", " can not be null or empty");
+        MethodParameter methodParameter = new MethodParameter(
+                RequestHotPathBenchmark.class.getDeclaredMethod("setup"), -1);
+        methodArgumentNotValidException = new MethodArgumentNotValidException(methodParameter, bindingResult);
+    }
+
+    @Benchmark
+    public UserDto mapUserToDto() {
+        return userMapper.toDto(user);
+    }
+
+    @Benchmark
+    public User mapDtoToUser() {
+        return userMapper.toEntity(userDto);
+    }
+
+    @Benchmark
+    public boolean validateEmailAddress() {
+        return Utils.isValidEmailAddress(userDto.getEmail());
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<UserDto>> validateValidUserDto() {
+        return validator.validate(userDto);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<UserDto>> validateNotValidUserDto() {
+        return validator.validate(notValidUserDto);
+    }
+
+    @Benchmark
+    public byte[] serializeUserDto() throws JsonProcessingException {
+        return userDtoWriter.writeValueAsBytes(userDto);
+    }
+
+    @Benchmark
+    public byte[] serializeUserDtosList() throws JsonProcessingException {
+        return userDtosListWriter.writeValueAsBytes(userDtosList);
+    }
+
+    @Benchmark
+    public ResponseEntity<Object> buildNotFoundError() {
+        return exceptionHandler.handlerRequestException(new EntityNotFoundException("User does not exist or has been deleted"));
+    }
+
+    @Benchmark
+    public ResponseEntity<Object> buildBadRequestError() {
+        return exceptionHandler.handlerRequestException(new IllegalArgumentException("Wrong e-mail address!"));
+    }
+
+    @Benchmark
+    public ResponseEntity<Object> buildValidationError() throws Exception {
+        return exceptionHandler.handleException(methodArgumentNotValidException, null);
+    }
+}
@@ -0,0 +1,91 @@
+package com.gmail.voronovskyi.yaroslav.demo.benchmark;
+
+import com.gmail.voronovskyi.yaroslav.demo.controller.rest.dto.UserDto;
+import com.gmail.voronovskyi.yaroslav.demo.controller.rest.mapper.IUserMapper;
+import com.gmail.voronovskyi.yaroslav.demo.controller.rest.mapper.impl.UserMapper;
+import com.gmail.voronovskyi.yaroslav.demo.model.User;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Compares {@link UserMapper} with the reflective ModelMapper configuration it replaced
+ * (field matching on private fields), for a single user and for a page of users.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserMapperBenchmark {
+
+    private static final int PAGE_SIZE = 50;
+
+    private ModelMapper modelMapper;
+    private IUserMapper userMapper;
+    private User user;
+    private UserDto userDto;
+    private List<User> usersList;
+
+    @Setup
+    public void setup() {
+        modelMapper = new ModelMapper();
+        modelMapper.getConfiguration()
+                .setFieldMatchingEnabled(true)
+                .setFieldAccessLevel(org.modelmapper.config.Configuration.AccessLevel.PRIVATE);
+        userMapper = new UserMapper();
+        user = BenchmarkApplication.createUser(1);
+        user.setId(1);
+        userDto = userMapper.toDto(user);
+        usersList = new ArrayList<>(PAGE_SIZE);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            usersList.add(BenchmarkApplication.createUser(i));
+        }
+    }
+
+    @Benchmark
+    public UserDto modelMapperToDto() {
+        return modelMapper.map(user, UserDto.class);
+    }
+
+    @Benchmark
+    public UserDto userMapperToDto() {
+        return userMapper.toDto(user);
+    }
+
+    @Benchmark
+    public User modelMapperToEntity() {
+        return modelMapper.map(userDto, User.class);
+    }
+
+    @Benchmark
+    public User userMapperToEntity() {
+        return userMapper.toEntity(userDto);
+    }
+
+    @Benchmark
+    public List<UserDto> modelMapperToDtoList() {
+        return usersList.stream()
+                .map(user -> modelMapper.map(user, UserDto.class))
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<UserDto> userMapperToDtoList() {
+        return userMapper.toDtoList(usersList);
+    }
+}
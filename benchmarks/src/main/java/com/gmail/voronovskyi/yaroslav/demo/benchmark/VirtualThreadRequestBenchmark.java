@@ -0,0 +1,83 @@
+package com.gmail.voronovskyi.yaroslav.demo.benchmark;
+
+import com.gmail.voronovskyi.yaroslav.demo.model.User;
+import com.gmail.voronovskyi.yaroslav.demo.service.IUserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of GET /users over HTTP at high client concurrency, with Tomcat running requests
+ * on its platform-thread pool or on virtual threads ({@code application.virtual-threads.enabled}).
+ * On in-memory H2 the JDBC calls do not wait on the network, so this mostly shows the overhead of
+ * the mode; the gain appears when requests spend their time blocked on a remote database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Threads(400)
+@Fork(1)
+public class VirtualThreadRequestBenchmark {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+    private static final int USERS_COUNT = 10_000;
+    private static final int PAGE_LIMIT = 20;
+
+    @Param({"false", "true"})
+    private boolean virtualThreads;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private String usersUrl;
+
+    @Setup
+    public void setup() {
+        context = BenchmarkApplication.startWebServer("virtual-threads-" + virtualThreads,
+                "application.virtual-threads.enabled=" + virtualThreads,
+                "spring.datasource.hikari.maximum-pool-size=50");
+        List<User> usersList = new ArrayList<>(USERS_COUNT);
+        for (int i = 0; i < USERS_COUNT; i++) {
+            usersList.add(BenchmarkApplication.createUser(i));
+        }
+        context.getBean(IUserService.class).registerUsers(usersList);
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        usersUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port")
+                + "/users?limit=" + PAGE_LIMIT + "&after=";
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int getUsersPage() throws IOException, InterruptedException {
+        long after = ThreadLocalRandom.current().nextLong(USERS_COUNT - PAGE_LIMIT);
+        HttpRequest request = HttpRequest.newBuilder(URI.create(usersUrl + after)).timeout(REQUEST_TIMEOUT).GET().build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
@@ -0,0 +1,64 @@
+package com.gmail.voronovskyi.yaroslav.demo.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies of one endpoint in microseconds. The response time is counted from the moment the request was
+ * scheduled to be sent, so requests delayed by slow earlier ones are charged for the wait (the correction for
+ * coordinated omission); the service time is counted from the moment it was actually sent.
+ */
+public class EndpointStats {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final Histogram responseTimes = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+    private final Histogram serviceTimes = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+    private final LongAdder[] statusCounts = new LongAdder[6];
+    private final LongAdder errorsCount = new LongAdder();
+
+    public EndpointStats() {
+        for (int i = 0; i < statusCounts.length; i++) {
+            statusCounts[i] = new LongAdder();
+        }
+    }
+
+    public void recordResponse(int statusCode, long intendedStartNanos, long startNanos, long endNanos) {
+        statusCounts[Math.min(statusCode / 100, statusCounts.length - 1)].increment();
+        record(intendedStartNanos, startNanos, endNanos);
+    }
+
+    public void recordError(long intendedStartNanos, long startNanos, long endNanos) {
+        errorsCount.increment();
+        record(intendedStartNanos, startNanos, endNanos);
+    }
+
+    public Histogram getResponseTimes() {
+        return responseTimes;
+    }
+
+    public Histogram getServiceTimes() {
+        return serviceTimes;
+    }
+
+    public long getStatusCount(int statusClass) {
+        return statusCounts[statusClass].sum();
+    }
+
+    public long getErrorsCount() {
+        return errorsCount.sum();
+    }
+
+    private void record(long intendedStartNanos, long startNanos, long endNanos) {
+        responseTimes.recordValue(toMicros(endNanos - intendedStartNanos));
+        serviceTimes.recordValue(toMicros(endNanos - startNanos));
+    }
+
+    private static long toMicros(long nanos) {
+        return Math.min(TimeUnit.NANOSECONDS.toMicros(nanos), HIGHEST_TRACKABLE_MICROS);
+    }
+}
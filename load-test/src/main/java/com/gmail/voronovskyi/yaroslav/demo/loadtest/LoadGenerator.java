@@ -0,0 +1,131 @@
+package com.gmail.voronovskyi.yaroslav.demo.loadtest;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop generator: request number n is due at start + n / rate whatever happened to the previous ones.
+ * Each client thread takes the next due request, waits for its time and sends it synchronously; when all the
+ * threads are busy, due requests wait and that wait is part of their response time.
+ */
+public class LoadGenerator {
+
+    private final HttpClient httpClient;
+    private final UsersTraffic usersTraffic;
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+    private final int rate;
+    private final int threadsCount;
+
+    public LoadGenerator(HttpClient httpClient, UsersTraffic usersTraffic, Map<Operation, Integer> mix, int rate,
+                         int threadsCount) {
+        this.httpClient = httpClient;
+        this.usersTraffic = usersTraffic;
+        this.operations = mix.keySet().toArray(new Operation[0]);
+        this.cumulativeWeights = new int[operations.length];
+        int totalWeight = 0;
+        for (int i = 0; i < operations.length; i++) {
+            totalWeight += mix.get(operations[i]);
+            cumulativeWeights[i] = totalWeight;
+        }
+        this.rate = rate;
+        this.threadsCount = threadsCount;
+    }
+
+    public Result run(Duration duration) throws InterruptedException {
+        Map<Operation, EndpointStats> statsMap = new EnumMap<>(Operation.class);
+        for (Operation operation : operations) {
+            statsMap.put(operation, new EndpointStats());
+        }
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        long requestsCount = duration.getSeconds() * rate;
+        AtomicLong nextRequest = new AtomicLong();
+        AtomicLong maxLagNanos = new AtomicLong();
+        long startNanos = System.nanoTime();
+        List<Thread> threadsList = new ArrayList<>(threadsCount);
+        for (int i = 0; i < threadsCount; i++) {
+            Thread thread = new Thread(() -> {
+                long request;
+                while ((request = nextRequest.getAndIncrement()) < requestsCount) {
+                    long intendedStartNanos = startNanos + request * intervalNanos;
+                    long waitNanos;
+                    while ((waitNanos = intendedStartNanos - System.nanoTime()) > 0) {
+                        LockSupport.parkNanos(waitNanos);
+                    }
+                    maxLagNanos.accumulateAndGet(-waitNanos, Math::max);
+                    Operation operation = nextOperation();
+                    send(operation, statsMap.get(operation), intendedStartNanos);
+                }
+            }, "load-test-" + i);
+            thread.start();
+            threadsList.add(thread);
+        }
+        for (Thread thread : threadsList) {
+            thread.join();
+        }
+        return new Result(statsMap, Duration.ofNanos(System.nanoTime() - startNanos), Duration.ofNanos(maxLagNanos.get()));
+    }
+
+    private Operation nextOperation() {
+        int value = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        int i = 0;
+        while (value >= cumulativeWeights[i]) {
+            i++;
+        }
+        return operations[i];
+    }
+
+    private void send(Operation operation, EndpointStats stats, long intendedStartNanos) {
+        long startNanos = System.nanoTime();
+        try {
+            HttpRequest request = usersTraffic.createRequest(operation);
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            stats.recordResponse(response.statusCode(), intendedStartNanos, startNanos, System.nanoTime());
+            usersTraffic.onResponse(operation, response.statusCode(), response.body());
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            stats.recordError(intendedStartNanos, startNanos, System.nanoTime());
+        } catch (Exception exception) {
+            stats.recordError(intendedStartNanos, startNanos, System.nanoTime());
+        }
+    }
+
+    public static class Result {
+
+        private final Map<Operation, EndpointStats> statsMap;
+        private final Duration elapsed;
+        private final Duration maxLag;
+
+        public Result(Map<Operation, EndpointStats> statsMap, Duration elapsed, Duration maxLag) {
+            this.statsMap = statsMap;
+            this.elapsed = elapsed;
+            this.maxLag = maxLag;
+        }
+
+        public Map<Operation, EndpointStats> getStatsMap() {
+            return statsMap;
+        }
+
+        public Duration getElapsed() {
+            return elapsed;
+        }
+
+        /**
+         * Largest delay between the time a request was due and the time a client thread was free to send it.
+         * It grows when the server falls behind the rate; when the server is not saturated, raise the threads.
+         */
+        public Duration getMaxLag() {
+            return maxLag;
+        }
+    }
+}
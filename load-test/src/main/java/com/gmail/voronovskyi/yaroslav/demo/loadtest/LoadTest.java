@@ -0,0 +1,89 @@
+package com.gmail.voronovskyi.yaroslav.demo.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gmail.voronovskyi.yaroslav.demo.DemoProjectForClearSolutionApplication;
+import com.gmail.voronovskyi.yaroslav.demo.model.User;
+import com.gmail.voronovskyi.yaroslav.demo.service.IUserService;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.http.HttpClient;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Boots the application on an in-memory H2 database, seeds the users, sends the configured traffic mix at a
+ * fixed rate (see {@link LoadTestSettings}) and writes the report to the report directory:
+ * <pre>
+ * java -cp ... LoadTest --rate=200 --duration=60 --baseline=baseline/load-test-report.json
+ * </pre>
+ */
+public final class LoadTest {
+
+    private static final int SEED_BATCH_SIZE = 5_000;
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestSettings settings = LoadTestSettings.parse(args);
+        ObjectMapper objectMapper = new ObjectMapper();
+        try (ConfigurableApplicationContext context = start()) {
+            List<User> seededUsers = seedUsers(context.getBean(IUserService.class), settings.getUsersCount());
+            String usersUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/users";
+            HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+            LoadGenerator loadGenerator = new LoadGenerator(httpClient, new UsersTraffic(usersUrl, seededUsers, objectMapper),
+                    settings.getMix(), settings.getRate(), settings.getThreadsCount());
+            if (!settings.getWarmup().isZero()) {
+                System.out.printf("Warming up for %d s%n", settings.getWarmup().getSeconds());
+                loadGenerator.run(settings.getWarmup());
+            }
+            System.out.printf("Sending %d req/s for %d s%n", settings.getRate(), settings.getDuration().getSeconds());
+            LoadGenerator.Result result = loadGenerator.run(settings.getDuration());
+            Map<String, Object> report = new LoadTestReport(objectMapper).write(settings, result);
+            printSummary(result, report);
+            System.out.printf("Report written to %s%n", settings.getReportDir().getAbsolutePath());
+        }
+    }
+
+    private static ConfigurableApplicationContext start() {
+        SpringApplication application = new SpringApplication(DemoProjectForClearSolutionApplication.class);
+        application.setWebApplicationType(WebApplicationType.SERVLET);
+        return application.run(
+                "--server.port=0",
+                "--logging.config=classpath:logback-load-test.xml",
+                "--spring.datasource.driverClassName=org.h2.Driver",
+                "--spring.datasource.url=jdbc:h2:mem:load-test;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=H2",
+                "--spring.datasource.password=",
+                "--spring.jpa.hibernate.dialect=org.hibernate.dialect.H2Dialect");
+    }
+
+    private static List<User> seedUsers(IUserService userService, int usersCount) {
+        List<User> seededUsers = new ArrayList<>(usersCount);
+        for (int from = 0; from < usersCount; from += SEED_BATCH_SIZE) {
+            List<User> usersList = new ArrayList<>();
+            for (int i = from; i < Math.min(from + SEED_BATCH_SIZE, usersCount); i++) {
+                usersList.add(UsersTraffic.createUser(i));
+            }
+            seededUsers.addAll(userService.registerUsers(usersList));
+        }
+        return seededUsers;
+    }
+
+    private static void printSummary(LoadGenerator.Result result, Map<String, Object> report) {
+        System.out.printf("%-20s %8s %8s %8s %10s %10s %10s %10s%n",
+                "Endpoint", "Count", "non-2xx", "Errors", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        result.getStatsMap().forEach((operation, stats) -> System.out.printf("%-20s %8d %8d %8d %10.2f %10.2f %10.2f %10.2f%n",
+                operation.getEndpoint(), stats.getResponseTimes().getTotalCount(),
+                stats.getResponseTimes().getTotalCount() - stats.getStatusCount(2) - stats.getErrorsCount(),
+                stats.getErrorsCount(), stats.getResponseTimes().getValueAtPercentile(50) / 1000.0,
+                stats.getResponseTimes().getValueAtPercentile(99) / 1000.0,
+                stats.getResponseTimes().getValueAtPercentile(99.9) / 1000.0,
+                stats.getResponseTimes().getMaxValue() / 1000.0));
+        System.out.printf("%.1f req/s, largest scheduling lag %.1f ms%n", (double) report.get("throughput"),
+                (double) report.get("maxSchedulingLagMillis"));
+    }
+}
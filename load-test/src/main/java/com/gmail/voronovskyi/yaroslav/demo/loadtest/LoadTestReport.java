@@ -0,0 +1,176 @@
+package com.gmail.voronovskyi.yaroslav.demo.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Writes load-test-report.json and load-test-report.html. The JSON keeps the percentiles of every endpoint and
+ * its compressed response time histogram, so it can be passed back as --baseline of a later run; the HTML
+ * shows the percentiles and, with a baseline, their change.
+ */
+public class LoadTestReport {
+
+    public static final String JSON_REPORT = "load-test-report.json";
+    public static final String HTML_REPORT = "load-test-report.html";
+    private static final double[] PERCENTILES = {50, 75, 90, 95, 99, 99.9, 99.99};
+    private static final String[] COMPARED_PERCENTILES = {"p50", "p99", "p99.9", "max"};
+    private static final double MICROS_IN_MILLI = 1000.0;
+
+    private final ObjectMapper objectMapper;
+
+    public LoadTestReport(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public Map<String, Object> write(LoadTestSettings settings, LoadGenerator.Result result) throws IOException {
+        Map<String, Object> report = toReport(settings, result);
+        File reportDir = settings.getReportDir();
+        if (!reportDir.isDirectory() && !reportDir.mkdirs()) {
+            throw new IOException("Can not create report directory " + reportDir);
+        }
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(new File(reportDir, JSON_REPORT), report);
+        JsonNode baseline = settings.getBaseline() != null ? objectMapper.readTree(settings.getBaseline()) : null;
+        try (PrintWriter writer = new PrintWriter(new File(reportDir, HTML_REPORT), StandardCharsets.UTF_8)) {
+            writeHtml(writer, objectMapper.valueToTree(report), baseline);
+        }
+        return report;
+    }
+
+    private Map<String, Object> toReport(LoadTestSettings settings, LoadGenerator.Result result) {
+        double elapsedSeconds = result.getElapsed().toNanos() / 1e9;
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        long totalCount = 0;
+        for (Map.Entry<Operation, EndpointStats> entry : result.getStatsMap().entrySet()) {
+            EndpointStats stats = entry.getValue();
+            long count = stats.getResponseTimes().getTotalCount();
+            totalCount += count;
+            Map<String, Object> statusMap = new LinkedHashMap<>();
+            for (int statusClass = 1; statusClass <= 5; statusClass++) {
+                statusMap.put(statusClass + "xx", stats.getStatusCount(statusClass));
+            }
+            statusMap.put("errors", stats.getErrorsCount());
+            Map<String, Object> endpoint = new LinkedHashMap<>();
+            endpoint.put("count", count);
+            endpoint.put("throughput", count / elapsedSeconds);
+            endpoint.put("status", statusMap);
+            endpoint.put("responseTimeMillis", toPercentiles(stats.getResponseTimes()));
+            endpoint.put("serviceTimeMillis", toPercentiles(stats.getServiceTimes()));
+            endpoint.put("responseTimeHistogram", encode(stats.getResponseTimes()));
+            endpoints.put(entry.getKey().getEndpoint(), endpoint);
+        }
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("finishedAt", Instant.now().toString());
+        report.put("settings", settings.toMap());
+        report.put("elapsedSeconds", elapsedSeconds);
+        report.put("count", totalCount);
+        report.put("throughput", totalCount / elapsedSeconds);
+        report.put("maxSchedulingLagMillis", result.getMaxLag().toNanos() / 1e6);
+        report.put("endpoints", endpoints);
+        return report;
+    }
+
+    private static Map<String, Object> toPercentiles(Histogram histogram) {
+        Map<String, Object> percentiles = new LinkedHashMap<>();
+        percentiles.put("mean", histogram.getMean() / MICROS_IN_MILLI);
+        for (double percentile : PERCENTILES) {
+            percentiles.put(percentileKey(percentile), histogram.getValueAtPercentile(percentile) / MICROS_IN_MILLI);
+        }
+        percentiles.put("max", histogram.getMaxValue() / MICROS_IN_MILLI);
+        return percentiles;
+    }
+
+    private static String percentileKey(double percentile) {
+        return "p" + (percentile == Math.rint(percentile) ? String.valueOf((long) percentile) : String.valueOf(percentile));
+    }
+
+    private static String encode(Histogram histogram) {
+        ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+        int length = histogram.encodeIntoCompressedByteBuffer(buffer);
+        return Base64.getEncoder().encodeToString(Arrays.copyOf(buffer.array(), length));
+    }
+
+    private static void writeHtml(PrintWriter writer, JsonNode report, JsonNode baseline) {
+        writer.println("<!DOCTYPE html>");
+        writer.println("<html><head><meta charset=\"UTF-8\"><title>Users API load test</title>");
+        writer.println("<style>body{font-family:sans-serif}table{border-collapse:collapse;margin-bottom:24px}"
+                + "td,th{border:1px solid #ccc;padding:4px 8px;text-align:right}th:first-child,td:first-child{text-align:left}"
+                + ".worse{color:#b00}.better{color:#070}</style></head><body>");
+        writer.println("<h1>Users API load test</h1>");
+        JsonNode settings = report.get("settings");
+        writer.printf("<p>Finished at %s. %d requests in %.1f s: %.1f req/s of %d req/s scheduled, %d users seeded, "
+                        + "%d client threads, mix %s. Largest scheduling lag %.1f ms.</p>%n",
+                report.get("finishedAt").asText(), report.get("count").asLong(), report.get("elapsedSeconds").asDouble(),
+                report.get("throughput").asDouble(), settings.get("rate").asInt(), settings.get("users").asInt(),
+                settings.get("threads").asInt(), settings.get("mix"), report.get("maxSchedulingLagMillis").asDouble());
+        writer.println("<p>Response time is measured from the time the request was due to be sent (corrected for "
+                + "coordinated omission), service time from the time it was sent. All times in milliseconds.</p>");
+
+        writer.println("<h2>Response time</h2><table><tr><th>Endpoint</th><th>Count</th><th>req/s</th><th>2xx</th>"
+                + "<th>4xx</th><th>5xx</th><th>Errors</th><th>Mean</th>");
+        for (double percentile : PERCENTILES) {
+            writer.printf("<th>%s</th>", percentileKey(percentile));
+        }
+        writer.println("<th>Max</th><th>Service p50</th><th>Service p99</th></tr>");
+        report.get("endpoints").fields().forEachRemaining(entry -> {
+            JsonNode endpoint = entry.getValue();
+            JsonNode status = endpoint.get("status");
+            JsonNode responseTime = endpoint.get("responseTimeMillis");
+            writer.printf("<tr><td>%s</td><td>%d</td><td>%.1f</td><td>%d</td><td>%d</td><td>%d</td><td>%d</td><td>%.2f</td>",
+                    entry.getKey(), endpoint.get("count").asLong(), endpoint.get("throughput").asDouble(),
+                    status.get("2xx").asLong(), status.get("4xx").asLong(), status.get("5xx").asLong(),
+                    status.get("errors").asLong(), responseTime.get("mean").asDouble());
+            for (double percentile : PERCENTILES) {
+                writer.printf("<td>%.2f</td>", responseTime.get(percentileKey(percentile)).asDouble());
+            }
+            JsonNode serviceTime = endpoint.get("serviceTimeMillis");
+            writer.printf("<td>%.2f</td><td>%.2f</td><td>%.2f</td></tr>%n", responseTime.get("max").asDouble(),
+                    serviceTime.get("p50").asDouble(), serviceTime.get("p99").asDouble());
+        });
+        writer.println("</table>");
+
+        if (baseline != null) {
+            writeBaselineComparison(writer, report, baseline);
+        }
+        writer.println("</body></html>");
+    }
+
+    private static void writeBaselineComparison(PrintWriter writer, JsonNode report, JsonNode baseline) {
+        writer.printf("<h2>Change against baseline of %s</h2>%n", baseline.path("finishedAt").asText("unknown time"));
+        writer.print("<table><tr><th>Endpoint</th><th>req/s</th>");
+        for (String percentile : COMPARED_PERCENTILES) {
+            writer.printf("<th>%s baseline</th><th>%s</th><th>Change</th>", percentile, percentile);
+        }
+        writer.println("</tr>");
+        report.get("endpoints").fields().forEachRemaining(entry -> {
+            JsonNode baselineEndpoint = baseline.path("endpoints").get(entry.getKey());
+            if (baselineEndpoint == null) {
+                writer.printf("<tr><td>%s</td><td colspan=\"%d\">not in baseline</td></tr>%n", entry.getKey(),
+                        1 + 3 * COMPARED_PERCENTILES.length);
+                return;
+            }
+            writer.printf("<tr><td>%s</td><td>%.1f / %.1f</td>", entry.getKey(),
+                    baselineEndpoint.get("throughput").asDouble(), entry.getValue().get("throughput").asDouble());
+            for (String percentile : COMPARED_PERCENTILES) {
+                double baselineValue = baselineEndpoint.get("responseTimeMillis").get(percentile).asDouble();
+                double value = entry.getValue().get("responseTimeMillis").get(percentile).asDouble();
+                double change = baselineValue > 0 ? (value - baselineValue) / baselineValue * 100 : 0;
+                writer.printf("<td>%.2f</td><td>%.2f</td><td class=\"%s\">%+.1f%%</td>", baselineValue, value,
+                        change > 0 ? "worse" : "better", change);
+            }
+            writer.println("</tr>");
+        });
+        writer.println("</table>");
+    }
+}
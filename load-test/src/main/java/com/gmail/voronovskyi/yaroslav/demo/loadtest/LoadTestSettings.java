@@ -0,0 +1,130 @@
+package com.gmail.voronovskyi.yaroslav.demo.loadtest;
+
+import java.io.File;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Load test options, given as {@code --name=value} arguments:
+ * <pre>
+ * --users=10000        users seeded before the test
+ * --rate=200           requests per second sent in total, whatever the response times are
+ * --duration=60        seconds of measured traffic, after --warmup=10 seconds of unmeasured traffic
+ * --threads=64         client threads, i.e. the maximum number of requests in flight
+ * --mix=get:50,page:10,search:10,post:10,put:5,patch:10,delete:5
+ * --report-dir=target/load-test
+ * --baseline=path/to/load-test-report.json
+ * </pre>
+ */
+public final class LoadTestSettings {
+
+    private static final String DEFAULT_MIX = "get:50,page:10,search:10,post:10,put:5,patch:10,delete:5";
+
+    private final int usersCount;
+    private final int rate;
+    private final Duration duration;
+    private final Duration warmup;
+    private final int threadsCount;
+    private final Map<Operation, Integer> mix;
+    private final File reportDir;
+    private final File baseline;
+
+    private LoadTestSettings(Map<String, String> options) {
+        usersCount = positive(options, "users", "10000");
+        rate = positive(options, "rate", "200");
+        duration = Duration.ofSeconds(positive(options, "duration", "60"));
+        warmup = Duration.ofSeconds(Integer.parseInt(options.getOrDefault("warmup", "10")));
+        threadsCount = positive(options, "threads", "64");
+        mix = parseMix(options.getOrDefault("mix", DEFAULT_MIX));
+        reportDir = new File(options.getOrDefault("report-dir", "target/load-test"));
+        baseline = options.containsKey("baseline") ? new File(options.get("baseline")) : null;
+    }
+
+    public static LoadTestSettings parse(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            int separatorIndex = arg.indexOf('=');
+            if (!arg.startsWith("--") || separatorIndex < 0) {
+                throw new IllegalArgumentException("Wrong argument " + arg + ", expected --name=value");
+            }
+            options.put(arg.substring(2, separatorIndex), arg.substring(separatorIndex + 1));
+        }
+        return new LoadTestSettings(options);
+    }
+
+    public int getUsersCount() {
+        return usersCount;
+    }
+
+    public int getRate() {
+        return rate;
+    }
+
+    public Duration getDuration() {
+        return duration;
+    }
+
+    public Duration getWarmup() {
+        return warmup;
+    }
+
+    public int getThreadsCount() {
+        return threadsCount;
+    }
+
+    public Map<Operation, Integer> getMix() {
+        return mix;
+    }
+
+    public File getReportDir() {
+        return reportDir;
+    }
+
+    public File getBaseline() {
+        return baseline;
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("users", usersCount);
+        settings.put("rate", rate);
+        settings.put("durationSeconds", duration.getSeconds());
+        settings.put("warmupSeconds", warmup.getSeconds());
+        settings.put("threads", threadsCount);
+        Map<String, Integer> mixMap = new LinkedHashMap<>();
+        mix.forEach((operation, weight) -> mixMap.put(operation.getKey(), weight));
+        settings.put("mix", mixMap);
+        return settings;
+    }
+
+    private static int positive(Map<String, String> options, String name, String defaultValue) {
+        int value = Integer.parseInt(options.getOrDefault(name, defaultValue));
+        if (value < 1) {
+            throw new IllegalArgumentException(name + " must be greater than 0");
+        }
+        return value;
+    }
+
+    private static Map<Operation, Integer> parseMix(String mixOption) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String entry : mixOption.split(",")) {
+            String[] keyAndWeight = entry.trim().split(":");
+            if (keyAndWeight.length != 2) {
+                throw new IllegalArgumentException("Wrong mix entry " + entry + ", expected operation:weight");
+            }
+            int weight = Integer.parseInt(keyAndWeight[1]);
+            if (weight < 0) {
+                throw new IllegalArgumentException("Weight of " + keyAndWeight[0] + " must not be negative");
+            }
+            if (weight > 0) {
+                mix.put(Operation.fromKey(keyAndWeight[0]), weight);
+            }
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("Mix must contain at least one operation");
+        }
+        return mix;
+    }
+}
@@ -0,0 +1,37 @@
+package com.gmail.voronovskyi.yaroslav.demo.loadtest;
+
+public enum Operation {
+
+    GET_USER("get", "GET /users/{id}"),
+    GET_USERS("page", "GET /users"),
+    SEARCH("search", "GET /users/search"),
+    REGISTER("post", "POST /users"),
+    UPDATE("put", "PUT /users/{id}"),
+    PATCH("patch", "PATCH /users/{id}"),
+    DELETE("delete", "DELETE /users/{id}");
+
+    private final String key;
+    private final String endpoint;
+
+    Operation(String key, String endpoint) {
+        this.key = key;
+        this.endpoint = endpoint;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public static Operation fromKey(String key) {
+        for (Operation operation : values()) {
+            if (operation.key.equals(key)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Unknown operation " + key);
+    }
+}
@@ -0,0 +1,115 @@
+package com.gmail.voronovskyi.yaroslav.demo.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gmail.voronovskyi.yaroslav.demo.model.User;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Builds the requests of every {@link Operation}. Reads, PUT and PATCH target the seeded users;
+ * DELETE removes users registered during the test, so the seeded data set stays the same.
+ */
+public class UsersTraffic {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd-MM-yyyy");
+    private static final LocalDate FIRST_BIRTH_DATE = LocalDate.of(1960, 1, 1);
+    private static final int BIRTH_DATES_COUNT = 14_600;
+    private static final int PAGE_LIMIT = 20;
+    private static final long MISSING_USER_ID = Long.MAX_VALUE;
+    private static final String JSON = "application/json";
+    private static final String MERGE_PATCH_JSON = "application/merge-patch+json";
+
+    private final String usersUrl;
+    private final long[] seededIds;
+    private final ObjectMapper objectMapper;
+    private final AtomicLong registrationNumber;
+    private final Queue<Long> registeredIds = new ConcurrentLinkedQueue<>();
+
+    public UsersTraffic(String usersUrl, List<User> seededUsers, ObjectMapper objectMapper) {
+        this.usersUrl = usersUrl;
+        this.seededIds = seededUsers.stream().mapToLong(User::getId).toArray();
+        this.objectMapper = objectMapper;
+        this.registrationNumber = new AtomicLong(seededUsers.size());
+    }
+
+    public static User createUser(long number) {
+        return User.builder()
+                .email("load.test.user" + number + "@gmail.com")
+                .firstName("Load")
+                .lastName("User" + number)
+                .birthDate(FIRST_BIRTH_DATE.plusDays(number % BIRTH_DATES_COUNT))
+                .address("Ukraine, Kyiv")
+                .phoneNumber("+38" + (1_000_000_000L + number))
+                .build();
+    }
+
+    public HttpRequest createRequest(Operation operation) throws JsonProcessingException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int seededIndex = random.nextInt(seededIds.length);
+        switch (operation) {
+            case GET_USER:
+                return request(usersUrl + "/" + seededIds[seededIndex]).GET().build();
+            case GET_USERS:
+                return request(usersUrl + "?limit=" + PAGE_LIMIT + "&after=" + seededIds[seededIndex]).GET().build();
+            case SEARCH:
+                LocalDate fromDate = FIRST_BIRTH_DATE.plusDays(random.nextInt(BIRTH_DATES_COUNT));
+                return request(usersUrl + "/search?limit=" + PAGE_LIMIT + "&from=" + fromDate.format(DATE_FORMAT)
+                        + "&to=" + fromDate.plusDays(30).format(DATE_FORMAT)).GET().build();
+            case REGISTER:
+                User user = createUser(registrationNumber.getAndIncrement());
+                return request(usersUrl).header("Content-Type", JSON)
+                        .POST(HttpRequest.BodyPublishers.ofString(toJson(user))).build();
+            case UPDATE:
+                User seededUser = createUser(seededIndex);
+                seededUser.setAddress("Ukraine, Lviv, " + random.nextInt(1000));
+                return request(usersUrl + "/" + seededIds[seededIndex]).header("Content-Type", JSON)
+                        .PUT(HttpRequest.BodyPublishers.ofString(toJson(seededUser))).build();
+            case PATCH:
+                String mergePatch = objectMapper.writeValueAsString(Map.of("address", "Ukraine, Odesa, " + random.nextInt(1000)));
+                return request(usersUrl + "/" + seededIds[seededIndex]).header("Content-Type", MERGE_PATCH_JSON)
+                        .method("PATCH", HttpRequest.BodyPublishers.ofString(mergePatch)).build();
+            case DELETE:
+                Long registeredId = registeredIds.poll();
+                return request(usersUrl + "/" + (registeredId != null ? registeredId : MISSING_USER_ID))
+                        .header("Content-Type", JSON).DELETE().build();
+            default:
+                throw new IllegalArgumentException("Unknown operation " + operation);
+        }
+    }
+
+    public void onResponse(Operation operation, int statusCode, String body) throws JsonProcessingException {
+        if (operation == Operation.REGISTER && statusCode == 200) {
+            JsonNode userNode = objectMapper.readTree(body);
+            registeredIds.add(userNode.get("id").asLong());
+        }
+    }
+
+    private HttpRequest.Builder request(String url) {
+        return HttpRequest.newBuilder(URI.create(url)).timeout(REQUEST_TIMEOUT).header("Accept", JSON);
+    }
+
+    private String toJson(User user) throws JsonProcessingException {
+        Map<String, Object> userMap = new LinkedHashMap<>();
+        userMap.put("email", user.getEmail());
+        userMap.put("firstName", user.getFirstName());
+        userMap.put("lastName", user.getLastName());
+        userMap.put("birthDate", user.getBirthDate().format(DATE_FORMAT));
+        userMap.put("address", user.getAddress());
+        userMap.put("phoneNumber", user.getPhoneNumber());
+        return objectMapper.writeValueAsString(userMap);
+    }
+}
@@ -0,0 +1,16 @@
+package com.gmail.voronovskyi.yaroslav.demo.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+/**
+ * Entry point of the reactive users API. Its components are conditional on a reactive web application,
+ * so the servlet application does not pick them up when both jars share a classpath (as in the benchmarks).
+ */
+@SpringBootApplication
+public class ReactiveUsersApplication {
+
+    public static void main(String[] args) {
+        SpringApplication.run(ReactiveUsersApplication.class, args);
+    }
+}
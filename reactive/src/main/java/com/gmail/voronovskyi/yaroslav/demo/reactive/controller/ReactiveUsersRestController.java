@@ -0,0 +1,231 @@
+package com.gmail.voronovskyi.yaroslav.demo.reactive.controller;
+
+import com.gmail.voronovskyi.yaroslav.demo.Utils;
+import com.gmail.voronovskyi.yaroslav.demo.controller.exception.NotValidAgeException;
+import com.gmail.voronovskyi.yaroslav.demo.controller.rest.dto.BatchItemErrorDto;
+import com.gmail.voronovskyi.yaroslav.demo.controller.rest.dto.BatchRegistrationResultDto;
+import com.gmail.voronovskyi.yaroslav.demo.controller.rest.dto.UserDto;
+import com.gmail.voronovskyi.yaroslav.demo.reactive.controller.rest.mapper.IReactiveUserMapper;
+import com.gmail.voronovskyi.yaroslav.demo.reactive.model.User;
+import com.gmail.voronovskyi.yaroslav.demo.reactive.service.IReactiveUserService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.domain.Slice;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import javax.validation.Valid;
+import javax.validation.Validator;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Non-blocking counterpart of UsersRestController: same paths, parameters, headers and error bodies.
+ */
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RestController
+@RequestMapping("/users")
+public class ReactiveUsersRestController {
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReactiveUsersRestController.class);
+    private static final char BIRTH_DATE_CURSOR_SEPARATOR = '_';
+    private static final DateTimeFormatter BIRTH_DATE_FORMAT = DateTimeFormatter.ofPattern("dd-MM-yyyy");
+    private final IReactiveUserService userService;
+    private final IReactiveUserMapper userMapper;
+    private final Validator validator;
+
+    @Autowired
+    public ReactiveUsersRestController(IReactiveUserService userService, IReactiveUserMapper userMapper, Validator validator) {
+        this.userService = userService;
+        this.userMapper = userMapper;
+        this.validator = validator;
+    }
+
+    @GetMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<UserDto> getUserById(@PathVariable("id") long userId) {
+        LOGGER.debug("Try get user wih id {}", userId);
+        return userService.getUserById(userId).map(userMapper::toDto);
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<List<UserDto>>> getAllUsers(@RequestParam(value = "after", defaultValue = "0") long afterId,
+                                                           @RequestParam(value = "limit", defaultValue = "${application.page.default.limit}") int limit,
+                                                           @Value("${application.page.max.limit}") int maxLimit) {
+        LOGGER.debug("Try get users after id {}", afterId);
+        return userService.getAllUsers(afterId, Math.min(limit, maxLimit))
+                .map(usersSlice -> toResponseEntity(usersSlice, userDto -> String.valueOf(userDto.getId())));
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<UserDto> exportUsers() {
+        LOGGER.debug("Try export all users");
+        return userService.exportUsers().map(userMapper::toDto);
+    }
+
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<UserDto> registerNewUser(@RequestBody @Valid UserDto userDto, @Value("${application.min.age}") long minAge) {
+        LOGGER.debug("Try register new user");
+        if (!Utils.isValidEmailAddress(userDto.getEmail())) {
+            return Mono.error(new IllegalArgumentException("Wrong e-mail address!"));
+        }
+        if (LocalDate.from(userDto.getBirthDate()).until(LocalDate.now(), ChronoUnit.YEARS) < minAge) {
+            return Mono.error(new NotValidAgeException("Age not valid, user must be older than 18 years"));
+        }
+        return userService.registerUser(userMapper.toEntity(userDto)).map(userMapper::toDto);
+    }
+
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<BatchRegistrationResultDto> registerNewUsers(@RequestBody List<UserDto> userDtosList,
+                                                             @Value("${application.min.age}") long minAge,
+                                                             @Value("${application.batch.max.size}") int maxBatchSize) {
+        LOGGER.debug("Try register {} new users", userDtosList.size());
+        if (userDtosList.size() > maxBatchSize) {
+            return Mono.error(new IllegalArgumentException("Batch size must not be greater than " + maxBatchSize));
+        }
+        Map<Integer, List<String>> errorsMap = new TreeMap<>();
+        Set<String> emails = new HashSet<>();
+        Set<String> phoneNumbers = new HashSet<>();
+        for (int i = 0; i < userDtosList.size(); i++) {
+            UserDto userDto = userDtosList.get(i);
+            List<String> errors = validateNewUser(userDto, minAge);
+            if (userDto.getEmail() != null && !emails.add(userDto.getEmail())) {
+                errors.add("email is duplicated in the batch");
+            }
+            if (userDto.getPhoneNumber() != null && !phoneNumbers.add(userDto.getPhoneNumber())) {
+                errors.add("phoneNumber is duplicated in the batch");
+            }
+            if (!errors.isEmpty()) {
+                errorsMap.put(i, errors);
+            }
+        }
+        return userService.findUsersByEmailsOrPhoneNumbers(emails, phoneNumbers).collectList().flatMap(existingUsersList -> {
+            Set<String> existingEmails = new HashSet<>();
+            Set<String> existingPhoneNumbers = new HashSet<>();
+            existingUsersList.forEach(user -> {
+                existingEmails.add(user.getEmail());
+                existingPhoneNumbers.add(user.getPhoneNumber());
+            });
+            List<User> usersList = new ArrayList<>();
+            for (int i = 0; i < userDtosList.size(); i++) {
+                UserDto userDto = userDtosList.get(i);
+                if (existingEmails.contains(userDto.getEmail())) {
+                    errorsMap.computeIfAbsent(i, index -> new ArrayList<>()).add("email already exists");
+                }
+                if (existingPhoneNumbers.contains(userDto.getPhoneNumber())) {
+                    errorsMap.computeIfAbsent(i, index -> new ArrayList<>()).add("phoneNumber already exists");
+                }
+                if (!errorsMap.containsKey(i)) {
+                    User user = userMapper.toEntity(userDto);
+                    user.setId(0L);
+                    usersList.add(user);
+                }
+            }
+            return userService.registerUsers(usersList).collectList();
+        }).map(registeredUsersList -> BatchRegistrationResultDto.builder()
+                .registered(userMapper.toDtoList(registeredUsersList))
+                .errors(errorsMap.entrySet().stream()
+                        .map(entry -> BatchItemErrorDto.builder()
+                                .index(entry.getKey())
+                                .message(entry.getValue())
+                                .build())
+                        .collect(Collectors.toList()))
+                .build());
+    }
+
+    @PutMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<UserDto> updateUser(@PathVariable("id") long userId, @RequestBody @Valid UserDto userDto) {
+        LOGGER.debug("Try update user wih id {}", userId);
+        userDto.setId(userId);
+        return userService.updateUser(userMapper.toEntity(userDto)).map(userMapper::toDto);
+    }
+
+    @PatchMapping(value = "/{id}", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<UserDto> updateSomeUserField(@PathVariable("id") long userId, @RequestBody UserDto userDto) {
+        LOGGER.debug("Try update user wih id {}", userId);
+        if (userDto.getEmail() != null && !Utils.isValidEmailAddress(userDto.getEmail())) {
+            return Mono.error(new IllegalArgumentException("Wrong e-mail address!"));
+        }
+        return userService.getUserById(userId)
+                .flatMap(user -> userService.updateUser(userMapper.merge(user, userDto)))
+                .map(userMapper::toDto);
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<Void> deleteUser(@PathVariable("id") long userId) {
+        LOGGER.debug("Try delete user wih id {}", userId);
+        return userService.deleteUser(userId);
+    }
+
+    @GetMapping(value = "/search", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<List<UserDto>>> findUserByBirthDate(@RequestParam("from") @DateTimeFormat(pattern = "dd-MM-yyyy") LocalDate fromDate,
+                                                                   @RequestParam("to") @DateTimeFormat(pattern = "dd-MM-yyyy") LocalDate toDate,
+                                                                   @RequestParam(value = "after", required = false) String after,
+                                                                   @RequestParam(value = "limit", defaultValue = "${application.page.default.limit}") int limit,
+                                                                   @Value("${application.page.max.limit}") int maxLimit) {
+        LOGGER.debug("Try get users by birth date range after {}", after);
+        LocalDate afterBirthDate = null;
+        long afterId = 0;
+        if (after != null) {
+            try {
+                int separatorIndex = after.lastIndexOf(BIRTH_DATE_CURSOR_SEPARATOR);
+                afterBirthDate = LocalDate.parse(after.substring(0, separatorIndex), BIRTH_DATE_FORMAT);
+                afterId = Long.parseLong(after.substring(separatorIndex + 1));
+            } catch (RuntimeException exception) {
+                return Mono.error(new IllegalArgumentException("Wrong cursor, expected format is dd-MM-yyyy_id"));
+            }
+        }
+        return userService.findUsersByBirthDate(fromDate, toDate, afterBirthDate, afterId, Math.min(limit, maxLimit))
+                .map(usersSlice -> toResponseEntity(usersSlice, userDto -> userDto.getBirthDate().format(BIRTH_DATE_FORMAT)
+                        + BIRTH_DATE_CURSOR_SEPARATOR + userDto.getId()));
+    }
+
+    private ResponseEntity<List<UserDto>> toResponseEntity(Slice<User> usersSlice, Function<UserDto, String> cursor) {
+        List<UserDto> userDtosList = userMapper.toDtoList(usersSlice.getContent());
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.ok();
+        if (usersSlice.hasNext()) {
+            responseBuilder.header(NEXT_CURSOR_HEADER, cursor.apply(userDtosList.get(userDtosList.size() - 1)));
+        }
+        return responseBuilder.body(userDtosList);
+    }
+
+    private List<String> validateNewUser(UserDto userDto, long minAge) {
+        List<String> errors = validator.validate(userDto).stream()
+                .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                .collect(Collectors.toCollection(ArrayList::new));
+        if (!Utils.isValidEmailAddress(userDto.getEmail())) {
+            errors.add("Wrong e-mail address!");
+        }
+        if (userDto.getBirthDate() == null) {
+            errors.add("birthDate can not be null");
+        } else if (LocalDate.from(userDto.getBirthDate()).until(LocalDate.now(), ChronoUnit.YEARS) < minAge) {
+            errors.add("Age not valid, user must be older than 18 years");
+        }
+        return errors;
+    }
+}
@@ -0,0 +1,77 @@
+package com.gmail.voronovskyi.yaroslav.demo.reactive.controller.exception;
+
+import com.gmail.voronovskyi.yaroslav.demo.controller.exception.ApiError;
+import com.gmail.voronovskyi.yaroslav.demo.controller.exception.NotValidAgeException;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.server.ServerWebInputException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Builds the same {@link ApiError} bodies as the servlet CarRestControllerExceptionHandler.
+ */
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@ControllerAdvice(annotations = RestController.class)
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ReactiveUsersExceptionHandler {
+
+    @ExceptionHandler(value = {WebExchangeBindException.class})
+    public ResponseEntity<Object> handlerRequestException(WebExchangeBindException exception) {
+        List<String> errors = exception.getBindingResult().getFieldErrors().stream()
+                .map(x -> x.getField() + " " + x.getDefaultMessage())
+                .collect(Collectors.toList());
+        return buildResponseEntity(HttpStatus.BAD_REQUEST, errors);
+    }
+
+    @ExceptionHandler(value = {ServerWebInputException.class})
+    public ResponseEntity<Object> handlerRequestException(ServerWebInputException exception) {
+        return buildResponseEntity(HttpStatus.BAD_REQUEST, List.of(exception.getReason()));
+    }
+
+    @ExceptionHandler(value = {UserNotFoundException.class})
+    public ResponseEntity<Object> handlerRequestException(UserNotFoundException exception) {
+        return buildResponseEntity(HttpStatus.NOT_FOUND, List.of(exception.getMessage()));
+    }
+
+    @ExceptionHandler(value = {IllegalArgumentException.class})
+    public ResponseEntity<Object> handlerRequestException(IllegalArgumentException exception) {
+        return buildResponseEntity(HttpStatus.BAD_REQUEST, List.of(exception.getMessage()));
+    }
+
+    @ExceptionHandler(value = {NotValidAgeException.class})
+    public ResponseEntity<Object> handlerRequestException(NotValidAgeException exception) {
+        return buildResponseEntity(HttpStatus.BAD_REQUEST, List.of(exception.getMessage()));
+    }
+
+    @ExceptionHandler(value = {DataIntegrityViolationException.class})
+    public ResponseEntity<Object> handlerRequestException(DataIntegrityViolationException exception) {
+        return buildResponseEntity(HttpStatus.CONFLICT, List.of("User with the same email or phone number already exists"));
+    }
+
+    @ExceptionHandler(value = {OptimisticLockingFailureException.class})
+    public ResponseEntity<Object> handlerRequestException(OptimisticLockingFailureException exception) {
+        return buildResponseEntity(HttpStatus.CONFLICT, List.of("User has been modified concurrently, reload it and retry"));
+    }
+
+    private ResponseEntity<Object> buildResponseEntity(HttpStatus status, List<String> message) {
+        ApiError apiError = ApiError.builder()
+                .error(status.value())
+                .status(status)
+                .timestamp(LocalDateTime.now())
+                .message(message)
+                .build();
+        return new ResponseEntity<>(apiError, apiError.getStatus());
+    }
+}
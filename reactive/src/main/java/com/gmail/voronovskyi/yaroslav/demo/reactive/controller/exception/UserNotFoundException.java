@@ -0,0 +1,13 @@
+package com.gmail.voronovskyi.yaroslav.demo.reactive.controller.exception;
+
+/**
+ * Created without a stack trace: missing users are an expected outcome answered with 404.
+ */
+public class UserNotFoundException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public UserNotFoundException(String message) {
+        super(message, null, false, false);
+    }
+}
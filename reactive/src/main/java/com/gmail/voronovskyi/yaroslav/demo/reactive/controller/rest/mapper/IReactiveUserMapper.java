@@ -0,0 +1,17 @@
+package com.gmail.voronovskyi.yaroslav.demo.reactive.controller.rest.mapper;
+
+import com.gmail.voronovskyi.yaroslav.demo.controller.rest.dto.UserDto;
+import com.gmail.voronovskyi.yaroslav.demo.reactive.model.User;
+
+import java.util.List;
+
+public interface IReactiveUserMapper {
+
+    UserDto toDto(User user);
+
+    User toEntity(UserDto userDto);
+
+    List<UserDto> toDtoList(List<User> usersList);
+
+    User merge(User user, UserDto userDto);
+}
@@ -0,0 +1,59 @@
+package com.gmail.voronovskyi.yaroslav.demo.reactive.controller.rest.mapper.impl;
+
+import com.gmail.voronovskyi.yaroslav.demo.controller.rest.dto.UserDto;
+import com.gmail.voronovskyi.yaroslav.demo.reactive.controller.rest.mapper.IReactiveUserMapper;
+import com.gmail.voronovskyi.yaroslav.demo.reactive.model.User;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@Component
+public class ReactiveUserMapper implements IReactiveUserMapper {
+
+    @Override
+    public UserDto toDto(User user) {
+        return new UserDto(user.getId(), user.getEmail(), user.getFirstName(), user.getLastName(),
+                user.getBirthDate(), user.getAddress(), user.getPhoneNumber());
+    }
+
+    @Override
+    public User toEntity(UserDto userDto) {
+        return new User(userDto.getId(), userDto.getEmail(), userDto.getFirstName(), userDto.getLastName(),
+                userDto.getBirthDate(), userDto.getAddress(), userDto.getPhoneNumber(), 0L);
+    }
+
+    @Override
+    public List<UserDto> toDtoList(List<User> usersList) {
+        List<UserDto> userDtosList = new ArrayList<>(usersList.size());
+        for (User user : usersList) {
+            userDtosList.add(toDto(user));
+        }
+        return userDtosList;
+    }
+
+    @Override
+    public User merge(User user, UserDto userDto) {
+        if (userDto.getEmail() != null) {
+            user.setEmail(userDto.getEmail());
+        }
+        if (userDto.getFirstName() != null) {
+            user.setFirstName(userDto.getFirstName());
+        }
+        if (userDto.getLastName() != null) {
+            user.setLastName(userDto.getLastName());
+        }
+        if (userDto.getBirthDate() != null) {
+            user.setBirthDate(userDto.getBirthDate());
+        }
+        if (userDto.getAddress() != null) {
+            user.setAddress(userDto.getAddress());
+        }
+        if (userDto.getPhoneNumber() != null) {
+            user.setPhoneNumber(userDto.getPhoneNumber());
+        }
+        return user;
+    }
+}
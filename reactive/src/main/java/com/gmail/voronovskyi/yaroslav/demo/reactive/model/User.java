@@ -0,0 +1,46 @@
+package com.gmail.voronovskyi.yaroslav.demo.reactive.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * R2DBC mapping of the same users table the servlet application owns.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table("users")
+public class User implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    private long id;
+    private String email;
+    private String firstName;
+    private String lastName;
+    private LocalDate birthDate;
+    private int birthMonthDay;
+    private String address;
+    private String phoneNumber;
+    @Version
+    private long version;
+
+    public User(long id, String email, String firstName, String lastName, LocalDate birthDate, String address,
+                String phoneNumber, long version) {
+        this(id, email, firstName, lastName, birthDate, toBirthMonthDay(birthDate), address, phoneNumber, version);
+    }
+
+    public static int toBirthMonthDay(LocalDate birthDate) {
+        return birthDate == null ? 0 : birthDate.getMonthValue() * 100 + birthDate.getDayOfMonth();
+    }
+}
@@ -0,0 +1,33 @@
+package com.gmail.voronovskyi.yaroslav.demo.reactive.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * R2DBC mapping of the change log the servlet application serves as /users/changes.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table("user_changes")
+public class UserChange implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    private long id;
+    private long userId;
+    private Type type;
+    private Long version;
+    private LocalDateTime changedAt;
+
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+}
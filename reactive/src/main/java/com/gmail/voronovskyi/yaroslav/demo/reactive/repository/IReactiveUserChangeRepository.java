@@ -0,0 +1,17 @@
+package com.gmail.voronovskyi.yaroslav.demo.reactive.repository;
+
+import com.gmail.voronovskyi.yaroslav.demo.reactive.model.UserChange;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Repository
+public interface IReactiveUserChangeRepository extends ReactiveCrudRepository<UserChange, Long> {
+
+    @Query("SELECT nextval('user_changes_seq')")
+    Mono<Long> nextId();
+
+    Flux<UserChange> findByUserIdOrderByIdAsc(long userId);
+}
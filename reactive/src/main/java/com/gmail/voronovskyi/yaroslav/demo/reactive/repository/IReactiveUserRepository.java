@@ -0,0 +1,38 @@
+package com.gmail.voronovskyi.yaroslav.demo.reactive.repository;
+
+import com.gmail.voronovskyi.yaroslav.demo.reactive.model.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+@Repository
+public interface IReactiveUserRepository extends ReactiveCrudRepository<User, Long> {
+
+    @Query("SELECT nextval('users_seq')")
+    Mono<Long> nextId();
+
+    Flux<User> findByIdGreaterThanOrderByIdAsc(long afterId, Pageable pageable);
+
+    Flux<User> findByBirthDateBetweenOrderByBirthDateAscIdAsc(LocalDate fromDate, LocalDate toDate, Pageable pageable);
+
+    @Query("SELECT * FROM users WHERE birth_date >= :afterBirthDate AND birth_date <= :toDate"
+            + " AND (birth_date > :afterBirthDate OR id > :afterId) ORDER BY birth_date, id LIMIT :limit")
+    Flux<User> findByBirthDateAfterCursor(@Param("afterBirthDate") LocalDate afterBirthDate, @Param("afterId") long afterId,
+                                          @Param("toDate") LocalDate toDate, @Param("limit") int limit);
+
+    Flux<User> findByEmailInOrPhoneNumberIn(Collection<String> emails, Collection<String> phoneNumbers);
+
+    Flux<User> findAllByOrderByIdAsc();
+
+    @Modifying
+    @Query("DELETE FROM users WHERE id = :userId")
+    Mono<Integer> deleteUserById(@Param("userId") long userId);
+}
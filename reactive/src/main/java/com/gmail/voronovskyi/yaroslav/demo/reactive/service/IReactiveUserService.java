@@ -0,0 +1,31 @@
+package com.gmail.voronovskyi.yaroslav.demo.reactive.service;
+
+import com.gmail.voronovskyi.yaroslav.demo.reactive.model.User;
+import org.springframework.data.domain.Slice;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+public interface IReactiveUserService {
+
+    Mono<User> getUserById(long userId);
+
+    Mono<Slice<User>> getAllUsers(long afterId, int limit);
+
+    Flux<User> exportUsers();
+
+    Mono<User> registerUser(User user);
+
+    Flux<User> registerUsers(List<User> usersList);
+
+    Flux<User> findUsersByEmailsOrPhoneNumbers(Collection<String> emails, Collection<String> phoneNumbers);
+
+    Mono<User> updateUser(User user);
+
+    Mono<Void> deleteUser(long userId);
+
+    Mono<Slice<User>> findUsersByBirthDate(LocalDate fromDate, LocalDate toDate, LocalDate afterBirthDate, long afterId, int limit);
+}
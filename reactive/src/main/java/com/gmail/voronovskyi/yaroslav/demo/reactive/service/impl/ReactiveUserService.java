@@ -0,0 +1,151 @@
+package com.gmail.voronovskyi.yaroslav.demo.reactive.service.impl;
+
+import com.gmail.voronovskyi.yaroslav.demo.reactive.controller.exception.UserNotFoundException;
+import com.gmail.voronovskyi.yaroslav.demo.reactive.model.User;
+import com.gmail.voronovskyi.yaroslav.demo.reactive.model.UserChange;
+import com.gmail.voronovskyi.yaroslav.demo.reactive.repository.IReactiveUserChangeRepository;
+import com.gmail.voronovskyi.yaroslav.demo.reactive.repository.IReactiveUserRepository;
+import com.gmail.voronovskyi.yaroslav.demo.reactive.service.IReactiveUserService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@Service
+public class ReactiveUserService implements IReactiveUserService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReactiveUserService.class);
+    private final IReactiveUserRepository userRepository;
+    private final IReactiveUserChangeRepository userChangeRepository;
+    private final R2dbcEntityTemplate entityTemplate;
+
+    @Autowired
+    public ReactiveUserService(IReactiveUserRepository userRepository, IReactiveUserChangeRepository userChangeRepository,
+                               R2dbcEntityTemplate entityTemplate) {
+        this.userRepository = userRepository;
+        this.userChangeRepository = userChangeRepository;
+        this.entityTemplate = entityTemplate;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Mono<User> getUserById(long userId) {
+        LOGGER.debug("Try get user wih id {} from DB", userId);
+        return userRepository.findById(userId)
+                .switchIfEmpty(Mono.error(() -> new UserNotFoundException("User with id " + userId + " does not exist or has been deleted")));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Mono<Slice<User>> getAllUsers(long afterId, int limit) {
+        LOGGER.debug("Try get {} users after id {} from DB", limit, afterId);
+        if (limit < 1) {
+            return Mono.error(new IllegalArgumentException("Limit must be greater than 0"));
+        }
+        return toSlice(userRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, limit + 1)), limit);
+    }
+
+    @Override
+    public Flux<User> exportUsers() {
+        LOGGER.debug("Try export all users from DB");
+        return userRepository.findAllByOrderByIdAsc();
+    }
+
+    @Override
+    @Transactional
+    public Mono<User> registerUser(User user) {
+        LOGGER.debug("Try register new user and save in DB");
+        return userRepository.nextId()
+                .flatMap(userId -> {
+                    user.setId(userId);
+                    user.setBirthMonthDay(User.toBirthMonthDay(user.getBirthDate()));
+                    return entityTemplate.insert(user);
+                })
+                .flatMap(registeredUser -> saveChange(registeredUser.getId(), UserChange.Type.CREATED, registeredUser.getVersion())
+                        .thenReturn(registeredUser));
+    }
+
+    @Override
+    @Transactional
+    public Flux<User> registerUsers(List<User> usersList) {
+        LOGGER.debug("Try register {} new users and save in DB", usersList.size());
+        return Flux.fromIterable(usersList).concatMap(this::registerUser);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Flux<User> findUsersByEmailsOrPhoneNumbers(Collection<String> emails, Collection<String> phoneNumbers) {
+        LOGGER.debug("Try get users by {} emails and {} phone numbers from DB", emails.size(), phoneNumbers.size());
+        if (emails.isEmpty() && phoneNumbers.isEmpty()) {
+            return Flux.empty();
+        }
+        return userRepository.findByEmailInOrPhoneNumberIn(emails, phoneNumbers);
+    }
+
+    @Override
+    @Transactional
+    public Mono<User> updateUser(User user) {
+        LOGGER.debug("Try update user wih id {} from DB", user.getId());
+        return userRepository.findById(user.getId())
+                .switchIfEmpty(Mono.error(new UserNotFoundException("User with id " + user.getId() + " does not exist or has been deleted")))
+                .flatMap(existingUser -> {
+                    user.setVersion(existingUser.getVersion());
+                    user.setBirthMonthDay(User.toBirthMonthDay(user.getBirthDate()));
+                    return entityTemplate.update(user);
+                })
+                .flatMap(updatedUser -> saveChange(updatedUser.getId(), UserChange.Type.UPDATED, updatedUser.getVersion())
+                        .thenReturn(updatedUser));
+    }
+
+    @Override
+    @Transactional
+    public Mono<Void> deleteUser(long userId) {
+        LOGGER.debug("Try delete user wih id {} from DB", userId);
+        return userRepository.deleteUserById(userId)
+                .flatMap(deletedCount -> deletedCount == 0
+                        ? Mono.error(new UserNotFoundException("User with id " + userId + " does not exist or has been deleted"))
+                        : saveChange(userId, UserChange.Type.DELETED, null).then());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Mono<Slice<User>> findUsersByBirthDate(LocalDate fromDate, LocalDate toDate, LocalDate afterBirthDate, long afterId, int limit) {
+        LOGGER.debug("Try get {} users by birth date range after {} and id {} from DB", limit, afterBirthDate, afterId);
+        if (limit < 1) {
+            return Mono.error(new IllegalArgumentException("Limit must be greater than 0"));
+        }
+        Flux<User> usersFlux = afterBirthDate == null || afterBirthDate.isBefore(fromDate)
+                ? userRepository.findByBirthDateBetweenOrderByBirthDateAscIdAsc(fromDate, toDate, PageRequest.of(0, limit + 1))
+                : userRepository.findByBirthDateAfterCursor(afterBirthDate, afterId, toDate, limit + 1);
+        return toSlice(usersFlux, limit);
+    }
+
+    /**
+     * Writes the entry of the change log the servlet application serves, in the transaction of the change.
+     */
+    private Mono<UserChange> saveChange(long userId, UserChange.Type type, Long version) {
+        return userChangeRepository.nextId()
+                .flatMap(changeId -> entityTemplate.insert(new UserChange(changeId, userId, type, version, LocalDateTime.now())));
+    }
+
+        private Mono<Slice<User>> toSlice(Flux<User> usersFlux, int limit) {
+        return usersFlux.collectList().map(usersList -> {
+            boolean hasNext = usersList.size() > limit;
+            return new SliceImpl<>(hasNext ? usersList.subList(0, limit) : usersList, PageRequest.of(0, limit), hasNext);
+        });
+    }
+}
@@ -0,0 +1,30 @@
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS users (
+    id BIGINT NOT NULL PRIMARY KEY,
+    email VARCHAR(255) NOT NULL,
+    first_name VARCHAR(255) NOT NULL,
+    last_name VARCHAR(255) NOT NULL,
+    birth_date DATE NOT NULL,
+    birth_month_day INT NOT NULL,
+    address VARCHAR(255) NOT NULL,
+    phone_number VARCHAR(255) NOT NULL,
+    version BIGINT NOT NULL DEFAULT 0,
+    CONSTRAINT uk_users_email UNIQUE (email),
+    CONSTRAINT uk_users_phone_number UNIQUE (phone_number)
+);
+
+CREATE INDEX IF NOT EXISTS idx_users_birth_date_id ON users (birth_date, id);
+CREATE INDEX IF NOT EXISTS idx_users_birth_month_day_id ON users (birth_month_day, id);
+
+CREATE SEQUENCE IF NOT EXISTS user_changes_seq START WITH 1 INCREMENT BY 1;
+
+CREATE TABLE IF NOT EXISTS user_changes (
+    id BIGINT NOT NULL PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    type VARCHAR(16) NOT NULL,
+    version BIGINT,
+    changed_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_user_changes_changed_at ON user_changes (changed_at);
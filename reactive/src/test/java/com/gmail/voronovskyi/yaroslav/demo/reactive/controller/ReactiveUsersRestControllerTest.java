@@ -0,0 +1,231 @@
+package com.gmail.voronovskyi.yaroslav.demo.reactive.controller;
+
+import com.gmail.voronovskyi.yaroslav.demo.controller.rest.dto.BatchRegistrationResultDto;
+import com.gmail.voronovskyi.yaroslav.demo.controller.rest.dto.UserDto;
+import com.gmail.voronovskyi.yaroslav.demo.reactive.model.UserChange;
+import com.gmail.voronovskyi.yaroslav.demo.reactive.repository.IReactiveUserChangeRepository;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.EntityExchangeResult;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest
+@AutoConfigureWebTestClient
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class ReactiveUsersRestControllerTest {
+
+    private final static long TEST_USER_ID = 1L;
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd-MM-yyyy");
+
+    @Autowired
+    private WebTestClient webTestClient;
+    @Autowired
+    private IReactiveUserChangeRepository userChangeRepository;
+
+    @Test
+    @Order(1)
+    public void shouldReturnUserDtosPageWithNextCursor() {
+        EntityExchangeResult<List<UserDto>> firstPage = webTestClient.get().uri("/users?limit=2")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(ReactiveUsersRestController.NEXT_CURSOR_HEADER, "2")
+                .expectBodyList(UserDto.class).returnResult();
+        assertEquals(firstPage.getResponseBody().size(), 2);
+        assertEquals(firstPage.getResponseBody().get(0), createTestUserDto());
+        EntityExchangeResult<List<UserDto>> lastPage = webTestClient.get().uri("/users?limit=10&after=2")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(UserDto.class).returnResult();
+        assertEquals(lastPage.getResponseBody().size(), 3);
+        assertEquals(lastPage.getResponseBody().get(0).getId(), 3);
+        assertNull(lastPage.getResponseHeaders().getFirst(ReactiveUsersRestController.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    @Order(2)
+    public void shouldReturnExpectedUserDtoById() {
+        webTestClient.get().uri("/users/1")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(UserDto.class).isEqualTo(createTestUserDto());
+    }
+
+    @Test
+    @Order(3)
+    public void shouldRegisterNewUserDto() {
+        UserDto userDto = createTestUserDto();
+        userDto.setId(0);
+        userDto.setEmail("yaroslav.voronovskyi-aws@gmail.com");
+        userDto.setPhoneNumber("+380976714499");
+        userDto.setBirthDate(LocalDate.parse("11-11-2000", DATE_FORMAT));
+        UserDto registeredUserDto = webTestClient.post().uri("/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(userDto)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(UserDto.class).returnResult().getResponseBody();
+        assertEquals(registeredUserDto.getId(), 6);
+        assertEquals(userChangeRepository.findByUserIdOrderByIdAsc(6).map(UserChange::getType).collectList().block(),
+                List.of(UserChange.Type.CREATED));
+        webTestClient.get().uri("/users/6")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(UserDto.class).isEqualTo(registeredUserDto);
+    }
+
+    @Test
+    @Order(4)
+    public void shouldUpdateExpectedSomeUserDtoField() {
+        webTestClient.patch().uri("/users/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(UserDto.builder().address("Ukraine, Lviv").build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.address").isEqualTo("Ukraine, Lviv")
+                .jsonPath("$.email").isEqualTo("yaroslav.voronovskyi@gmail.com");
+        assertEquals(userChangeRepository.findByUserIdOrderByIdAsc(TEST_USER_ID).map(UserChange::getType).collectList().block(),
+                List.of(UserChange.Type.UPDATED));
+    }
+
+    @Test
+    @Order(5)
+    public void shouldReturnUserDtosListByBirthDatePageWithNextCursor() {
+        webTestClient.get().uri("/users/search?from=01-01-1987&to=01-01-2001&limit=2")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(ReactiveUsersRestController.NEXT_CURSOR_HEADER, "10-08-1988_2")
+                .expectBody()
+                .jsonPath("$[0].id").isEqualTo(3)
+                .jsonPath("$[1].id").isEqualTo(2);
+        webTestClient.get().uri("/users/search?from=01-01-1987&to=01-01-2001&limit=2&after=10-08-1988_2")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].id").isEqualTo(4)
+                .jsonPath("$[0].birthDate").isEqualTo("08-01-2000");
+    }
+
+    @Test
+    @Order(6)
+    public void shouldRegisterValidUsersAndReportNotValidUsersInBatch() {
+        UserDto newUserDto = createTestUserDto();
+        newUserDto.setEmail("batch.user@gmail.com");
+        newUserDto.setPhoneNumber("+380976714400");
+        BatchRegistrationResultDto result = webTestClient.post().uri("/users/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(List.of(newUserDto, createTestUserDto()))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(BatchRegistrationResultDto.class).returnResult().getResponseBody();
+        assertEquals(result.getRegistered().size(), 1);
+        assertEquals(result.getErrors().size(), 1);
+        assertEquals(result.getErrors().get(0).getIndex(), 1);
+        assertEquals(result.getErrors().get(0).getMessage(), List.of("email already exists", "phoneNumber already exists"));
+    }
+
+    @Test
+    @Order(7)
+    public void shouldExportAllUserDtosAsNdjson() {
+        List<UserDto> userDtosList = webTestClient.get().uri("/users/export")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(UserDto.class).getResponseBody().collectList().block();
+        assertEquals(userDtosList.size(), 7);
+        assertEquals(userDtosList.get(0).getId(), TEST_USER_ID);
+    }
+
+    @Test
+    @Order(8)
+    public void shouldDeleteExpectedUserDtoById() {
+        webTestClient.delete().uri("/users/5")
+                .exchange()
+                .expectStatus().isOk();
+        webTestClient.delete().uri("/users/5")
+                .exchange()
+                .expectStatus().isNotFound();
+        assertEquals(userChangeRepository.findByUserIdOrderByIdAsc(5).map(UserChange::getType).collectList().block(),
+                List.of(UserChange.Type.DELETED));
+    }
+
+    @Test
+    @Order(9)
+    public void shouldReturnNotFoundApiErrorWhenTryGetExpectedUserDto() {
+        webTestClient.get().uri("/users/11")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.error").isEqualTo(404)
+                .jsonPath("$.status").isEqualTo("NOT_FOUND")
+                .jsonPath("$.timestamp").exists()
+                .jsonPath("$.message[0]").isEqualTo("User with id 11 does not exist or has been deleted");
+    }
+
+    @Test
+    @Order(10)
+    public void shouldReturnBadRequestApiErrorWhenRegisterNewUserDtoNotValid() {
+        UserDto userDto = createTestUserDto();
+        userDto.setFirstName("");
+        webTestClient.post().uri("/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(userDto)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.error").isEqualTo(400)
+                .jsonPath("$.message[0]").isEqualTo("firstName  can not be null or empty");
+        userDto = createTestUserDto();
+        userDto.setBirthDate(LocalDate.now().minusYears(10));
+        webTestClient.post().uri("/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(userDto)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.message[0]").isEqualTo("Age not valid, user must be older than 18 years");
+    }
+
+    @Test
+    @Order(11)
+    public void shouldReturnConflictApiErrorWhenRegisterExistingUserDto() {
+        UserDto userDto = createTestUserDto();
+        userDto.setId(0);
+        webTestClient.post().uri("/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(userDto)
+                .exchange()
+                .expectStatus().isEqualTo(409)
+                .expectBody()
+                .jsonPath("$.status").isEqualTo("CONFLICT");
+    }
+
+    private UserDto createTestUserDto() {
+        return UserDto.builder()
+                .id(TEST_USER_ID)
+                .email("yaroslav.voronovskyi@gmail.com")
+                .firstName("Yaroslav")
+                .lastName("Voronovskyi")
+                .birthDate(LocalDate.parse("11-11-1986", DATE_FORMAT))
+                .address("Ukraine, Kyiv")
+                .phoneNumber("+380976714492")
+                .build();
+    }
+}
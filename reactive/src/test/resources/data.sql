@@ -0,0 +1,8 @@
+INSERT INTO users (id, email, first_name, last_name, birth_date, birth_month_day, address, phone_number)
+        VALUES (1, 'yaroslav.voronovskyi@gmail.com', 'Yaroslav', 'Voronovskyi', '1986-11-11', 1111, 'Ukraine, Kyiv', '+380976714492'),
+              (2, 'kseniya.bobyl@gmail.com', 'Kseniya', 'Bobyl', '1988-08-10', 810, 'Ukraine, Lviv', '+380976714423'),
+              (3, 'dariya.gribok@gmail.com', 'Dariya', 'Gribok', '1988-01-26', 126, 'Ukraine, Kyiv', '+380976714467'),
+              (4, 'mariya.magula@gmail.com', 'Mariya', 'Magula', '2000-01-08', 108, 'Ukraine, Kyiv', '+380976714409'),
+              (5, 'katrina.voronina@gmail.com', 'Katrina', 'Voronina', '2000-11-11', 1111, 'UK, London', '+380976714442');
+
+ALTER SEQUENCE users_seq RESTART WITH 6;
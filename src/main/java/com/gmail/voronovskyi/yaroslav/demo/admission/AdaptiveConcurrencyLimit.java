@@ -0,0 +1,98 @@
+package com.gmail.voronovskyi.yaroslav.demo.admission;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Concurrency limit that follows the latency of the requests it lets through (additive increase, multiplicative
+ * decrease). Latency is judged per window of {@code WINDOW_SAMPLES} requests: a window whose mean latency is more
+ * than {@code latencyTolerance} times the long-term mean cuts the limit by a tenth, and a fast window in which at
+ * least half of the limit was in use raises it by one. So single slow requests do not move the limit, but when the
+ * database slows down, fewer requests are let in and the rest are refused at once instead of queueing. Samples
+ * are only added to atomic counters; the request that fills a window evaluates it, without taking a lock.
+ */
+public class AdaptiveConcurrencyLimit {
+
+    static final int WINDOW_SAMPLES = 20;
+    private static final double DECREASE_FACTOR = 0.9;
+    private static final double BASELINE_WEIGHT = 0.05;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double latencyTolerance;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong windowLatencyNanos = new AtomicLong();
+    private final AtomicInteger windowSamples = new AtomicInteger();
+    private final AtomicInteger windowMaxInFlight = new AtomicInteger();
+    private final AtomicBoolean evaluating = new AtomicBoolean();
+    private volatile double limit;
+    private double baselineLatencyNanos;
+
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, double latencyTolerance) {
+        if (minLimit < 1 || minLimit > initialLimit || initialLimit > maxLimit || latencyTolerance <= 1) {
+            throw new IllegalArgumentException("Limits must be 1 <= min <= initial <= max and latency tolerance greater than 1");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyTolerance = latencyTolerance;
+        this.limit = initialLimit;
+    }
+
+    /**
+     * Takes a slot and returns the number of requests in flight with it, or 0 when the limit is reached.
+     */
+    public int tryAcquire() {
+        int current = inFlight.incrementAndGet();
+        if (current > (int) limit) {
+            inFlight.decrementAndGet();
+            return 0;
+        }
+        return current;
+    }
+
+    /**
+     * Frees the slot without a latency sample, e.g. for a request that goes on waiting asynchronously.
+     */
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    public void release(long latencyNanos, int inFlightOnAcquire) {
+        inFlight.decrementAndGet();
+        onSample(latencyNanos, inFlightOnAcquire);
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private void onSample(long latencyNanos, int inFlightOnAcquire) {
+        windowLatencyNanos.addAndGet(latencyNanos);
+        windowMaxInFlight.accumulateAndGet(inFlightOnAcquire, Math::max);
+        if (windowSamples.incrementAndGet() != WINDOW_SAMPLES) {
+            return;
+        }
+        double meanLatencyNanos = (double) windowLatencyNanos.getAndSet(0) / WINDOW_SAMPLES;
+        int maxInFlight = windowMaxInFlight.getAndSet(0);
+        windowSamples.addAndGet(-WINDOW_SAMPLES);
+        if (!evaluating.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            if (baselineLatencyNanos > 0 && meanLatencyNanos > baselineLatencyNanos * latencyTolerance) {
+                limit = Math.max(minLimit, limit * DECREASE_FACTOR);
+            } else if (maxInFlight * 2 >= limit) {
+                limit = Math.min(maxLimit, limit + 1);
+            }
+            baselineLatencyNanos = baselineLatencyNanos == 0
+                    ? meanLatencyNanos
+                    : baselineLatencyNanos + (meanLatencyNanos - baselineLatencyNanos) * BASELINE_WEIGHT;
+        } finally {
+            evaluating.set(false);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.gmail.voronovskyi.yaroslav.demo.admission;
+
+import com.gmail.voronovskyi.yaroslav.demo.config.AdmissionControlProperties;
+import com.gmail.voronovskyi.yaroslav.demo.controller.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Admission control per controller method: a request first needs a token of the endpoint's {@link TokenBucket},
+ * when a rate is configured, then a slot of its {@link AdaptiveConcurrencyLimit}. A request that gets neither is
+ * refused before it reaches the controller with {@link ServiceUnavailableException}, i.e. 503 and Retry-After.
+ * The slot is freed when the request completes, or as soon as it goes asynchronous (long-polls, streams), since
+ * from then on it holds no request thread.
+ */
+public class AdmissionControlInterceptor implements AsyncHandlerInterceptor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AdmissionControlInterceptor.class);
+    private static final String PERMIT_ATTRIBUTE = AdmissionControlInterceptor.class.getName() + ".permit";
+    private final AdmissionControlProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, EndpointLimiter> limiters = new ConcurrentHashMap<>();
+
+    public AdmissionControlInterceptor(AdmissionControlProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod handlerMethod) || request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+        EndpointLimiter limiter = limiters.computeIfAbsent(handlerMethod.getMethod().getName(), this::createLimiter);
+        if (limiter.tokenBucket != null && !limiter.tokenBucket.tryAcquire()) {
+            limiter.rateRejectedCounter.increment();
+            LOGGER.debug("Request to {} was refused by rate limit", limiter.endpoint);
+            throw new ServiceUnavailableException("Too many requests to " + limiter.endpoint + ", retry later",
+                    limiter.tokenBucket.secondsUntilNextToken());
+        }
+        int inFlight = limiter.concurrencyLimit.tryAcquire();
+        if (inFlight == 0) {
+            limiter.concurrencyRejectedCounter.increment();
+            LOGGER.debug("Request to {} was refused by concurrency limit {}", limiter.endpoint, limiter.concurrencyLimit.getLimit());
+            throw new ServiceUnavailableException("Too many concurrent requests to " + limiter.endpoint + ", retry later",
+                    limiter.limits.getRetryAfterSeconds());
+        }
+        request.setAttribute(PERMIT_ATTRIBUTE, new Permit(limiter, inFlight, System.nanoTime()));
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Permit permit = (Permit) request.getAttribute(PERMIT_ATTRIBUTE);
+        if (permit != null) {
+            request.removeAttribute(PERMIT_ATTRIBUTE);
+            permit.limiter.concurrencyLimit.release();
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception exception) {
+        Permit permit = (Permit) request.getAttribute(PERMIT_ATTRIBUTE);
+        if (permit != null) {
+            request.removeAttribute(PERMIT_ATTRIBUTE);
+            permit.limiter.concurrencyLimit.release(System.nanoTime() - permit.acquiredAt, permit.inFlight);
+        }
+    }
+
+    private EndpointLimiter createLimiter(String endpoint) {
+        AdmissionControlProperties.Limits limits = properties.getEndpoints().getOrDefault(endpoint, properties.getDefaults());
+        EndpointLimiter limiter = new EndpointLimiter(endpoint, limits, meterRegistry);
+        LOGGER.debug("Admission control of {} starts with concurrency limit {} and rate {}/s", endpoint,
+                limiter.concurrencyLimit.getLimit(), limits.getRatePerSecond());
+        return limiter;
+    }
+
+    private static final class EndpointLimiter {
+
+        private final String endpoint;
+        private final AdmissionControlProperties.Limits limits;
+        private final TokenBucket tokenBucket;
+        private final AdaptiveConcurrencyLimit concurrencyLimit;
+        private final Counter rateRejectedCounter;
+        private final Counter concurrencyRejectedCounter;
+
+        private EndpointLimiter(String endpoint, AdmissionControlProperties.Limits limits, MeterRegistry meterRegistry) {
+            this.endpoint = endpoint;
+            this.limits = limits;
+            this.tokenBucket = limits.getRatePerSecond() > 0
+                    ? new TokenBucket(limits.getRatePerSecond(), limits.getBurst() > 0
+                    ? limits.getBurst() : Math.max(1, limits.getRatePerSecond()))
+                    : null;
+            this.concurrencyLimit = new AdaptiveConcurrencyLimit(limits.getInitialConcurrency(), limits.getMinConcurrency(),
+                    limits.getMaxConcurrency(), limits.getLatencyTolerance());
+            Gauge.builder("users.admission.concurrency.limit", concurrencyLimit, AdaptiveConcurrencyLimit::getLimit)
+                    .description("Current adaptive concurrency limit")
+                    .tag("endpoint", endpoint)
+                    .register(meterRegistry);
+            Gauge.builder("users.admission.in.flight", concurrencyLimit, AdaptiveConcurrencyLimit::getInFlight)
+                    .description("Requests holding a concurrency slot")
+                    .tag("endpoint", endpoint)
+                    .register(meterRegistry);
+            Gauge.builder("users.admission.rate", limits, AdmissionControlProperties.Limits::getRatePerSecond)
+                    .description("Configured requests per second, 0 when not limited")
+                    .tag("endpoint", endpoint)
+                    .register(meterRegistry);
+            this.rateRejectedCounter = rejectedCounter(meterRegistry, endpoint, "rate");
+            this.concurrencyRejectedCounter = rejectedCounter(meterRegistry, endpoint, "concurrency");
+        }
+
+        private static Counter rejectedCounter(MeterRegistry meterRegistry, String endpoint, String reason) {
+            return Counter.builder("users.admission.rejected")
+                    .description("Requests refused with 503 by admission control")
+                    .tag("endpoint", endpoint)
+                    .tag("reason", reason)
+                    .register(meterRegistry);
+        }
+    }
+
+    private static final class Permit {
+
+        private final EndpointLimiter limiter;
+        private final int inFlight;
+        private final long acquiredAt;
+
+        private Permit(EndpointLimiter limiter, int inFlight, long acquiredAt) {
+            this.limiter = limiter;
+            this.inFlight = inFlight;
+            this.acquiredAt = acquiredAt;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.gmail.voronovskyi.yaroslav.demo.admission;
+
+/**
+ * Rate limit that refills {@code ratePerSecond} tokens a second up to {@code burst} and spends one per request.
+ */
+public class TokenBucket {
+
+    private static final double NANOS_PER_SECOND = 1_000_000_000d;
+    private final double ratePerNano;
+    private final double burst;
+    private double tokens;
+    private long refilledAt;
+
+    public TokenBucket(double ratePerSecond, double burst) {
+        if (ratePerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Rate must be greater than 0 and burst at least 1");
+        }
+        this.ratePerNano = ratePerSecond / NANOS_PER_SECOND;
+        this.burst = burst;
+        this.tokens = burst;
+        this.refilledAt = System.nanoTime();
+    }
+
+    public synchronized boolean tryAcquire() {
+        refill();
+        if (tokens < 1) {
+            return false;
+        }
+        tokens--;
+        return true;
+    }
+
+    /**
+     * Seconds until the next token, rounded up and at least 1, for a Retry-After header.
+     */
+    public synchronized long secondsUntilNextToken() {
+        refill();
+        double missingTokens = Math.max(0, 1 - tokens);
+        return Math.max(1, (long) Math.ceil(missingTokens / ratePerNano / NANOS_PER_SECOND));
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(burst, tokens + (now - refilledAt) * ratePerNano);
+        refilledAt = now;
+    }
+}
@@ -0,0 +1,73 @@
+package com.gmail.voronovskyi.yaroslav.demo.cache;
+
+import com.gmail.voronovskyi.yaroslav.demo.model.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Users cache that never goes back to an older version of a user. A put only replaces an older version, so a
+ * reader that loaded a user before an update committed can not overwrite the updated user written with
+ * {@code @CachePut}; an evicted user leaves a tombstone that keeps such readers out until it expires.
+ * Entries are private copies, callers get their own copy on every hit.
+ */
+public class UserCache extends CaffeineCache {
+
+    private static final Object TOMBSTONE = new Object();
+
+    public UserCache(String name, Cache<Object, Object> cache) {
+        super(name, cache, false);
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        return getNativeCache().getIfPresent(key) instanceof User user ? user.toBuilder().build() : null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper valueWrapper = get(key);
+        if (valueWrapper != null) {
+            return (T) valueWrapper.get();
+        }
+        try {
+            T value = valueLoader.call();
+            put(key, value);
+            return value;
+        } catch (Exception exception) {
+            throw new ValueRetrievalException(key, valueLoader, exception);
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        if (!(value instanceof User user)) {
+            throw new IllegalArgumentException("Users cache can only store users");
+        }
+        User userCopy = user.toBuilder().build();
+        getNativeCache().asMap().compute(key, (cacheKey, cachedValue) -> cachedValue == null
+                || cachedValue instanceof User cachedUser && cachedUser.getVersion() < userCopy.getVersion() ? userCopy : cachedValue);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper valueWrapper = get(key);
+        if (valueWrapper == null) {
+            put(key, value);
+        }
+        return valueWrapper;
+    }
+
+    @Override
+    public void evict(Object key) {
+        getNativeCache().put(key, TOMBSTONE);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        evict(key);
+        return true;
+    }
+}
@@ -0,0 +1,31 @@
+package com.gmail.voronovskyi.yaroslav.demo.config;
+
+import com.gmail.voronovskyi.yaroslav.demo.admission.AdmissionControlInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Load shedding on the users API, enabled with {@code application.admission.enabled=true}: limits come from
+ * {@code application.admission.defaults.*}, overridden per controller method with
+ * {@code application.admission.endpoints.<method>.*}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "application.admission.enabled", havingValue = "true")
+@EnableConfigurationProperties(AdmissionControlProperties.class)
+public class AdmissionControlConfig implements WebMvcConfigurer {
+
+    private final AdmissionControlInterceptor admissionControlInterceptor;
+
+    public AdmissionControlConfig(AdmissionControlProperties properties, MeterRegistry meterRegistry) {
+        this.admissionControlInterceptor = new AdmissionControlInterceptor(properties, meterRegistry);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(admissionControlInterceptor).addPathPatterns("/users", "/users/**");
+    }
+}
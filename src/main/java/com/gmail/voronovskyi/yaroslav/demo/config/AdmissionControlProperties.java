@@ -0,0 +1,45 @@
+package com.gmail.voronovskyi.yaroslav.demo.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "application.admission")
+public class AdmissionControlProperties {
+
+    private boolean enabled;
+    private Limits defaults = new Limits();
+    /**
+     * Limits of single endpoints by controller method name, e.g. {@code registerNewUser}; an entry replaces
+     * the defaults of its endpoint as a whole.
+     */
+    private Map<String, Limits> endpoints = new HashMap<>();
+
+    @Getter
+    @Setter
+    public static class Limits {
+
+        /**
+         * Requests per second let through on average; 0 turns the rate limit off.
+         */
+        private double ratePerSecond;
+        /**
+         * Requests let through at once after a quiet period; 0 means one second worth of rate.
+         */
+        private int burst;
+        private int initialConcurrency = 20;
+        private int minConcurrency = 1;
+        private int maxConcurrency = 200;
+        /**
+         * How many times the long-term mean latency a window of requests may take on average before the
+         * concurrency limit is lowered.
+         */
+        private double latencyTolerance = 2.0;
+        private long retryAfterSeconds = 1;
+    }
+}
@@ -1,26 +1,34 @@
 package com.gmail.voronovskyi.yaroslav.demo.config;
 
-import org.modelmapper.ModelMapper;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.gmail.voronovskyi.yaroslav.demo.cache.UserCache;
+import com.gmail.voronovskyi.yaroslav.demo.service.impl.UserService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.support.SimpleCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.List;
+
 @Configuration
 @EnableTransactionManagement
+@EnableCaching(order = Ordered.HIGHEST_PRECEDENCE)
 @EnableJpaRepositories(basePackages = "com.gmail.voronovskyi.yaroslav.demo.repository")
 @ComponentScan("com.gmail.voronovskyi.yaroslav.demo")
 public class AppConfig {
 
     @Bean
-    public ModelMapper modelMapper() {
-        ModelMapper modelMapper = new ModelMapper();
-        modelMapper.getConfiguration()
-                .setFieldMatchingEnabled(true)
-                .setFieldAccessLevel(org.modelmapper.config.Configuration.AccessLevel.PRIVATE);
-        return modelMapper;
+    public CacheManager cacheManager(@Value("${spring.cache.caffeine.spec}") String cacheSpec) {
+        SimpleCacheManager cacheManager = new SimpleCacheManager();
+        cacheManager.setCaches(List.of(new UserCache(UserService.USERS_CACHE, Caffeine.from(cacheSpec).build())));
+        return cacheManager;
     }
 
     @Bean
@@ -0,0 +1,60 @@
+package com.gmail.voronovskyi.yaroslav.demo.config;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import com.gmail.voronovskyi.yaroslav.demo.logging.DropCountingAsyncAppender;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Makes {@code @Timed} work on Spring beans. HTTP, Hikari, Hibernate statistics, cache and repository
+ * metrics are bound by the actuator auto-configuration; distribution settings live in application.properties.
+ * Asynchronous log appenders, when the logging configuration has them, report dropped events and queue depth.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    @Bean
+    public MeterBinder asyncAppenderMetrics() {
+        return meterRegistry -> {
+            if (!(LoggerFactory.getILoggerFactory() instanceof LoggerContext loggerContext)) {
+                return;
+            }
+            Map<String, DropCountingAsyncAppender> appenders = new LinkedHashMap<>();
+            for (Logger logger : loggerContext.getLoggerList()) {
+                for (Iterator<Appender<ILoggingEvent>> iterator = logger.iteratorForAppenders(); iterator.hasNext(); ) {
+                    if (iterator.next() instanceof DropCountingAsyncAppender appender) {
+                        appenders.putIfAbsent(appender.getName(), appender);
+                    }
+                }
+            }
+            appenders.forEach((name, appender) -> {
+                FunctionCounter.builder("logback.async.dropped", appender, DropCountingAsyncAppender::getDroppedCount)
+                        .description("Log events dropped because the appender queue was full")
+                        .tag("appender", name)
+                        .register(meterRegistry);
+                Gauge.builder("logback.async.queue.size", appender, DropCountingAsyncAppender::getNumberOfElementsInQueue)
+                        .description("Log events waiting to be written")
+                        .tag("appender", name)
+                        .register(meterRegistry);
+            });
+        };
+    }
+}
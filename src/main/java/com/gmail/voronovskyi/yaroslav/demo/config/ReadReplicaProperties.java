@@ -0,0 +1,34 @@
+package com.gmail.voronovskyi.yaroslav.demo.config;
+
+import com.gmail.voronovskyi.yaroslav.demo.datasource.ReplicaSelection;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "application.datasource.routing")
+public class ReadReplicaProperties {
+
+    private boolean enabled;
+    private ReplicaSelection selection = ReplicaSelection.ROUND_ROBIN;
+    private Duration maxLag;
+    private Duration lagCheckInterval = Duration.ofSeconds(5);
+    private String lagQuery = "select case when pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() then 0 "
+            + "else extract(epoch from now() - pg_last_xact_replay_timestamp()) end";
+    private List<Replica> replicas = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class Replica {
+
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+    }
+}
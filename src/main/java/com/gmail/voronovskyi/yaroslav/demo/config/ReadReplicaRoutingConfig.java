@@ -0,0 +1,119 @@
+package com.gmail.voronovskyi.yaroslav.demo.config;
+
+import com.gmail.voronovskyi.yaroslav.demo.datasource.ReadWriteRoutingDataSource;
+import com.gmail.voronovskyi.yaroslav.demo.datasource.ReplicaLagMonitor;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read/write splitting, enabled with {@code application.datasource.routing.enabled=true}: the primary pool is
+ * built from {@code spring.datasource.*} as usual, every {@code application.datasource.routing.replicas[n]} gets
+ * its own read-only pool, and {@code @Transactional(readOnly = true)} work runs on the replicas.
+ */
+@Configuration
+@ConditionalOnProperty(name = "application.datasource.routing.enabled", havingValue = "true")
+@EnableConfigurationProperties(ReadReplicaProperties.class)
+public class ReadReplicaRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean(destroyMethod = "close")
+    public ReplicaDataSources replicaDataSources(DataSourceProperties dataSourceProperties, ReadReplicaProperties properties) {
+        List<HikariDataSource> replicasList = new ArrayList<>();
+        for (int i = 0; i < properties.getReplicas().size(); i++) {
+            ReadReplicaProperties.Replica replica = properties.getReplicas().get(i);
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName("replica-" + i);
+            dataSource.setDriverClassName(dataSourceProperties.determineDriverClassName());
+            dataSource.setJdbcUrl(replica.getUrl());
+            dataSource.setUsername(replica.getUsername());
+            dataSource.setPassword(replica.getPassword());
+            dataSource.setMaximumPoolSize(replica.getMaximumPoolSize());
+            dataSource.setReadOnly(true);
+            replicasList.add(dataSource);
+        }
+        ReplicaLagMonitor lagMonitor = properties.getMaxLag() == null || replicasList.isEmpty() ? null
+                : new ReplicaLagMonitor(replicasList, properties.getLagQuery(), properties.getMaxLag(),
+                properties.getLagCheckInterval());
+        return new ReplicaDataSources(replicasList, lagMonitor);
+    }
+
+    /**
+     * Replica pools are not beans, so Boot's Hikari metrics binding does not see them. Binding them here rather
+     * than in {@link #replicaDataSources} keeps the meter registry from depending on the data source it measures.
+     */
+    @Bean
+    @ConditionalOnClass(MeterRegistry.class)
+    public MeterBinder replicaPoolMetrics(ReplicaDataSources replicaDataSources) {
+        return registry -> replicaDataSources.getReplicasList().stream()
+                .filter(dataSource -> dataSource.getMetricRegistry() == null && dataSource.getMetricsTrackerFactory() == null)
+                .forEach(dataSource -> dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaDataSources replicaDataSources,
+                                 ReadReplicaProperties properties) {
+        return new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(primaryDataSource,
+                replicaDataSources.getReplicasList(), properties.getSelection(), replicaDataSources.getLagMonitor()));
+    }
+
+    /**
+     * Open-in-view keeps one session for the whole request, and Spring's default connection handling holds its
+     * connection until the session closes, so a write after a read-only transaction would run on the replica.
+     * Releasing the connection after every transaction lets each transaction be routed on its own.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer connectionReleaseAfterTransaction() {
+        return hibernateProperties -> hibernateProperties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+
+    public static class ReplicaDataSources {
+
+        private final List<HikariDataSource> replicasList;
+        private final ReplicaLagMonitor lagMonitor;
+
+        public ReplicaDataSources(List<HikariDataSource> replicasList, ReplicaLagMonitor lagMonitor) {
+            this.replicasList = replicasList;
+            this.lagMonitor = lagMonitor;
+        }
+
+        public List<HikariDataSource> getReplicasList() {
+            return replicasList;
+        }
+
+        public ReplicaLagMonitor getLagMonitor() {
+            return lagMonitor;
+        }
+
+        public void close() {
+            if (lagMonitor != null) {
+                lagMonitor.close();
+            }
+            replicasList.forEach(HikariDataSource::close);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.gmail.voronovskyi.yaroslav.demo.config;
+
+import com.gmail.voronovskyi.yaroslav.demo.model.User;
+import com.gmail.voronovskyi.yaroslav.demo.repository.IUserChangeRepository;
+import com.gmail.voronovskyi.yaroslav.demo.repository.IUserRepository;
+import com.gmail.voronovskyi.yaroslav.demo.service.IUserService;
+import com.gmail.voronovskyi.yaroslav.demo.service.IUserTextIndex;
+import com.gmail.voronovskyi.yaroslav.demo.service.IUserUniquenessFilter;
+import com.gmail.voronovskyi.yaroslav.demo.service.impl.UserService;
+import com.gmail.voronovskyi.yaroslav.demo.sharding.ShardedIdGenerator;
+import com.gmail.voronovskyi.yaroslav.demo.sharding.UserShards;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.JpaProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.orm.jpa.EntityManagerFactoryBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.TransactionManager;
+import org.springframework.transaction.annotation.AnnotationTransactionAttributeSource;
+import org.springframework.transaction.interceptor.TransactionInterceptor;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hash sharding of the users table, enabled with {@code application.sharding.enabled=true}. Every
+ * {@code application.sharding.shards[n]} gets its own pool, persistence unit (schema managed by
+ * {@code spring.jpa.hibernate.ddl-auto} like the main one) and transactional {@link UserService}; the main
+ * {@code spring.datasource.*} database keeps the global email and phone number lookup.
+ */
+@Configuration
+@ConditionalOnProperty(name = "application.sharding.enabled", havingValue = "true")
+@EnableConfigurationProperties(ShardingProperties.class)
+public class ShardingConfig {
+
+    /**
+     * Uniqueness is enforced by the lookup table before a shard is written, so shards answer every existence
+     * check from their own database.
+     */
+    private static final IUserUniquenessFilter UNFILTERED = new IUserUniquenessFilter() {
+
+        @Override
+        public boolean mightContainEmail(String email) {
+            return true;
+        }
+
+        @Override
+        public boolean mightContainPhoneNumber(String phoneNumber) {
+            return true;
+        }
+
+        @Override
+        public void put(User user) {
+        }
+    };
+
+    @Bean(destroyMethod = "close")
+    public UserShards userShards(ShardingProperties properties, DataSourceProperties dataSourceProperties,
+                                 EntityManagerFactoryBuilder entityManagerFactoryBuilder, JpaProperties jpaProperties,
+                                 HibernateProperties hibernateProperties, IUserTextIndex textIndex, Environment environment) {
+        if (properties.getShards().isEmpty() || properties.getShards().size() > ShardedIdGenerator.MAX_SHARDS) {
+            throw new IllegalStateException("application.sharding.shards must list 1 to " + ShardedIdGenerator.MAX_SHARDS + " shards");
+        }
+        Map<String, Object> vendorProperties = hibernateProperties.determineHibernateProperties(jpaProperties.getProperties(),
+                new HibernateSettings().ddlAuto(() -> "none"));
+        List<IUserService> userServicesList = new ArrayList<>();
+        List<HikariDataSource> dataSourcesList = new ArrayList<>();
+        List<EntityManagerFactory> entityManagerFactoriesList = new ArrayList<>();
+        for (int i = 0; i < properties.getShards().size(); i++) {
+            ShardingProperties.Shard shard = properties.getShards().get(i);
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName("shard-" + i);
+            dataSource.setDriverClassName(dataSourceProperties.determineDriverClassName());
+            dataSource.setJdbcUrl(shard.getUrl());
+            dataSource.setUsername(shard.getUsername());
+            dataSource.setPassword(shard.getPassword());
+            dataSource.setMaximumPoolSize(shard.getMaximumPoolSize());
+            dataSourcesList.add(dataSource);
+
+            Map<String, Object> shardProperties = new HashMap<>(vendorProperties);
+            shardProperties.put(ShardedIdGenerator.SHARD_INDEX_SETTING, i);
+            LocalContainerEntityManagerFactoryBean entityManagerFactoryBean = entityManagerFactoryBuilder.dataSource(dataSource)
+                    .packages(User.class)
+                    .persistenceUnit("shard-" + i)
+                    .properties(shardProperties)
+                    .build();
+            entityManagerFactoryBean.afterPropertiesSet();
+            EntityManagerFactory entityManagerFactory = entityManagerFactoryBean.getObject();
+            entityManagerFactoriesList.add(entityManagerFactory);
+
+            EntityManager entityManager = SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory);
+            JpaRepositoryFactory repositoryFactory = new JpaRepositoryFactory(entityManager);
+            IUserRepository userRepository = repositoryFactory.getRepository(IUserRepository.class);
+            IUserChangeRepository userChangeRepository = repositoryFactory.getRepository(IUserChangeRepository.class);
+            ProxyFactory proxyFactory = new ProxyFactory(new UserService(userRepository, entityManager, UNFILTERED, textIndex,
+                    userChangeRepository));
+            TransactionManager transactionManager = new JpaTransactionManager(entityManagerFactory);
+            AnnotationTransactionAttributeSource transactionAttributeSource = new AnnotationTransactionAttributeSource();
+            transactionAttributeSource.setEmbeddedValueResolver(environment::resolveRequiredPlaceholders);
+            proxyFactory.addAdvice(new TransactionInterceptor(transactionManager, transactionAttributeSource));
+            userServicesList.add((IUserService) proxyFactory.getProxy());
+        }
+        return new UserShards(userServicesList, dataSourcesList, entityManagerFactoriesList);
+    }
+
+    @Bean
+    @ConditionalOnClass(MeterRegistry.class)
+    public MeterBinder shardPoolMetrics(UserShards userShards) {
+        return registry -> userShards.getDataSourcesList().stream()
+                .filter(dataSource -> dataSource.getMetricRegistry() == null && dataSource.getMetricsTrackerFactory() == null)
+                .forEach(dataSource -> dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+    }
+}
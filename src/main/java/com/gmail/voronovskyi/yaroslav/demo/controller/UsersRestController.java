@@ -1,18 +1,43 @@
 package com.gmail.voronovskyi.yaroslav.demo.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.gmail.voronovskyi.yaroslav.demo.Utils;
 import com.gmail.voronovskyi.yaroslav.demo.controller.exception.NotValidAgeException;
+import com.gmail.voronovskyi.yaroslav.demo.controller.exception.NotImplementedException;
+import com.gmail.voronovskyi.yaroslav.demo.controller.exception.NotValidRequestException;
+import com.gmail.voronovskyi.yaroslav.demo.controller.exception.PreconditionFailedException;
+import com.gmail.voronovskyi.yaroslav.demo.controller.exception.ServiceUnavailableException;
+import com.gmail.voronovskyi.yaroslav.demo.controller.rest.dto.BatchItemErrorDto;
+import com.gmail.voronovskyi.yaroslav.demo.controller.rest.dto.BatchRegistrationResultDto;
+import com.gmail.voronovskyi.yaroslav.demo.controller.rest.dto.UserChangeDto;
+import com.gmail.voronovskyi.yaroslav.demo.controller.rest.etag.IETagResolver;
+import com.gmail.voronovskyi.yaroslav.demo.controller.rest.feed.IUserChangeFeedResponder;
+import com.gmail.voronovskyi.yaroslav.demo.controller.rest.mapper.IUserMapper;
+import com.gmail.voronovskyi.yaroslav.demo.model.IUserVersion;
 import com.gmail.voronovskyi.yaroslav.demo.model.User;
+import com.gmail.voronovskyi.yaroslav.demo.model.UserChange;
+import com.gmail.voronovskyi.yaroslav.demo.service.IIdempotencyStore;
+import com.gmail.voronovskyi.yaroslav.demo.service.IUserChangeFeed;
+import com.gmail.voronovskyi.yaroslav.demo.service.IUserRegistrationBatcher;
 import com.gmail.voronovskyi.yaroslav.demo.service.IUserService;
+import com.gmail.voronovskyi.yaroslav.demo.service.IUserTextIndex;
 import com.gmail.voronovskyi.yaroslav.demo.controller.rest.dto.UserDto;
-import org.modelmapper.MappingException;
-import org.modelmapper.ModelMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Slice;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
@@ -20,85 +45,286 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import javax.persistence.EntityNotFoundException;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import javax.validation.Validator;
 import javax.ws.rs.Consumes;
 import javax.ws.rs.Produces;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
+import java.time.MonthDay;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/users")
 public class UsersRestController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final String MERGE_PATCH_JSON_VALUE = "application/merge-patch+json";
+    public static final String LAST_EVENT_ID_HEADER = "Last-Event-ID";
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
     private static final Logger LOGGER = LoggerFactory.getLogger(UsersRestController.class);
+    private static final int EXPORT_FLUSH_SIZE = 500;
+    private static final char BIRTH_DATE_CURSOR_SEPARATOR = '_';
+    private static final DateTimeFormatter BIRTH_DATE_FORMAT = DateTimeFormatter.ofPattern("dd-MM-yyyy");
+    private static final DateTimeFormatter BIRTHDAY_FORMAT = DateTimeFormatter.ofPattern("dd-MM");
+    private static final String ID_FIELD = "id";
+    private static final String EMAIL_FIELD = "email";
+    private static final String BIRTH_DATE_FIELD = "birthDate";
     private final IUserService userService;
-    private final ModelMapper modelMapper;
+    private final IUserMapper userMapper;
+    private final ObjectWriter userDtoWriter;
+    private final ObjectReader userDtoReader;
+    private final Validator validator;
+    private final IUserTextIndex textIndex;
+    private final IIdempotencyStore idempotencyStore;
+    private final IUserChangeFeedResponder changeFeedResponder;
+    private final IETagResolver eTagResolver;
+    private IUserRegistrationBatcher registrationBatcher;
+    private IUserChangeFeed changeFeed;
 
     @Autowired
-    public UsersRestController(IUserService userService, ModelMapper modelMapper) {
+    public UsersRestController(IUserService userService, IUserMapper userMapper, ObjectMapper objectMapper,
+                               Validator validator, IUserTextIndex textIndex, IIdempotencyStore idempotencyStore,
+                               IUserChangeFeedResponder changeFeedResponder, IETagResolver eTagResolver) {
         this.userService = userService;
-        this.modelMapper = modelMapper;
+        this.userMapper = userMapper;
+        this.validator = validator;
+        this.textIndex = textIndex;
+        this.idempotencyStore = idempotencyStore;
+        this.changeFeedResponder = changeFeedResponder;
+        this.eTagResolver = eTagResolver;
+        this.userDtoWriter = objectMapper.writerFor(UserDto.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.userDtoReader = objectMapper.readerFor(UserDto.class);
+    }
+
+    @Autowired(required = false)
+    public void setRegistrationBatcher(IUserRegistrationBatcher registrationBatcher) {
+        this.registrationBatcher = registrationBatcher;
+    }
+
+    @Autowired(required = false)
+    public void setChangeFeed(IUserChangeFeed changeFeed) {
+        this.changeFeed = changeFeed;
     }
 
     @GetMapping("/{id}")
     @Produces(MediaType.APPLICATION_JSON_VALUE)
-    public UserDto getUserById(@PathVariable("id") long userId) {
+    public ResponseEntity<UserDto> getUserById(@PathVariable("id") long userId,
+                                               @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         LOGGER.debug("Try get user wih id {}", userId);
+        if (ifNoneMatch != null) {
+            String eTag = eTagResolver.toETag(userService.getUserVersion(userId));
+            if (eTagResolver.matches(ifNoneMatch, eTag, true)) {
+                LOGGER.debug("User wih id {} was not modified", userId);
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+            }
+        }
         User user = userService.getUserBuId(userId);
         LOGGER.debug("Car wih id {} was successfully got", userId);
-        return convertToDto(user);
+        return ResponseEntity.ok().eTag(eTagResolver.toETag(user.getVersion())).body(userMapper.toDto(user));
     }
 
     @GetMapping()
     @Produces(MediaType.APPLICATION_JSON_VALUE)
-    public List<UserDto> getAllUsers() {
-        LOGGER.debug("Try get all users");
-        List<UserDto> userDtosList = convertToDtoList(userService.getAllUsers());
-        LOGGER.debug("All users was successfully got");
-        return userDtosList;
+    public ResponseEntity<List<UserDto>> getAllUsers(@RequestParam(value = "after", defaultValue = "0") long afterId,
+                                                     @RequestParam(value = "limit", defaultValue = "${application.page.default.limit}") int limit,
+                                                     @Value("${application.page.max.limit}") int maxLimit,
+                                                     @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        LOGGER.debug("Try get users after id {}", afterId);
+        if (limit < 1) {
+            throw new NotValidRequestException("Limit must be greater than 0");
+        }
+        if (ifNoneMatch != null) {
+            Slice<IUserVersion> userVersionsSlice = userService.getAllUserVersions(afterId, Math.min(limit, maxLimit));
+            String eTag = eTagResolver.toETag(userVersionsSlice);
+            if (eTagResolver.matches(ifNoneMatch, eTag, true)) {
+                LOGGER.debug("Users after id {} was not modified", afterId);
+                return withNextCursor(ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag), userVersionsSlice).build();
+            }
+        }
+        Slice<User> usersSlice = userService.getAllUsers(afterId, Math.min(limit, maxLimit));
+        List<UserDto> userDtosList = userMapper.toDtoList(usersSlice.getContent());
+        LOGGER.debug("Users after id {} was successfully got", afterId);
+        return withNextCursor(ResponseEntity.ok().eTag(eTagResolver.toETag(usersSlice)), usersSlice).body(userDtosList);
     }
 
+    @GetMapping("/export")
+    @ResponseStatus(HttpStatus.OK)
+    @Produces(MediaType.APPLICATION_NDJSON_VALUE)
+    public WebAsyncTask<Void> exportUsers(HttpServletResponse response,
+                                          @Value("${application.export.timeout-minutes}") long timeoutMinutes) {
+        LOGGER.debug("Try export all users");
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        return new WebAsyncTask<>(TimeUnit.MINUTES.toMillis(timeoutMinutes), () -> {
+            try (JsonGenerator generator = userDtoWriter.createGenerator(response.getOutputStream())) {
+                AtomicLong exportedCount = new AtomicLong();
+                userService.exportUsers(user -> writeNdjsonLine(generator, userMapper.toDto(user), exportedCount.incrementAndGet()));
+                LOGGER.debug("{} users was successfully exported", exportedCount.get());
+            }
+            return null;
+        });
+    }
+
+    /**
+     * With an Idempotency-Key a retry of the same registration gets the user registered by the first attempt.
+     */
     @PostMapping()
     @Consumes(MediaType.APPLICATION_JSON_VALUE)
     @Produces(MediaType.APPLICATION_JSON_VALUE)
-    public UserDto registerNewUser(@RequestBody @Valid UserDto userDto, @Value("${application.min.age}") long minAge) {
+    public UserDto registerNewUser(@RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+                                   @RequestBody @Valid UserDto userDto, @Value("${application.min.age}") long minAge) {
+        if (idempotencyKey != null) {
+            return idempotencyStore.execute("POST /users", idempotencyKey, userDto, () -> registerNewUser(userDto, minAge));
+        }
+        return registerNewUser(userDto, minAge);
+    }
+
+    private UserDto registerNewUser(UserDto userDto, long minAge) {
         LOGGER.debug("Try register new user");
         if (!Utils.isValidEmailAddress(userDto.getEmail())) {
-            throw new IllegalArgumentException("Wrong e-mail address!");
+            throw new NotValidRequestException("Wrong e-mail address!");
         }
         if (LocalDate.from(userDto.getBirthDate()).until(LocalDate.now(), ChronoUnit.YEARS) < minAge) {
             throw new NotValidAgeException("Age not valid, user must be older than 18 years");
         }
         LOGGER.debug("New user was registered");
-        return convertToDto(userService.registerUser(convertToEntity(userDto)));
+        return userMapper.toDto(registerUser(userMapper.toEntity(userDto)));
+    }
+
+    @PostMapping("/batch")
+    @Consumes(MediaType.APPLICATION_JSON_VALUE)
+    @Produces(MediaType.APPLICATION_JSON_VALUE)
+    public BatchRegistrationResultDto registerNewUsers(@RequestBody List<UserDto> userDtosList,
+                                                       @Value("${application.min.age}") long minAge,
+                                                       @Value("${application.batch.max.size}") int maxBatchSize) {
+        LOGGER.debug("Try register {} new users", userDtosList.size());
+        if (userDtosList.size() > maxBatchSize) {
+            throw new NotValidRequestException("Batch size must not be greater than " + maxBatchSize);
+        }
+        Map<Integer, List<String>> errorsMap = new TreeMap<>();
+        Set<String> emails = new HashSet<>();
+        Set<String> phoneNumbers = new HashSet<>();
+        for (int i = 0; i < userDtosList.size(); i++) {
+            UserDto userDto = userDtosList.get(i);
+            List<String> errors = validateNewUser(userDto, minAge);
+            if (userDto.getEmail() != null && !emails.add(userDto.getEmail())) {
+                errors.add("email is duplicated in the batch");
+            }
+            if (userDto.getPhoneNumber() != null && !phoneNumbers.add(userDto.getPhoneNumber())) {
+                errors.add("phoneNumber is duplicated in the batch");
+            }
+            if (!errors.isEmpty()) {
+                errorsMap.put(i, errors);
+            }
+        }
+        Set<String> existingEmails = new HashSet<>();
+        Set<String> existingPhoneNumbers = new HashSet<>();
+        userService.findUsersByEmailsOrPhoneNumbers(emails, phoneNumbers).forEach(user -> {
+            existingEmails.add(user.getEmail());
+            existingPhoneNumbers.add(user.getPhoneNumber());
+        });
+        List<User> usersList = new ArrayList<>();
+        for (int i = 0; i < userDtosList.size(); i++) {
+            UserDto userDto = userDtosList.get(i);
+            if (existingEmails.contains(userDto.getEmail())) {
+                errorsMap.computeIfAbsent(i, index -> new ArrayList<>()).add("email already exists");
+            }
+            if (existingPhoneNumbers.contains(userDto.getPhoneNumber())) {
+                errorsMap.computeIfAbsent(i, index -> new ArrayList<>()).add("phoneNumber already exists");
+            }
+            if (!errorsMap.containsKey(i)) {
+                User user = userMapper.toEntity(userDto);
+                user.setId(0L);
+                usersList.add(user);
+            }
+        }
+        List<UserDto> registeredUserDtosList = userMapper.toDtoList(userService.registerUsers(usersList));
+        LOGGER.debug("{} new users was registered, {} users was rejected", registeredUserDtosList.size(), errorsMap.size());
+        return BatchRegistrationResultDto.builder()
+                .registered(registeredUserDtosList)
+                .errors(errorsMap.entrySet().stream()
+                        .map(entry -> BatchItemErrorDto.builder()
+                                .index(entry.getKey())
+                                .message(entry.getValue())
+                                .build())
+                        .collect(Collectors.toList()))
+                .build();
     }
 
     @PutMapping("/{id}")
     @Produces(MediaType.APPLICATION_JSON_VALUE)
-    public UserDto updateUser(@PathVariable("id") long userId, @RequestBody @Valid UserDto userDto) {
-        LOGGER.debug("Try update user wih id {}", userId);
+    public ResponseEntity<UserDto> updateUser(@PathVariable("id") long userId,
+                                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                              @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+                                              @RequestBody @Valid UserDto userDto) {
         userDto.setId(userId);
-        userService.updateUser(convertToEntity(userDto));
+        if (idempotencyKey != null) {
+            return idempotencyStore.execute("PUT /users/" + userId, idempotencyKey, Arrays.asList(ifMatch, userDto),
+                    () -> updateUser(userId, ifMatch, userDto));
+        }
+        return updateUser(userId, ifMatch, userDto);
+    }
+
+    private ResponseEntity<UserDto> updateUser(long userId, String ifMatch, UserDto userDto) {
+        LOGGER.debug("Try update user wih id {}", userId);
+        User user = updateUser(userMapper.toEntity(userDto), ifMatch);
         LOGGER.debug("User was updated wih id {}", userId);
-        return userDto;
+        return ResponseEntity.ok().eTag(eTagResolver.toETag(user.getVersion())).body(userMapper.toDto(user));
     }
 
+    /**
+     * JSON Merge Patch (RFC 7386) of the fields present in the body.
+     */
     @PatchMapping("/{id}")
-    @Consumes(MediaType.APPLICATION_JSON_VALUE)
+    @Consumes({MERGE_PATCH_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
     @Produces(MediaType.APPLICATION_JSON_VALUE)
-    public UserDto updateSomeUserField(@PathVariable("id") long userId, @RequestBody UserDto userDto) {
+    public ResponseEntity<UserDto> updateSomeUserField(@PathVariable("id") long userId,
+                                                       @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                       @RequestBody ObjectNode mergePatch,
+                                                       @Value("${application.min.age}") long minAge) {
         LOGGER.debug("Try update user wih id {}", userId);
-        userDto.setId(userId);
-        userService.updateUser(convertToEntity(userDto));
+        Map<String, Object> changesMap = readMergePatch(mergePatch);
+        if (changesMap.containsKey(BIRTH_DATE_FIELD)
+                && ((LocalDate) changesMap.get(BIRTH_DATE_FIELD)).until(LocalDate.now(), ChronoUnit.YEARS) < minAge) {
+            throw new NotValidAgeException("Age not valid, user must be older than 18 years");
+        }
+        Long expectedVersion = eTagResolver.toExpectedVersion(userId, ifMatch, () -> userService.getPrimaryUserVersion(userId));
+        User user;
+        try {
+            user = userService.patchUser(userId, changesMap, expectedVersion);
+        } catch (OptimisticLockingFailureException exception) {
+            throw new PreconditionFailedException("User with id " + userId + " has been modified, current ETag is "
+                    + eTagResolver.toETag(userService.getPrimaryUserVersion(userId)));
+        }
         LOGGER.debug("User was updated wih id {}", userId);
-        return userDto;
+        return ResponseEntity.ok().eTag(eTagResolver.toETag(user.getVersion())).body(userMapper.toDto(user));
     }
 
     @DeleteMapping("/{id}")
@@ -111,29 +337,262 @@ public class UsersRestController {
 
     @GetMapping("/search")
     @Produces(MediaType.APPLICATION_JSON_VALUE)
-    public List<UserDto> findUserByBirthDate(@RequestParam("from") @DateTimeFormat(pattern = "dd-MM-yyyy") LocalDate fromDate,
-                                             @RequestParam("to") @DateTimeFormat(pattern = "dd-MM-yyyy") LocalDate toDate) {
-        LOGGER.debug("Try get users by birth date range");
-        List<UserDto> userDtosList = convertToDtoList(userService.findUsersByBirthDate(fromDate, toDate));
+    public ResponseEntity<List<UserDto>> findUserByBirthDate(@RequestParam("from") @DateTimeFormat(pattern = "dd-MM-yyyy") LocalDate fromDate,
+                                                             @RequestParam("to") @DateTimeFormat(pattern = "dd-MM-yyyy") LocalDate toDate,
+                                                             @RequestParam(value = "after", required = false) String after,
+                                                             @RequestParam(value = "limit", defaultValue = "${application.page.default.limit}") int limit,
+                                                             @Value("${application.page.max.limit}") int maxLimit) {
+        LOGGER.debug("Try get users by birth date range after {}", after);
+        LocalDate afterBirthDate = null;
+        long afterId = 0;
+        if (after != null) {
+            try {
+                int separatorIndex = after.lastIndexOf(BIRTH_DATE_CURSOR_SEPARATOR);
+                afterBirthDate = LocalDate.parse(after.substring(0, separatorIndex), BIRTH_DATE_FORMAT);
+                afterId = Long.parseLong(after.substring(separatorIndex + 1));
+            } catch (RuntimeException exception) {
+                throw new NotValidRequestException("Wrong cursor, expected format is dd-MM-yyyy_id");
+            }
+        }
+        Slice<User> usersSlice = userService.findUsersByBirthDate(fromDate, toDate, afterBirthDate, afterId, Math.min(limit, maxLimit));
+        List<UserDto> userDtosList = userMapper.toDtoList(usersSlice.getContent());
         LOGGER.debug("Users by birth date range was successfully got");
-        return userDtosList;
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.ok().eTag(eTagResolver.toETag(usersSlice));
+        if (usersSlice.hasNext()) {
+            UserDto lastUserDto = userDtosList.get(userDtosList.size() - 1);
+            responseBuilder.header(NEXT_CURSOR_HEADER, lastUserDto.getBirthDate().format(BIRTH_DATE_FORMAT)
+                    + BIRTH_DATE_CURSOR_SEPARATOR + lastUserDto.getId());
+        }
+        return responseBuilder.body(userDtosList);
     }
 
-    private UserDto convertToDto(User user) {
+    /**
+     * Users whose birthday is between {@code from} and {@code to} inclusive; 28-12 to 03-01 wraps over New Year.
+     */
+    @GetMapping("/birthdays")
+    @Produces(MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<UserDto>> findUsersByBirthday(@RequestParam("from") String from,
+                                                             @RequestParam("to") String to,
+                                                             @RequestParam(value = "after", required = false) String after,
+                                                             @RequestParam(value = "limit", defaultValue = "${application.page.default.limit}") int limit,
+                                                             @Value("${application.page.max.limit}") int maxLimit) {
+        LOGGER.debug("Try get users with birthday from {} to {} after {}", from, to, after);
+        MonthDay fromMonthDay = parseMonthDay(from);
+        MonthDay toMonthDay = parseMonthDay(to);
+        MonthDay afterMonthDay = null;
+        long afterId = 0;
+        if (after != null) {
+            try {
+                int separatorIndex = after.lastIndexOf(BIRTH_DATE_CURSOR_SEPARATOR);
+                afterMonthDay = MonthDay.parse(after.substring(0, separatorIndex), BIRTHDAY_FORMAT);
+                afterId = Long.parseLong(after.substring(separatorIndex + 1));
+            } catch (RuntimeException exception) {
+                throw new NotValidRequestException("Wrong cursor, expected format is dd-MM_id");
+            }
+        }
+        Slice<User> usersSlice = userService.findUsersByBirthday(fromMonthDay, toMonthDay, afterMonthDay, afterId,
+                Math.min(limit, maxLimit));
+        List<UserDto> userDtosList = userMapper.toDtoList(usersSlice.getContent());
+        LOGGER.debug("Users with birthday from {} to {} was successfully got", from, to);
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.ok().eTag(eTagResolver.toETag(usersSlice));
+        if (usersSlice.hasNext()) {
+            UserDto lastUserDto = userDtosList.get(userDtosList.size() - 1);
+            responseBuilder.header(NEXT_CURSOR_HEADER, MonthDay.from(lastUserDto.getBirthDate()).format(BIRTHDAY_FORMAT)
+                    + BIRTH_DATE_CURSOR_SEPARATOR + lastUserDto.getId());
+        }
+        return responseBuilder.body(userDtosList);
+    }
+
+    /**
+     * Best matches for the words of {@code q} by prefix, part or misspelling of first name, last name or email,
+     * best first. Ranked by the in-memory text index; only the matched users are read from DB.
+     */
+    @GetMapping("/search/text")
+    @Produces(MediaType.APPLICATION_JSON_VALUE)
+    public List<UserDto> searchUsersByText(@RequestParam("q") String query,
+                                           @RequestParam(value = "limit", defaultValue = "${application.text-search.default-limit}") int limit,
+                                           @Value("${application.page.max.limit}") int maxLimit) {
+        LOGGER.debug("Try search users by text {}", query);
+        if (query.isBlank()) {
+            throw new NotValidRequestException("Search text must not be blank");
+        }
+        if (limit < 1) {
+            throw new NotValidRequestException("Limit must be greater than 0");
+        }
+        List<User> usersList = userService.getUsersByIds(textIndex.search(query, Math.min(limit, maxLimit)));
+        LOGGER.debug("{} users was found by text {}", usersList.size(), query);
+        return userMapper.toDtoList(usersList);
+    }
+
+    /**
+     * Changes after the {@code since} cursor; with {@code wait} seconds the request is held until there are any.
+     */
+    @GetMapping("/changes")
+    @Produces(MediaType.APPLICATION_JSON_VALUE)
+    public DeferredResult<ResponseEntity<List<UserChangeDto>>> getUserChanges(@RequestParam(value = "since", defaultValue = "0") long since,
+                                                                              @RequestParam(value = "limit", defaultValue = "${application.page.default.limit}") int limit,
+                                                                              @RequestParam(value = "wait", defaultValue = "0") long waitSeconds,
+                                                                              @Value("${application.page.max.limit}") int maxLimit,
+                                                                              @Value("${application.changes.max-wait-seconds}") long maxWaitSeconds) {
+        LOGGER.debug("Try get user changes after {}", since);
+        IUserChangeFeed userChangeFeed = getChangeFeed();
+        if (limit < 1) {
+            throw new NotValidRequestException("Limit must be greater than 0");
+        }
+        if (waitSeconds <= 0) {
+            DeferredResult<ResponseEntity<List<UserChangeDto>>> result = new DeferredResult<>();
+            result.setResult(changeFeedResponder.toResponse(userChangeFeed.getChanges(since, Math.min(limit, maxLimit)), since));
+            return result;
+        }
+        DeferredResult<ResponseEntity<List<UserChangeDto>>> result = new DeferredResult<>(
+                TimeUnit.SECONDS.toMillis(Math.min(waitSeconds, maxWaitSeconds)), () -> changeFeedResponder.toResponse(List.of(), since));
+        CompletableFuture<List<UserChange>> changesFuture = userChangeFeed.awaitChanges(since, Math.min(limit, maxLimit));
+        result.onCompletion(() -> changesFuture.cancel(false));
+        changesFuture.whenComplete((changesList, exception) -> {
+            if (exception != null) {
+                result.setErrorResult(exception);
+                return;
+            }
+            try {
+                result.setResult(changeFeedResponder.toResponse(changesList, since));
+            } catch (RuntimeException mappingException) {
+                result.setErrorResult(mappingException);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * The same changes as Server-Sent Events, resumed after Last-Event-ID.
+     */
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamUserChanges(@RequestParam(value = "since", defaultValue = "0") long since,
+                                        @RequestHeader(value = LAST_EVENT_ID_HEADER, required = false) Long lastEventId,
+                                        @Value("${application.page.max.limit}") int maxLimit,
+                                        @Value("${application.changes.sse-timeout-seconds}") long timeoutSeconds) {
+        long afterId = lastEventId == null ? since : lastEventId;
+        LOGGER.debug("Try stream user changes after {}", afterId);
+        return changeFeedResponder.stream(getChangeFeed(), afterId, maxLimit, TimeUnit.SECONDS.toMillis(timeoutSeconds));
+    }
+
+    /**
+     * With group commit enabled the request thread waits for the batch its user was written in.
+     */
+    private User registerUser(User user) {
+        if (registrationBatcher == null) {
+            return userService.registerUser(user);
+        }
+        try {
+            return registrationBatcher.registerUser(user).join();
+        } catch (CompletionException exception) {
+            if (exception.getCause() instanceof TimeoutException) {
+                throw new ServiceUnavailableException("Registration is taking too long, retry later", 1);
+            }
+            if (exception.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw exception;
+        }
+    }
+
+    /**
+     * Saves the user under its current version in DB; with If-Match that version must match the client's.
+     */
+    private User updateUser(User user, String ifMatch) {
+        long currentVersion = userService.getPrimaryUserVersion(user.getId());
+        if (ifMatch != null && !eTagResolver.matches(ifMatch, eTagResolver.toETag(currentVersion), false)) {
+            throw new PreconditionFailedException("User with id " + user.getId() + " has been modified, current ETag is "
+                    + eTagResolver.toETag(currentVersion));
+        }
+        user.setVersion(currentVersion);
+        try {
+            return userService.updateUser(user);
+        } catch (OptimisticLockingFailureException exception) {
+            if (ifMatch != null) {
+                throw new PreconditionFailedException("User with id " + user.getId() + " has been modified concurrently");
+            }
+            throw exception;
+        }
+    }
+
+    private static MonthDay parseMonthDay(String monthDay) {
+        try {
+            return MonthDay.parse(monthDay, BIRTHDAY_FORMAT);
+        } catch (DateTimeParseException exception) {
+            throw new NotValidRequestException("Wrong birthday " + monthDay + ", expected format is dd-MM");
+        }
+    }
+
+    private Map<String, Object> readMergePatch(ObjectNode mergePatch) {
+        mergePatch.remove(ID_FIELD);
+        UserDto userDto;
         try {
-            return modelMapper.map(user, UserDto.class);
-        } catch (MappingException exception) {
-            throw new EntityNotFoundException("User does not exist or has been deleted");
+            userDto = userDtoReader.readValue(mergePatch);
+        } catch (IOException exception) {
+            throw new NotValidRequestException("Wrong merge patch: " + exception.getMessage());
         }
+        List<String> fieldsList = new ArrayList<>();
+        mergePatch.fieldNames().forEachRemaining(fieldsList::add);
+        Map<String, Object> changesMap = userMapper.toChanges(userDto, fieldsList);
+        List<String> errors = new ArrayList<>();
+        changesMap.forEach((field, value) -> {
+            if (value == null) {
+                errors.add(field + " can not be null");
+            } else {
+                validator.validateProperty(userDto, field)
+                        .forEach(violation -> errors.add(violation.getPropertyPath() + " " + violation.getMessage()));
+            }
+        });
+        if (changesMap.get(EMAIL_FIELD) != null && !Utils.isValidEmailAddress(userDto.getEmail())) {
+            errors.add("Wrong e-mail address!");
+        }
+        if (!errors.isEmpty()) {
+            throw new NotValidRequestException(String.join(", ", errors));
+        }
+        return changesMap;
     }
 
-    private User convertToEntity(UserDto userDto) {
-        return modelMapper.map(userDto, User.class);
+    private IUserChangeFeed getChangeFeed() {
+        if (changeFeed == null) {
+            throw new NotImplementedException("Change feed is not available with sharding");
+        }
+        return changeFeed;
     }
 
-    private List<UserDto> convertToDtoList(List<User> usersList) {
-        return usersList.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+    private static <T extends IUserVersion> ResponseEntity.BodyBuilder withNextCursor(ResponseEntity.BodyBuilder responseBuilder,
+                                                                                   Slice<T> usersSlice) {
+        if (usersSlice.hasNext()) {
+            List<T> usersList = usersSlice.getContent();
+            responseBuilder.header(NEXT_CURSOR_HEADER, String.valueOf(usersList.get(usersList.size() - 1).getId()));
+        }
+        return responseBuilder;
     }
+
+    private void writeNdjsonLine(JsonGenerator generator, UserDto userDto, long lineNumber) {
+        try {
+            userDtoWriter.writeValue(generator, userDto);
+            generator.writeRaw('\n');
+            if (lineNumber == 1 || lineNumber % EXPORT_FLUSH_SIZE == 0) {
+                generator.flush();
+            }
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    private List<String> validateNewUser(UserDto userDto, long minAge) {
+        List<String> errors = validator.validate(userDto).stream()
+                .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                .collect(Collectors.toCollection(ArrayList::new));
+        if (!Utils.isValidEmailAddress(userDto.getEmail())) {
+            errors.add("Wrong e-mail address!");
+        }
+        if (userDto.getBirthDate() == null) {
+            errors.add("birthDate can not be null");
+        } else if (LocalDate.from(userDto.getBirthDate()).until(LocalDate.now(), ChronoUnit.YEARS) < minAge) {
+            errors.add("Age not valid, user must be older than 18 years");
+        }
+        return errors;
+    }
+
 }
@@ -1,9 +1,13 @@
 package com.gmail.voronovskyi.yaroslav.demo.controller.exception;
 
+import com.gmail.voronovskyi.yaroslav.demo.model.User;
 import lombok.AllArgsConstructor;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -18,6 +22,7 @@ import javax.persistence.EntityNotFoundException;
 import javax.ws.rs.InternalServerErrorException;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Locale;
 import java.util.Objects;
 import java.util.stream.Collectors;
 
@@ -52,6 +57,17 @@ public class CarRestControllerExceptionHandler extends ResponseEntityExceptionHa
         return buildResponseEntity(apiError);
     }
 
+    @ExceptionHandler(value = {UserNotFoundException.class})
+    public ResponseEntity<Object> handlerRequestException(UserNotFoundException exception) {
+        ApiError apiError = ApiError.builder()
+                .error(HttpStatus.NOT_FOUND.value())
+                .status(HttpStatus.NOT_FOUND)
+                .timestamp(LocalDateTime.now())
+                .message(List.of(exception.getMessage()))
+                .build();
+        return buildResponseEntity(apiError);
+    }
+
     @ExceptionHandler(value = {EmptyResultDataAccessException.class})
     public ResponseEntity<Object> handlerRequestException(EmptyResultDataAccessException exception) {
         ApiError apiError = ApiError.builder()
@@ -74,6 +90,17 @@ public class CarRestControllerExceptionHandler extends ResponseEntityExceptionHa
         return buildResponseEntity(apiError);
     }
 
+    @ExceptionHandler(value = {NotValidRequestException.class})
+    public ResponseEntity<Object> handlerRequestException(NotValidRequestException exception) {
+        ApiError apiError = ApiError.builder()
+                .error(HttpStatus.BAD_REQUEST.value())
+                .status(HttpStatus.BAD_REQUEST)
+                .timestamp(LocalDateTime.now())
+                .message(List.of(exception.getMessage()))
+                .build();
+        return buildResponseEntity(apiError);
+    }
+
     @ExceptionHandler(value = {NotValidAgeException.class})
     public ResponseEntity<Object> handlerRequestException(NotValidAgeException exception) {
         ApiError apiError = ApiError.builder()
@@ -85,6 +112,108 @@ public class CarRestControllerExceptionHandler extends ResponseEntityExceptionHa
         return buildResponseEntity(apiError);
     }
 
+    @ExceptionHandler(value = {DataIntegrityViolationException.class})
+    public ResponseEntity<Object> handlerRequestException(DataIntegrityViolationException exception) {
+        String constraintName = exception.getCause() instanceof ConstraintViolationException cause
+                && cause.getConstraintName() != null ? cause.getConstraintName().toLowerCase(Locale.ROOT) : "";
+        String message;
+        HttpStatus status = HttpStatus.CONFLICT;
+        if (constraintName.contains(User.EMAIL_CONSTRAINT)) {
+            message = "User with the same email already exists";
+        } else if (constraintName.contains(User.PHONE_NUMBER_CONSTRAINT)) {
+            message = "User with the same phone number already exists";
+        } else {
+            message = "User could not be saved";
+            status = HttpStatus.INTERNAL_SERVER_ERROR;
+        }
+        ApiError apiError = ApiError.builder()
+                .error(status.value())
+                .status(status)
+                .timestamp(LocalDateTime.now())
+                .message(List.of(message))
+                .build();
+        return buildResponseEntity(apiError);
+    }
+
+    @ExceptionHandler(value = {UserAlreadyExistsException.class})
+    public ResponseEntity<Object> handlerRequestException(UserAlreadyExistsException exception) {
+        ApiError apiError = ApiError.builder()
+                .error(HttpStatus.CONFLICT.value())
+                .status(HttpStatus.CONFLICT)
+                .timestamp(LocalDateTime.now())
+                .message(List.of(exception.getMessage()))
+                .build();
+        return buildResponseEntity(apiError);
+    }
+
+    @ExceptionHandler(value = {PreconditionFailedException.class})
+    public ResponseEntity<Object> handlerRequestException(PreconditionFailedException exception) {
+        ApiError apiError = ApiError.builder()
+                .error(HttpStatus.PRECONDITION_FAILED.value())
+                .status(HttpStatus.PRECONDITION_FAILED)
+                .timestamp(LocalDateTime.now())
+                .message(List.of(exception.getMessage()))
+                .build();
+        return buildResponseEntity(apiError);
+    }
+
+    @ExceptionHandler(value = {OptimisticLockingFailureException.class})
+    public ResponseEntity<Object> handlerRequestException(OptimisticLockingFailureException exception) {
+        ApiError apiError = ApiError.builder()
+                .error(HttpStatus.CONFLICT.value())
+                .status(HttpStatus.CONFLICT)
+                .timestamp(LocalDateTime.now())
+                .message(List.of("User has been modified concurrently, reload it and retry"))
+                .build();
+        return buildResponseEntity(apiError);
+    }
+
+    @ExceptionHandler(value = {IdempotencyKeyReusedException.class})
+    public ResponseEntity<Object> handlerRequestException(IdempotencyKeyReusedException exception) {
+        ApiError apiError = ApiError.builder()
+                .error(HttpStatus.UNPROCESSABLE_ENTITY.value())
+                .status(HttpStatus.UNPROCESSABLE_ENTITY)
+                .timestamp(LocalDateTime.now())
+                .message(List.of(exception.getMessage()))
+                .build();
+        return buildResponseEntity(apiError);
+    }
+
+    @ExceptionHandler(value = {RequestInProgressException.class})
+    public ResponseEntity<Object> handlerRequestException(RequestInProgressException exception) {
+        ApiError apiError = ApiError.builder()
+                .error(HttpStatus.CONFLICT.value())
+                .status(HttpStatus.CONFLICT)
+                .timestamp(LocalDateTime.now())
+                .message(List.of(exception.getMessage()))
+                .build();
+        return buildResponseEntity(apiError);
+    }
+
+    @ExceptionHandler(value = {ServiceUnavailableException.class})
+    public ResponseEntity<Object> handlerRequestException(ServiceUnavailableException exception) {
+        ApiError apiError = ApiError.builder()
+                .error(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .timestamp(LocalDateTime.now())
+                .message(List.of(exception.getMessage()))
+                .build();
+        return ResponseEntity.status(apiError.getStatus())
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(exception.getRetryAfterSeconds()))
+                .body(apiError);
+    }
+
+    @ExceptionHandler(value = {NotImplementedException.class})
+    public ResponseEntity<Object> handlerRequestException(NotImplementedException exception) {
+        ApiError apiError = ApiError.builder()
+                .error(HttpStatus.NOT_IMPLEMENTED.value())
+                .status(HttpStatus.NOT_IMPLEMENTED)
+                .timestamp(LocalDateTime.now())
+                .message(List.of(exception.getMessage()))
+                .build();
+        return buildResponseEntity(apiError);
+    }
+
     @ExceptionHandler(value = {InternalServerErrorException.class})
     public ResponseEntity<Object> handlerRequestException(InternalServerErrorException exception) {
         ApiError apiError = ApiError.builder()
@@ -0,0 +1,10 @@
+package com.gmail.voronovskyi.yaroslav.demo.controller.exception;
+
+public class IdempotencyKeyReusedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public IdempotencyKeyReusedException(String message) {
+        super(message, null, false, false);
+    }
+}
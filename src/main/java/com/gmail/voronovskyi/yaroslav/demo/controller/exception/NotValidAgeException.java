@@ -5,6 +5,6 @@ public class NotValidAgeException extends RuntimeException {
     private static final long serialVersionUID = 1L;
 
     public NotValidAgeException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 }
@@ -0,0 +1,18 @@
+package com.gmail.voronovskyi.yaroslav.demo.controller.exception;
+
+/**
+ * Thrown for every lookup of a missing user, so it is created without a stack trace: clients scanning ids
+ * make it a hot path and the 404 it maps to does not need one.
+ */
+public class UserNotFoundException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public UserNotFoundException(String message) {
+        super(message, null, false, false);
+    }
+
+    public UserNotFoundException(long userId) {
+        this("User with id " + userId + " does not exist or has been deleted");
+    }
+}
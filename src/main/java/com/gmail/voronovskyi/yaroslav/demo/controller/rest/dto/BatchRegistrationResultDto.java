@@ -0,0 +1,21 @@
+package com.gmail.voronovskyi.yaroslav.demo.controller.rest.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchRegistrationResultDto implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private List<UserDto> registered;
+    private List<BatchItemErrorDto> errors;
+}
@@ -0,0 +1,25 @@
+package com.gmail.voronovskyi.yaroslav.demo.controller.rest.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserChangeDto implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private long id;
+    private long userId;
+    private String type;
+    private Long version;
+    private Instant changedAt;
+    private UserDto user;
+}
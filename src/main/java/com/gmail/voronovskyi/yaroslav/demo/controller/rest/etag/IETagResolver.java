@@ -0,0 +1,14 @@
+package com.gmail.voronovskyi.yaroslav.demo.controller.rest.etag;
+
+import com.gmail.voronovskyi.yaroslav.demo.model.IUserVersion;
+import org.springframework.data.domain.Slice;
+
+import java.util.function.LongSupplier;
+
+public interface IETagResolver {
+
+    String toETag(long version);
+    String toETag(Slice<? extends IUserVersion> usersSlice);
+    boolean matches(String header, String eTag, boolean weakComparison);
+    Long toExpectedVersion(long userId, String ifMatch, LongSupplier currentVersionSupplier);
+}
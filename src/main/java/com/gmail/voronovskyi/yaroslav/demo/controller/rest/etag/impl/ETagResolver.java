@@ -0,0 +1,92 @@
+package com.gmail.voronovskyi.yaroslav.demo.controller.rest.etag.impl;
+
+import com.gmail.voronovskyi.yaroslav.demo.controller.exception.PreconditionFailedException;
+import com.gmail.voronovskyi.yaroslav.demo.controller.rest.etag.IETagResolver;
+import com.gmail.voronovskyi.yaroslav.demo.model.IUserVersion;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+
+import java.util.function.LongSupplier;
+
+@Component
+public class ETagResolver implements IETagResolver {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ETagResolver.class);
+    private static final String ANY_ETAG = "*";
+    private static final String WEAK_ETAG_PREFIX = "W/";
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    @Override
+    public String toETag(long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * 64-bit FNV-1a over the ids and versions of the page and whether a next page exists.
+     */
+    @Override
+    public String toETag(Slice<? extends IUserVersion> usersSlice) {
+        long hash = FNV_OFFSET_BASIS;
+        for (IUserVersion user : usersSlice) {
+            hash = fnv1a(hash, user.getId());
+            hash = fnv1a(hash, user.getVersion());
+        }
+        hash = fnv1a(hash, usersSlice.hasNext() ? 1 : 0);
+        return "\"" + Long.toHexString(hash) + "\"";
+    }
+
+    @Override
+    public boolean matches(String header, String eTag, boolean weakComparison) {
+        for (String candidate : header.split(",")) {
+            candidate = candidate.trim();
+            if (candidate.equals(ANY_ETAG)) {
+                return true;
+            }
+            if (candidate.startsWith(WEAK_ETAG_PREFIX)) {
+                if (!weakComparison) {
+                    continue;
+                }
+                candidate = candidate.substring(WEAK_ETAG_PREFIX.length());
+            }
+            if (candidate.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * A single strong If-Match ETag is taken as the version as is; any other If-Match is compared to the current one.
+     */
+    @Override
+    public Long toExpectedVersion(long userId, String ifMatch, LongSupplier currentVersionSupplier) {
+        if (ifMatch == null || ifMatch.trim().equals(ANY_ETAG)) {
+            return null;
+        }
+        String eTag = ifMatch.trim();
+        if (eTag.length() > 2 && eTag.charAt(0) == '"' && eTag.charAt(eTag.length() - 1) == '"') {
+            try {
+                return Long.parseLong(eTag.substring(1, eTag.length() - 1));
+            } catch (NumberFormatException exception) {
+                LOGGER.debug("ETag {} is not a user version", eTag);
+            }
+        }
+        long currentVersion = currentVersionSupplier.getAsLong();
+        if (!matches(ifMatch, toETag(currentVersion), false)) {
+            throw new PreconditionFailedException("User with id " + userId + " has been modified, current ETag is "
+                    + toETag(currentVersion));
+        }
+        return currentVersion;
+    }
+
+    private static long fnv1a(long hash, long value) {
+        for (int i = 0; i < Long.BYTES; i++) {
+            hash = (hash ^ (value & 0xff)) * FNV_PRIME;
+            value >>>= 8;
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,15 @@
+package com.gmail.voronovskyi.yaroslav.demo.controller.rest.feed;
+
+import com.gmail.voronovskyi.yaroslav.demo.controller.rest.dto.UserChangeDto;
+import com.gmail.voronovskyi.yaroslav.demo.model.UserChange;
+import com.gmail.voronovskyi.yaroslav.demo.service.IUserChangeFeed;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+
+public interface IUserChangeFeedResponder {
+
+    ResponseEntity<List<UserChangeDto>> toResponse(List<UserChange> changesList, long since);
+    SseEmitter stream(IUserChangeFeed changeFeed, long afterId, int limit, long timeoutMillis);
+}
@@ -0,0 +1,119 @@
+package com.gmail.voronovskyi.yaroslav.demo.controller.rest.feed.impl;
+
+import com.gmail.voronovskyi.yaroslav.demo.controller.UsersRestController;
+import com.gmail.voronovskyi.yaroslav.demo.controller.rest.dto.UserChangeDto;
+import com.gmail.voronovskyi.yaroslav.demo.controller.rest.dto.UserDto;
+import com.gmail.voronovskyi.yaroslav.demo.controller.rest.feed.IUserChangeFeedResponder;
+import com.gmail.voronovskyi.yaroslav.demo.controller.rest.mapper.IUserMapper;
+import com.gmail.voronovskyi.yaroslav.demo.model.UserChange;
+import com.gmail.voronovskyi.yaroslav.demo.service.IUserChangeFeed;
+import com.gmail.voronovskyi.yaroslav.demo.service.IUserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Component
+public class UserChangeFeedResponder implements IUserChangeFeedResponder {
+
+    private final IUserService userService;
+    private final IUserMapper userMapper;
+
+    @Autowired
+    public UserChangeFeedResponder(IUserService userService, IUserMapper userMapper) {
+        this.userService = userService;
+        this.userMapper = userMapper;
+    }
+
+    @Override
+    public ResponseEntity<List<UserChangeDto>> toResponse(List<UserChange> changesList, long since) {
+        long nextCursor = changesList.isEmpty() ? since : changesList.get(changesList.size() - 1).getId();
+        return ResponseEntity.ok()
+                .header(UsersRestController.NEXT_CURSOR_HEADER, String.valueOf(nextCursor))
+                .body(toChangeDtosList(changesList));
+    }
+
+    @Override
+    public SseEmitter stream(IUserChangeFeed changeFeed, long afterId, int limit, long timeoutMillis) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        AtomicReference<Future<?>> pendingChanges = new AtomicReference<>(CompletableFuture.completedFuture(null));
+        emitter.onCompletion(() -> pendingChanges.get().cancel(false));
+        emitter.onTimeout(() -> pendingChanges.get().cancel(false));
+        emitter.onError(exception -> pendingChanges.get().cancel(false));
+        streamUserChanges(changeFeed, emitter, afterId, limit, pendingChanges);
+        return emitter;
+    }
+
+    /**
+     * Batches that are ready at once are sent in a loop rather than from nested callbacks.
+     */
+    private void streamUserChanges(IUserChangeFeed changeFeed, SseEmitter emitter, long afterId, int limit,
+                                   AtomicReference<Future<?>> pendingChanges) {
+        long cursor = afterId;
+        CompletableFuture<List<UserChange>> changesFuture = changeFeed.awaitChanges(cursor, limit);
+        try {
+            while (changesFuture.isDone()) {
+                cursor = sendUserChanges(emitter, changesFuture.join(), cursor);
+                changesFuture = changeFeed.awaitChanges(cursor, limit);
+            }
+        } catch (IOException | RuntimeException exception) {
+            emitter.completeWithError(exception);
+            return;
+        }
+        pendingChanges.set(changesFuture);
+        long nextCursor = cursor;
+        changesFuture.whenComplete((changesList, exception) -> {
+            if (exception != null) {
+                emitter.completeWithError(exception);
+                return;
+            }
+            try {
+                long sentCursor = sendUserChanges(emitter, changesList, nextCursor);
+                streamUserChanges(changeFeed, emitter, sentCursor, limit, pendingChanges);
+            } catch (IOException | RuntimeException sendException) {
+                emitter.completeWithError(sendException);
+            }
+        });
+    }
+
+    private long sendUserChanges(SseEmitter emitter, List<UserChange> changesList, long cursor) throws IOException {
+        for (UserChangeDto changeDto : toChangeDtosList(changesList)) {
+            emitter.send(SseEmitter.event()
+                    .id(String.valueOf(changeDto.getId()))
+                    .name(changeDto.getType())
+                    .data(changeDto, MediaType.APPLICATION_JSON));
+            cursor = changeDto.getId();
+        }
+        return cursor;
+    }
+
+    private List<UserChangeDto> toChangeDtosList(List<UserChange> changesList) {
+        List<Long> userIdsList = changesList.stream()
+                .filter(change -> change.getType() != UserChange.Type.DELETED)
+                .map(UserChange::getUserId)
+                .distinct()
+                .collect(Collectors.toList());
+        Map<Long, UserDto> userDtosById = userMapper.toDtoList(userService.getUsersByIds(userIdsList)).stream()
+                .collect(Collectors.toMap(UserDto::getId, Function.identity()));
+        return changesList.stream()
+                .map(change -> UserChangeDto.builder()
+                        .id(change.getId())
+                        .userId(change.getUserId())
+                        .type(change.getType().name())
+                        .version(change.getVersion())
+                        .changedAt(change.getChangedAt())
+                        .user(change.getType() == UserChange.Type.DELETED ? null : userDtosById.get(change.getUserId()))
+                        .build())
+                .collect(Collectors.toList());
+    }
+}
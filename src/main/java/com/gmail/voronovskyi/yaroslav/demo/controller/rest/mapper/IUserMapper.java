@@ -0,0 +1,16 @@
+package com.gmail.voronovskyi.yaroslav.demo.controller.rest.mapper;
+
+import com.gmail.voronovskyi.yaroslav.demo.controller.rest.dto.UserDto;
+import com.gmail.voronovskyi.yaroslav.demo.model.User;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface IUserMapper {
+
+    UserDto toDto(User user);
+    User toEntity(UserDto userDto);
+    List<UserDto> toDtoList(List<User> usersList);
+    Map<String, Object> toChanges(UserDto userDto, Collection<String> fields);
+}
@@ -0,0 +1,80 @@
+package com.gmail.voronovskyi.yaroslav.demo.controller.rest.mapper.impl;
+
+import com.gmail.voronovskyi.yaroslav.demo.controller.exception.NotValidRequestException;
+import com.gmail.voronovskyi.yaroslav.demo.controller.exception.UserNotFoundException;
+import com.gmail.voronovskyi.yaroslav.demo.controller.rest.dto.UserDto;
+import com.gmail.voronovskyi.yaroslav.demo.controller.rest.mapper.IUserMapper;
+import com.gmail.voronovskyi.yaroslav.demo.model.User;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityNotFoundException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Component
+public class UserMapper implements IUserMapper {
+
+    @Override
+    public UserDto toDto(User user) {
+        if (user == null) {
+            throw new UserNotFoundException("User does not exist or has been deleted");
+        }
+        try {
+            return new UserDto(user.getId(), user.getEmail(), user.getFirstName(), user.getLastName(),
+                    user.getBirthDate(), user.getAddress(), user.getPhoneNumber());
+        } catch (EntityNotFoundException exception) {
+            throw new UserNotFoundException("User does not exist or has been deleted");
+        }
+    }
+
+    @Override
+    public User toEntity(UserDto userDto) {
+        return new User(userDto.getId(), userDto.getEmail(), userDto.getFirstName(), userDto.getLastName(),
+                userDto.getBirthDate(), userDto.getAddress(), userDto.getPhoneNumber(), 0L);
+    }
+
+    @Override
+    public List<UserDto> toDtoList(List<User> usersList) {
+        List<UserDto> userDtosList = new ArrayList<>(usersList.size());
+        for (User user : usersList) {
+            userDtosList.add(toDto(user));
+        }
+        return userDtosList;
+    }
+
+    /**
+     * Maps the given fields of a partial DTO to the User attributes they change, keyed by attribute name.
+     */
+    @Override
+    public Map<String, Object> toChanges(UserDto userDto, Collection<String> fields) {
+        Map<String, Object> changesMap = new LinkedHashMap<>();
+        for (String field : fields) {
+            switch (field) {
+                case "email":
+                    changesMap.put(field, userDto.getEmail());
+                    break;
+                case "firstName":
+                    changesMap.put(field, userDto.getFirstName());
+                    break;
+                case "lastName":
+                    changesMap.put(field, userDto.getLastName());
+                    break;
+                case "birthDate":
+                    changesMap.put(field, userDto.getBirthDate());
+                    break;
+                case "address":
+                    changesMap.put(field, userDto.getAddress());
+                    break;
+                case "phoneNumber":
+                    changesMap.put(field, userDto.getPhoneNumber());
+                    break;
+                default:
+                    throw new NotValidRequestException("Field " + field + " can not be updated");
+            }
+        }
+        return changesMap;
+    }
+}
@@ -0,0 +1,95 @@
+package com.gmail.voronovskyi.yaroslav.demo.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends connections of read-only transactions to one of the replicas and everything else to the primary.
+ * The decision is taken when the connection is fetched, so this data source has to be wrapped in a
+ * {@link LazyConnectionDataSourceProxy}: the transaction manager asks for a connection before the transaction
+ * is marked read-only, the proxy fetches it only for the first statement. Replicas reported unavailable by
+ * the {@link ReplicaLagMonitor} are skipped; with none available, reads go to the primary as well.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final int PRIMARY = -1;
+
+    private final List<? extends DataSource> replicasList;
+    private final ReplicaSelection selection;
+    private final ReplicaLagMonitor lagMonitor;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    public ReadWriteRoutingDataSource(DataSource primary, List<? extends DataSource> replicasList, ReplicaSelection selection,
+                                      ReplicaLagMonitor lagMonitor) {
+        this.replicasList = replicasList;
+        this.selection = selection;
+        this.lagMonitor = lagMonitor;
+        Map<Object, Object> targetDataSources = new HashMap<>();
+        targetDataSources.put(PRIMARY, primary);
+        for (int i = 0; i < replicasList.size(); i++) {
+            targetDataSources.put(i, replicasList.get(i));
+        }
+        setTargetDataSources(targetDataSources);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || replicasList.isEmpty()) {
+            return PRIMARY;
+        }
+        return selection == ReplicaSelection.LEAST_CONNECTIONS ? leastConnectionsReplica() : roundRobinReplica();
+    }
+
+    private int roundRobinReplica() {
+        int first = Math.floorMod(nextReplica.getAndIncrement(), replicasList.size());
+        for (int i = 0; i < replicasList.size(); i++) {
+            int replica = (first + i) % replicasList.size();
+            if (isAvailable(replica)) {
+                return replica;
+            }
+        }
+        return PRIMARY;
+    }
+
+    /**
+     * Replica with the fewest connections in use; the scan starts at a rotating replica so that ties,
+     * e.g. idle pools, are spread round-robin.
+     */
+    private int leastConnectionsReplica() {
+        int first = Math.floorMod(nextReplica.getAndIncrement(), replicasList.size());
+        int bestReplica = PRIMARY;
+        int bestActiveConnections = Integer.MAX_VALUE;
+        for (int i = 0; i < replicasList.size(); i++) {
+            int replica = (first + i) % replicasList.size();
+            int activeConnections = activeConnections(replicasList.get(replica));
+            if (activeConnections < bestActiveConnections && isAvailable(replica)) {
+                bestReplica = replica;
+                bestActiveConnections = activeConnections;
+            }
+        }
+        return bestReplica;
+    }
+
+    private boolean isAvailable(int replica) {
+        return lagMonitor == null || lagMonitor.isAvailable(replica);
+    }
+
+    private static int activeConnections(DataSource dataSource) {
+        if (dataSource instanceof HikariDataSource hikariDataSource) {
+            HikariPoolMXBean pool = hikariDataSource.getHikariPoolMXBean();
+            return pool != null ? pool.getActiveConnections() : 0;
+        }
+        return 0;
+    }
+}
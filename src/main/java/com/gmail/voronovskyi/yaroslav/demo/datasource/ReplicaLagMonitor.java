@@ -0,0 +1,74 @@
+package com.gmail.voronovskyi.yaroslav.demo.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Runs the lag query on every replica each {@code checkInterval} and marks the replicas whose replication lag
+ * (in seconds) exceeds {@code maxLag}, or which can not be queried, as unavailable until the next check.
+ */
+public class ReplicaLagMonitor implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private final List<? extends DataSource> replicasList;
+    private final String lagQuery;
+    private final double maxLagSeconds;
+    private final AtomicIntegerArray availableReplicas;
+    private final ScheduledExecutorService executor;
+
+    public ReplicaLagMonitor(List<? extends DataSource> replicasList, String lagQuery, Duration maxLag, Duration checkInterval) {
+        this.replicasList = replicasList;
+        this.lagQuery = lagQuery;
+        this.maxLagSeconds = maxLag.toMillis() / 1000.0;
+        this.availableReplicas = new AtomicIntegerArray(replicasList.size());
+        checkReplicas();
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-lag-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::checkReplicas, checkInterval.toMillis(), checkInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    public boolean isAvailable(int replicaIndex) {
+        return availableReplicas.get(replicaIndex) == 1;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    void checkReplicas() {
+        for (int i = 0; i < replicasList.size(); i++) {
+            boolean available;
+            try (Connection connection = replicasList.get(i).getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery(lagQuery)) {
+                double lagSeconds = resultSet.next() ? resultSet.getDouble(1) : 0;
+                available = lagSeconds <= maxLagSeconds;
+                if (!available) {
+                    LOGGER.warn("Replica {} lags {} s behind the primary, reads go to other replicas", i, lagSeconds);
+                }
+            } catch (SQLException exception) {
+                LOGGER.warn("Replica {} is unavailable: {}", i, exception.getMessage());
+                available = false;
+            }
+            availableReplicas.set(i, available ? 1 : 0);
+        }
+    }
+}
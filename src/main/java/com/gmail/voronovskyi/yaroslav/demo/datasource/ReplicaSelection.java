@@ -0,0 +1,7 @@
+package com.gmail.voronovskyi.yaroslav.demo.datasource;
+
+public enum ReplicaSelection {
+
+    ROUND_ROBIN,
+    LEAST_CONNECTIONS
+}
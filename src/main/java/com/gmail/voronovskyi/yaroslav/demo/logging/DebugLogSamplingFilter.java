@@ -0,0 +1,49 @@
+package com.gmail.voronovskyi.yaroslav.demo.logging;
+
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Picks {@code application.logging.debug-sample-rate} of the requests and marks them in the MDC, so that
+ * {@link SampledDebugTurboFilter} keeps their whole DEBUG trace and drops it for the rest.
+ */
+@Component
+@ConditionalOnProperty("application.logging.debug-sample-rate")
+public class DebugLogSamplingFilter extends OncePerRequestFilter {
+
+    public static final String SAMPLED_MDC_KEY = "debugSampled";
+
+    private final double sampleRate;
+
+    public DebugLogSamplingFilter(@Value("${application.logging.debug-sample-rate}") double sampleRate) {
+        if (sampleRate < 0 || sampleRate > 1) {
+            throw new IllegalArgumentException("Debug sample rate must be between 0 and 1");
+        }
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (sampleRate == 0 || ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        MDC.put(SAMPLED_MDC_KEY, Boolean.TRUE.toString());
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            MDC.remove(SAMPLED_MDC_KEY);
+        }
+    }
+}
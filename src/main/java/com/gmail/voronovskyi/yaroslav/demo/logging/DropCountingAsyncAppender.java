@@ -0,0 +1,74 @@
+package com.gmail.voronovskyi.yaroslav.demo.logging;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link AsyncAppender} that never blocks the logging thread and counts the events it drops: TRACE, DEBUG
+ * and INFO once the free space in the queue falls below the discarding threshold, everything once the queue
+ * is full. The count is exported as the {@code logback.async.dropped} metric and reported to the logback
+ * status manager at most once per {@code reportInterval} milliseconds. A few events racing for the last
+ * free slot may still be dropped by the queue itself without being counted.
+ */
+public class DropCountingAsyncAppender extends AsyncAppender {
+
+    private static final long DEFAULT_REPORT_INTERVAL = 10_000;
+
+    private final LongAdder droppedCount = new LongAdder();
+    private final AtomicLong lastReportNanos = new AtomicLong(System.nanoTime());
+    private long reportInterval = DEFAULT_REPORT_INTERVAL;
+    private long reportedCount;
+
+    public DropCountingAsyncAppender() {
+        setNeverBlock(true);
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        int remainingCapacity = getRemainingCapacity();
+        if (remainingCapacity == 0 || (remainingCapacity < getDiscardingThreshold() && isDiscardable(event))) {
+            droppedCount.increment();
+            reportDropped();
+            return;
+        }
+        super.append(event);
+    }
+
+    @Override
+    public void stop() {
+        super.stop();
+        long totalDroppedCount = getDroppedCount();
+        if (totalDroppedCount > 0) {
+            addWarn(totalDroppedCount + " log events were dropped by appender [" + getName() + "]");
+        }
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.sum();
+    }
+
+    public long getReportInterval() {
+        return reportInterval;
+    }
+
+    public void setReportInterval(long reportInterval) {
+        this.reportInterval = reportInterval;
+    }
+
+    private void reportDropped() {
+        long lastReport = lastReportNanos.get();
+        long now = System.nanoTime();
+        if (now - lastReport < TimeUnit.MILLISECONDS.toNanos(reportInterval)
+                || !lastReportNanos.compareAndSet(lastReport, now)) {
+            return;
+        }
+        long totalDroppedCount = getDroppedCount();
+        addWarn((totalDroppedCount - reportedCount) + " log events were dropped by appender [" + getName()
+                + "] since the last report, queue size is " + getQueueSize());
+        reportedCount = totalDroppedCount;
+    }
+}
@@ -0,0 +1,25 @@
+package com.gmail.voronovskyi.yaroslav.demo.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.MDC;
+import org.slf4j.Marker;
+
+/**
+ * Lets DEBUG and TRACE events through only on threads that serve a request picked by
+ * {@link DebugLogSamplingFilter}. Unsampled calls are denied before the message is formatted, so they cost
+ * one MDC lookup; higher levels are left to the logger configuration.
+ */
+public class SampledDebugTurboFilter extends TurboFilter {
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params,
+                              Throwable throwable) {
+        if (!isStarted() || level.isGreaterOrEqual(Level.INFO)) {
+            return FilterReply.NEUTRAL;
+        }
+        return MDC.get(DebugLogSamplingFilter.SAMPLED_MDC_KEY) != null ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+}
@@ -0,0 +1,11 @@
+package com.gmail.voronovskyi.yaroslav.demo.model;
+
+/**
+ * Id and optimistic-lock version of a user: all that is needed to build or check its ETag.
+ */
+public interface IUserVersion {
+
+    long getId();
+
+    long getVersion();
+}
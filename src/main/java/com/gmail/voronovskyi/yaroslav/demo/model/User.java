@@ -4,33 +4,56 @@ import com.fasterxml.jackson.annotation.JsonFormat;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.PrePersist;
+import javax.persistence.PreUpdate;
 import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+import javax.persistence.Version;
 import java.io.Serializable;
 import java.time.LocalDate;
+import java.time.MonthDay;
 
 @Data
 @Entity
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "users")
-public class User implements Serializable {
+@Table(name = "users", indexes = {
+        @Index(name = "idx_users_birth_date_id", columnList = "birthDate, id"),
+        @Index(name = "idx_users_birth_month_day_id", columnList = "birthMonthDay, id")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = User.EMAIL_CONSTRAINT, columnNames = "email"),
+        @UniqueConstraint(name = User.PHONE_NUMBER_CONSTRAINT, columnNames = "phoneNumber")
+})
+public class User implements Serializable, IUserVersion {
 
+    public static final String EMAIL_CONSTRAINT = "uk_users_email";
+    public static final String PHONE_NUMBER_CONSTRAINT = "uk_users_phone_number";
     private static final long serialVersionUID = 1L;
 
     @Id
     @Column(nullable = false)
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_id_generator")
+    @GenericGenerator(name = "users_id_generator", strategy = "com.gmail.voronovskyi.yaroslav.demo.sharding.ShardedIdGenerator",
+            parameters = {
+                    @Parameter(name = "sequence_name", value = "users_seq"),
+                    @Parameter(name = "increment_size", value = "50"),
+                    @Parameter(name = "optimizer", value = "pooled-lo")
+            })
     private long id;
 
-    @Column(nullable = false, unique = true)
+    @Column(nullable = false)
     private String email;
 
     @Column(nullable = false)
@@ -43,9 +66,39 @@ public class User implements Serializable {
     @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "dd-MM-yyyy")
     private LocalDate birthDate;
 
+    /**
+     * Month and day of the birth date as {@code month * 100 + day}, so birthdays of every year are one index range.
+     */
+    @Column(nullable = false)
+    @EqualsAndHashCode.Exclude
+    private int birthMonthDay;
+
     @Column(nullable = false)
     private String address;
 
-    @Column(nullable = false, unique = true)
+    @Column(nullable = false)
     private String phoneNumber;
+
+    @Version
+    @Column(nullable = false)
+    private long version;
+
+    public User(long id, String email, String firstName, String lastName, LocalDate birthDate, String address,
+                String phoneNumber, long version) {
+        this(id, email, firstName, lastName, birthDate, toBirthMonthDay(birthDate), address, phoneNumber, version);
+    }
+
+    public static int toBirthMonthDay(LocalDate birthDate) {
+        return birthDate == null ? 0 : toBirthMonthDay(MonthDay.from(birthDate));
+    }
+
+    public static int toBirthMonthDay(MonthDay monthDay) {
+        return monthDay.getMonthValue() * 100 + monthDay.getDayOfMonth();
+    }
+
+    @PrePersist
+    @PreUpdate
+    void updateBirthMonthDay() {
+        birthMonthDay = toBirthMonthDay(birthDate);
+    }
 }
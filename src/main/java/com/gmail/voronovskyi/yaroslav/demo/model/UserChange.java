@@ -0,0 +1,63 @@
+package com.gmail.voronovskyi.yaroslav.demo.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * Entry of the change log, written in the same transaction as the change of the user.
+ */
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "user_changes", indexes = @Index(name = "idx_user_changes_changed_at", columnList = "changedAt"))
+public class UserChange implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(nullable = false)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_changes_id_generator")
+    @SequenceGenerator(name = "user_changes_id_generator", sequenceName = "user_changes_seq", allocationSize = 1)
+    private long id;
+
+    @Column(nullable = false)
+    private long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Type type;
+
+    /**
+     * Version of the user after the change; {@code null} for a deletion.
+     */
+    private Long version;
+
+    @Column(nullable = false)
+    private Instant changedAt;
+
+    public UserChange(long userId, Type type, Long version) {
+        this.userId = userId;
+        this.type = type;
+        this.version = version;
+        this.changedAt = Instant.now();
+    }
+
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+}
@@ -0,0 +1,10 @@
+package com.gmail.voronovskyi.yaroslav.demo.model;
+
+import lombok.Value;
+
+@Value
+public class UserVersion implements IUserVersion {
+
+    long id;
+    long version;
+}
@@ -0,0 +1,24 @@
+package com.gmail.voronovskyi.yaroslav.demo.repository;
+
+import com.gmail.voronovskyi.yaroslav.demo.model.UserChange;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface IUserChangeRepository extends JpaRepository<UserChange, Long> {
+
+    List<UserChange> findByIdGreaterThanOrderByIdAsc(long afterId, Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query("delete from UserChange c where c.changedAt < :changedBefore")
+    int deleteByChangedAtBefore(@Param("changedBefore") Instant changedBefore);
+}
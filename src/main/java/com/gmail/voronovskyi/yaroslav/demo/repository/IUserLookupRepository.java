@@ -0,0 +1,9 @@
+package com.gmail.voronovskyi.yaroslav.demo.repository;
+
+import com.gmail.voronovskyi.yaroslav.demo.sharding.UserLookup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface IUserLookupRepository extends JpaRepository<UserLookup, String> {
+}
@@ -1,15 +1,74 @@
 package com.gmail.voronovskyi.yaroslav.demo.repository;
 
+import com.gmail.voronovskyi.yaroslav.demo.model.IUserVersion;
 import com.gmail.voronovskyi.yaroslav.demo.model.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
-import org.springframework.web.bind.annotation.RequestParam;
 
+import javax.persistence.QueryHint;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface IUserRepository extends JpaRepository<User, Long> {
 
-    List<User> findByBirthDateBetweenOrderByBirthDateAsc(@RequestParam("from") LocalDate fromDate, @RequestParam("to") LocalDate toDate);
+    String EXPORT_FETCH_SIZE = "500";
+
+    @Query("select new com.gmail.voronovskyi.yaroslav.demo.model.User("
+            + "u.id, u.email, u.firstName, u.lastName, u.birthDate, u.address, u.phoneNumber, u.version) "
+            + "from User u where u.id = :userId")
+    Optional<User> findUserById(@Param("userId") long userId);
+
+    @Query("select u.version from User u where u.id = :userId")
+    Optional<Long> findVersionById(@Param("userId") long userId);
+
+    @Query("select new com.gmail.voronovskyi.yaroslav.demo.model.UserVersion(u.id, u.version) from User u where u.id > :afterId order by u.id")
+    Slice<IUserVersion> findVersionsByIdGreaterThan(@Param("afterId") long afterId, Pageable pageable);
+
+    Slice<User> findByBirthDateBetweenOrderByBirthDateAscIdAsc(LocalDate fromDate, LocalDate toDate, Pageable pageable);
+
+    @Query("select u from User u where u.birthDate >= :afterBirthDate and u.birthDate <= :toDate "
+            + "and (u.birthDate > :afterBirthDate or u.id > :afterId) order by u.birthDate, u.id")
+    Slice<User> findByBirthDateAfterCursor(@Param("afterBirthDate") LocalDate afterBirthDate, @Param("afterId") long afterId,
+                                           @Param("toDate") LocalDate toDate, Pageable pageable);
+
+    @Query("select u from User u where u.birthMonthDay >= :afterMonthDay and u.birthMonthDay <= :toMonthDay "
+            + "and (u.birthMonthDay > :afterMonthDay or u.id > :afterId) order by u.birthMonthDay, u.id")
+    Slice<User> findByBirthMonthDayAfterCursor(@Param("afterMonthDay") int afterMonthDay, @Param("afterId") long afterId,
+                                               @Param("toMonthDay") int toMonthDay, Pageable pageable);
+
+    Slice<User> findByIdGreaterThanOrderByIdAsc(long afterId, Pageable pageable);
+
+    @Modifying
+    @Query("delete from User u where u.id = :userId")
+    int deleteUserById(@Param("userId") long userId);
+
+    boolean existsByEmail(String email);
+
+    boolean existsByPhoneNumber(String phoneNumber);
+
+    @Query("select u.email from User u")
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    Stream<String> streamAllEmails();
+
+    @Query("select u.phoneNumber from User u")
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    Stream<String> streamAllPhoneNumbers();
+
+    List<User> findByEmailInOrPhoneNumberIn(Collection<String> emails, Collection<String> phoneNumbers);
+
+    @Query("select u from User u order by u.id")
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    Stream<User> streamAllByOrderByIdAsc();
 }
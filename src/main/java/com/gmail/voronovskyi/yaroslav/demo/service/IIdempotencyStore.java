@@ -0,0 +1,8 @@
+package com.gmail.voronovskyi.yaroslav.demo.service;
+
+import java.util.function.Supplier;
+
+public interface IIdempotencyStore {
+
+    <T> T execute(String operation, String idempotencyKey, Object request, Supplier<T> action);
+}
@@ -0,0 +1,12 @@
+package com.gmail.voronovskyi.yaroslav.demo.service;
+
+import com.gmail.voronovskyi.yaroslav.demo.model.UserChange;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+public interface IUserChangeFeed {
+
+    List<UserChange> getChanges(long afterId, int limit);
+    CompletableFuture<List<UserChange>> awaitChanges(long afterId, int limit);
+}
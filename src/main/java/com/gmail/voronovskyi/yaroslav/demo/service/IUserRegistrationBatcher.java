@@ -0,0 +1,10 @@
+package com.gmail.voronovskyi.yaroslav.demo.service;
+
+import com.gmail.voronovskyi.yaroslav.demo.model.User;
+
+import java.util.concurrent.CompletableFuture;
+
+public interface IUserRegistrationBatcher {
+
+    CompletableFuture<User> registerUser(User user);
+}
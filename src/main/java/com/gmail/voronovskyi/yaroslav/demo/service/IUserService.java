@@ -1,18 +1,33 @@
 package com.gmail.voronovskyi.yaroslav.demo.service;
 
+import com.gmail.voronovskyi.yaroslav.demo.model.IUserVersion;
 import com.gmail.voronovskyi.yaroslav.demo.model.User;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.MonthDay;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 @Repository
 public interface IUserService {
 
     User getUserBuId(long userId);
-    List<User> getAllUsers();
+    long getUserVersion(long userId);
+    long getPrimaryUserVersion(long userId);
+    List<User> getUsersByIds(List<Long> userIds);
+    Slice<User> getAllUsers(long afterId, int limit);
+    Slice<IUserVersion> getAllUserVersions(long afterId, int limit);
+    void exportUsers(Consumer<User> userConsumer);
     User registerUser(User user);
+    List<User> registerUsers(List<User> usersList);
+    List<User> findUsersByEmailsOrPhoneNumbers(Collection<String> emails, Collection<String> phoneNumbers);
     User updateUser(User user);
+    User patchUser(long userId, Map<String, Object> changes, Long expectedVersion);
     void deleteUser(long userId);
-    List<User> findUsersByBirthDate(LocalDate fromDate, LocalDate toDate);
+    Slice<User> findUsersByBirthDate(LocalDate fromDate, LocalDate toDate, LocalDate afterBirthDate, long afterId, int limit);
+    Slice<User> findUsersByBirthday(MonthDay fromMonthDay, MonthDay toMonthDay, MonthDay afterMonthDay, long afterId, int limit);
 }
@@ -0,0 +1,12 @@
+package com.gmail.voronovskyi.yaroslav.demo.service;
+
+import com.gmail.voronovskyi.yaroslav.demo.model.User;
+
+import java.util.List;
+
+public interface IUserTextIndex {
+
+    List<Long> search(String query, int limit);
+    void put(User user);
+    void remove(long userId);
+}
@@ -0,0 +1,10 @@
+package com.gmail.voronovskyi.yaroslav.demo.service;
+
+import com.gmail.voronovskyi.yaroslav.demo.model.User;
+
+public interface IUserUniquenessFilter {
+
+    boolean mightContainEmail(String email);
+    boolean mightContainPhoneNumber(String phoneNumber);
+    void put(User user);
+}
@@ -0,0 +1,68 @@
+package com.gmail.voronovskyi.yaroslav.demo.service.impl;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe Bloom filter of strings. It never forgets a value that was put, but may report a value
+ * that was not put with about the false positive rate it was sized for.
+ */
+public class BloomFilter {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private final AtomicLongArray bits;
+    private final long bitsCount;
+    private final int hashesCount;
+
+    public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions < 1) {
+            throw new IllegalArgumentException("Expected insertions must be greater than 0");
+        }
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("False positive rate must be between 0 and 1");
+        }
+        long optimalBitsCount = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        bits = new AtomicLongArray(Math.toIntExact((optimalBitsCount + Long.SIZE - 1) / Long.SIZE));
+        bitsCount = (long) bits.length() * Long.SIZE;
+        hashesCount = Math.max(1, (int) Math.round((double) bitsCount / expectedInsertions * Math.log(2)));
+    }
+
+    public void put(String value) {
+        long hash1 = hash(value);
+        long hash2 = mix(hash1);
+        for (int i = 1; i <= hashesCount; i++) {
+            long index = ((hash1 + i * hash2) & Long.MAX_VALUE) % bitsCount;
+            long mask = 1L << index;
+            int wordIndex = (int) (index >>> 6);
+            if ((bits.get(wordIndex) & mask) == 0) {
+                bits.getAndAccumulate(wordIndex, mask, (word, bit) -> word | bit);
+            }
+        }
+    }
+
+    public boolean mightContain(String value) {
+        long hash1 = hash(value);
+        long hash2 = mix(hash1);
+        for (int i = 1; i <= hashesCount; i++) {
+            long index = ((hash1 + i * hash2) & Long.MAX_VALUE) % bitsCount;
+            if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long hash(String value) {
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * FNV_PRIME;
+        }
+        return mix(hash);
+    }
+
+    private static long mix(long hash) {
+        hash = (hash ^ (hash >>> 33)) * 0xff51afd7ed558ccdL;
+        hash = (hash ^ (hash >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return hash ^ (hash >>> 33);
+    }
+}
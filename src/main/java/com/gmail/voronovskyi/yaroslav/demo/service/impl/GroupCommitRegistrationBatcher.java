@@ -0,0 +1,225 @@
+package com.gmail.voronovskyi.yaroslav.demo.service.impl;
+
+import com.gmail.voronovskyi.yaroslav.demo.controller.exception.UserAlreadyExistsException;
+import com.gmail.voronovskyi.yaroslav.demo.model.User;
+import com.gmail.voronovskyi.yaroslav.demo.service.IUserRegistrationBatcher;
+import com.gmail.voronovskyi.yaroslav.demo.service.IUserService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+/**
+ * Group commit of single registrations, enabled with {@code application.group-commit.enabled=true}. Concurrent
+ * registrations are queued and a writer thread inserts them with one {@link IUserService#registerUsers} call, so
+ * many requests share a transaction and a commit. A batch is written once it has {@code max-batch-size} users or
+ * its first user has waited {@code max-delay-millis}; while a batch is being written the next one fills up.
+ * Duplicates are rejected per user before the insert; should the batch still fail, its users that were not
+ * saved are registered one by one so every caller gets its own id or its own error (a sharded batch can fail
+ * after some shards committed). When the queue is full the caller registers directly. A registration that is
+ * not written within {@code wait-timeout-millis} fails with a {@link TimeoutException} and is dropped from the
+ * queue unwritten, so the caller may safely retry it.
+ */
+@Component
+@ConditionalOnProperty(name = "application.group-commit.enabled", havingValue = "true")
+public class GroupCommitRegistrationBatcher implements IUserRegistrationBatcher {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(GroupCommitRegistrationBatcher.class);
+    private static final long IDLE_POLL_MILLIS = 100;
+    private final IUserService userService;
+    private final int maxBatchSize;
+    private final long maxDelayNanos;
+    private final long waitTimeoutMillis;
+    private final BlockingQueue<PendingRegistration> queue;
+    private final DistributionSummary batchSizeSummary;
+    private final Thread writer;
+    private volatile boolean closed;
+
+    @Autowired
+    public GroupCommitRegistrationBatcher(IUserService userService, MeterRegistry meterRegistry,
+                                          @Value("${application.group-commit.max-batch-size}") int maxBatchSize,
+                                          @Value("${application.group-commit.max-delay-millis}") long maxDelayMillis,
+                                          @Value("${application.group-commit.wait-timeout-millis}") long waitTimeoutMillis) {
+        this.userService = userService;
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+        this.waitTimeoutMillis = waitTimeoutMillis;
+        this.queue = new ArrayBlockingQueue<>(maxBatchSize * 16);
+        this.batchSizeSummary = DistributionSummary.builder("users.group.commit.batch.size")
+                .description("Registrations written in one transaction")
+                .register(meterRegistry);
+        this.writer = new Thread(this::writeBatches, "group-commit-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    @Override
+    public CompletableFuture<User> registerUser(User user) {
+        PendingRegistration registration = new PendingRegistration(user);
+        if (closed || !queue.offer(registration)) {
+            return registerDirectly(user);
+        }
+        if (closed && queue.remove(registration)) {
+            return registerDirectly(user);
+        }
+        return registration.result.orTimeout(waitTimeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void close() throws InterruptedException {
+        closed = true;
+        writer.join();
+        List<PendingRegistration> remainingList = new ArrayList<>();
+        queue.drainTo(remainingList);
+        if (!remainingList.isEmpty()) {
+            write(remainingList);
+        }
+    }
+
+    private void writeBatches() {
+        List<PendingRegistration> batchList = new ArrayList<>(maxBatchSize);
+        while (!closed || !queue.isEmpty()) {
+            try {
+                PendingRegistration first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batchList.add(first);
+                long deadline = System.nanoTime() + maxDelayNanos;
+                while (batchList.size() < maxBatchSize) {
+                    PendingRegistration next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batchList.add(next);
+                }
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                closed = true;
+            }
+            if (!batchList.isEmpty()) {
+                write(batchList);
+                batchList.clear();
+            }
+        }
+    }
+
+    private void write(List<PendingRegistration> batchList) {
+        LOGGER.debug("Try register {} queued users in one transaction", batchList.size());
+        batchSizeSummary.record(batchList.size());
+        List<PendingRegistration> waitingList = batchList.stream()
+                .filter(registration -> !registration.result.isDone())
+                .collect(Collectors.toList());
+        if (waitingList.isEmpty()) {
+            return;
+        }
+        List<PendingRegistration> acceptedList = rejectDuplicates(waitingList);
+        if (acceptedList.isEmpty()) {
+            return;
+        }
+        try {
+            userService.registerUsers(acceptedList.stream().map(registration -> registration.user).collect(Collectors.toList()));
+            acceptedList.forEach(registration -> registration.result.complete(registration.user));
+        } catch (RuntimeException exception) {
+            LOGGER.debug("Batch of {} users failed, registering unsaved ones one by one: {}", acceptedList.size(), exception.getMessage());
+            Set<Long> savedIds;
+            try {
+                savedIds = userService.getUsersByIds(acceptedList.stream()
+                                .map(registration -> registration.user.getId())
+                                .filter(userId -> userId != 0)
+                                .collect(Collectors.toList())).stream()
+                        .map(User::getId)
+                        .collect(Collectors.toSet());
+            } catch (RuntimeException lookupException) {
+                acceptedList.forEach(registration -> registration.result.completeExceptionally(exception));
+                return;
+            }
+            for (PendingRegistration registration : acceptedList) {
+                if (savedIds.contains(registration.user.getId())) {
+                    registration.result.complete(registration.user);
+                    continue;
+                }
+                registration.user.setId(0L);
+                registration.user.setVersion(0L);
+                try {
+                    registration.result.complete(userService.registerUser(registration.user));
+                } catch (RuntimeException userException) {
+                    registration.result.completeExceptionally(userException);
+                }
+            }
+        }
+    }
+
+    /**
+     * Fails the registrations whose email or phone number is taken, by a user in DB or by an earlier
+     * registration of the same batch, and returns the others.
+     */
+    private List<PendingRegistration> rejectDuplicates(List<PendingRegistration> batchList) {
+        Set<String> emails = new HashSet<>();
+        Set<String> phoneNumbers = new HashSet<>();
+        batchList.forEach(registration -> {
+            emails.add(registration.user.getEmail());
+            phoneNumbers.add(registration.user.getPhoneNumber());
+        });
+        Set<String> takenEmails = new HashSet<>();
+        Set<String> takenPhoneNumbers = new HashSet<>();
+        try {
+            userService.findUsersByEmailsOrPhoneNumbers(emails, phoneNumbers).forEach(user -> {
+                takenEmails.add(user.getEmail());
+                takenPhoneNumbers.add(user.getPhoneNumber());
+            });
+        } catch (RuntimeException exception) {
+            batchList.forEach(registration -> registration.result.completeExceptionally(exception));
+            return List.of();
+        }
+        List<PendingRegistration> acceptedList = new ArrayList<>(batchList.size());
+        for (PendingRegistration registration : batchList) {
+            User user = registration.user;
+            if (!takenEmails.add(user.getEmail())) {
+                registration.result.completeExceptionally(
+                        new UserAlreadyExistsException("User with email " + user.getEmail() + " already exists"));
+            } else if (!takenPhoneNumbers.add(user.getPhoneNumber())) {
+                takenEmails.remove(user.getEmail());
+                registration.result.completeExceptionally(
+                        new UserAlreadyExistsException("User with phone number " + user.getPhoneNumber() + " already exists"));
+            } else {
+                acceptedList.add(registration);
+            }
+        }
+        return acceptedList;
+    }
+
+    private CompletableFuture<User> registerDirectly(User user) {
+        try {
+            return CompletableFuture.completedFuture(userService.registerUser(user));
+        } catch (RuntimeException exception) {
+            return CompletableFuture.failedFuture(exception);
+        }
+    }
+
+    private static final class PendingRegistration {
+
+        private final User user;
+        private final CompletableFuture<User> result = new CompletableFuture<>();
+
+        private PendingRegistration(User user) {
+            this.user = user;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.gmail.voronovskyi.yaroslav.demo.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.gmail.voronovskyi.yaroslav.demo.controller.exception.IdempotencyKeyReusedException;
+import com.gmail.voronovskyi.yaroslav.demo.controller.exception.NotValidRequestException;
+import com.gmail.voronovskyi.yaroslav.demo.controller.exception.RequestInProgressException;
+import com.gmail.voronovskyi.yaroslav.demo.service.IIdempotencyStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Results of requests sent with an Idempotency-Key, kept in memory of this instance; a repeat waits for the first
+ * run and gets its result. A failed run is not kept.
+ */
+@Component
+public class IdempotencyStore implements IIdempotencyStore {
+
+    public static final int MAX_KEY_LENGTH = 255;
+    private static final Logger LOGGER = LoggerFactory.getLogger(IdempotencyStore.class);
+    private final Cache<String, Execution> executions;
+    private final long waitTimeoutMillis;
+    private final Counter replaysCounter;
+
+    @Autowired
+    public IdempotencyStore(MeterRegistry meterRegistry,
+                            @Value("${application.idempotency.max-entries}") long maxEntries,
+                            @Value("${application.idempotency.ttl-minutes}") long ttlMinutes,
+                            @Value("${application.idempotency.wait-timeout-millis}") long waitTimeoutMillis) {
+        this.executions = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .recordStats()
+                .build();
+        this.waitTimeoutMillis = waitTimeoutMillis;
+        this.replaysCounter = Counter.builder("users.idempotency.replays")
+                .description("Requests answered with the stored result of an earlier request with the same key")
+                .register(meterRegistry);
+        CaffeineCacheMetrics.monitor(meterRegistry, executions, "idempotency");
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String operation, String idempotencyKey, Object request, Supplier<T> action) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new NotValidRequestException("Idempotency key must have 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        String cacheKey = operation + ' ' + idempotencyKey;
+        while (true) {
+            Execution execution = new Execution(request);
+            Execution firstExecution = executions.asMap().putIfAbsent(cacheKey, execution);
+            if (firstExecution == null) {
+                return (T) run(cacheKey, execution, action);
+            }
+            if (!firstExecution.request.equals(request)) {
+                throw new IdempotencyKeyReusedException("Idempotency key " + idempotencyKey + " was already used for another request");
+            }
+            try {
+                Object result = firstExecution.result.get(waitTimeoutMillis, TimeUnit.MILLISECONDS);
+                replaysCounter.increment();
+                LOGGER.debug("Stored result of {} with idempotency key {} was replayed", operation, idempotencyKey);
+                return (T) result;
+            } catch (ExecutionException exception) {
+                LOGGER.debug("First {} with idempotency key {} failed, try again", operation, idempotencyKey);
+            } catch (TimeoutException exception) {
+                throw new RequestInProgressException("Request with idempotency key " + idempotencyKey + " is still in progress");
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                throw new RequestInProgressException("Request with idempotency key " + idempotencyKey + " is still in progress");
+            }
+        }
+    }
+
+    private Object run(String cacheKey, Execution execution, Supplier<?> action) {
+        try {
+            Object result = action.get();
+            execution.result.complete(result);
+            return result;
+        } catch (RuntimeException | Error exception) {
+            executions.asMap().remove(cacheKey, execution);
+            execution.result.completeExceptionally(exception);
+            throw exception;
+        }
+    }
+
+    private static final class Execution {
+
+        private final Object request;
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+
+        private Execution(Object request) {
+            this.request = request;
+        }
+    }
+}
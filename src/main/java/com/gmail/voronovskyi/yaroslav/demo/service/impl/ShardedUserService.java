@@ -0,0 +1,341 @@
+package com.gmail.voronovskyi.yaroslav.demo.service.impl;
+
+import com.gmail.voronovskyi.yaroslav.demo.controller.exception.NotValidRequestException;
+import com.gmail.voronovskyi.yaroslav.demo.controller.exception.UserAlreadyExistsException;
+import com.gmail.voronovskyi.yaroslav.demo.model.IUserVersion;
+import com.gmail.voronovskyi.yaroslav.demo.model.User;
+import com.gmail.voronovskyi.yaroslav.demo.repository.IUserLookupRepository;
+import com.gmail.voronovskyi.yaroslav.demo.service.IUserService;
+import com.gmail.voronovskyi.yaroslav.demo.sharding.ShardedIdGenerator;
+import com.gmail.voronovskyi.yaroslav.demo.sharding.UserLookup;
+import com.gmail.voronovskyi.yaroslav.demo.sharding.UserShards;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.annotation.Primary;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.MonthDay;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static com.gmail.voronovskyi.yaroslav.demo.service.impl.UserService.USERS_CACHE;
+
+/**
+ * Users spread over {@link UserShards}: a user stays on the shard encoded in its id, new users are placed by
+ * the hash of their email. Emails and phone numbers are claimed in the global {@link UserLookup} table before
+ * a shard is written and released after the user has moved off them, which keeps them unique across shards.
+ * Listings and birth-date searches send the same cursor to every shard in parallel and merge the sorted
+ * slices. Writes are transactional per shard only: a batch that fails on one shard stays registered on the others.
+ */
+@Service
+@Primary
+@Timed(UserService.SERVICE_TIMER)
+@ConditionalOnProperty(name = "application.sharding.enabled", havingValue = "true")
+public class ShardedUserService implements IUserService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ShardedUserService.class);
+    private static final String EMAIL = "email";
+    private static final String PHONE_NUMBER = "phoneNumber";
+    private static final Comparator<IUserVersion> BY_ID = Comparator.comparingLong(IUserVersion::getId);
+    private static final Comparator<User> BY_BIRTH_DATE_AND_ID = Comparator.comparing(User::getBirthDate)
+            .thenComparingLong(User::getId);
+    private static final int NEXT_YEAR_OFFSET = 1300;
+    private final UserShards userShards;
+    private final IUserLookupRepository userLookupRepository;
+
+    @Autowired
+    public ShardedUserService(UserShards userShards, IUserLookupRepository userLookupRepository) {
+        this.userShards = userShards;
+        this.userLookupRepository = userLookupRepository;
+    }
+
+    @Override
+    @Cacheable(cacheNames = USERS_CACHE, key = "#userId")
+    public User getUserBuId(long userId) {
+        return userShards.forUser(userId).getUserBuId(userId);
+    }
+
+    @Override
+    public long getUserVersion(long userId) {
+        return userShards.forUser(userId).getUserVersion(userId);
+    }
+
+    @Override
+    public long getPrimaryUserVersion(long userId) {
+        return userShards.forUser(userId).getPrimaryUserVersion(userId);
+    }
+
+    @Override
+    public List<User> getUsersByIds(List<Long> userIds) {
+        Map<Integer, List<Long>> userIdsByShard = userIds.stream()
+                .filter(userId -> ShardedIdGenerator.shardOf(userId) < userShards.size())
+                .collect(Collectors.groupingBy(ShardedIdGenerator::shardOf));
+        Map<Long, User> usersById = userShards.scatter(new ArrayList<>(userIdsByShard.keySet()),
+                        (shardIndex, userService) -> userService.getUsersByIds(userIdsByShard.get(shardIndex))).stream()
+                .flatMap(List::stream)
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        return userIds.stream()
+                .map(usersById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public Slice<User> getAllUsers(long afterId, int limit) {
+        LOGGER.debug("Try get {} users after id {} from {} shards", limit, afterId, userShards.size());
+        checkLimit(limit);
+        return mergeSorted(userShards.scatter(userService -> userService.getAllUsers(afterId, limit)), BY_ID, limit);
+    }
+
+    @Override
+    public Slice<IUserVersion> getAllUserVersions(long afterId, int limit) {
+        checkLimit(limit);
+        return mergeSorted(userShards.scatter(userService -> userService.getAllUserVersions(afterId, limit)), BY_ID, limit);
+    }
+
+    /**
+     * Exports one shard after another, so users are in id order within a shard only.
+     */
+    @Override
+    public void exportUsers(Consumer<User> userConsumer) {
+        for (int i = 0; i < userShards.size(); i++) {
+            userShards.get(i).exportUsers(userConsumer);
+        }
+    }
+
+    @Override
+    @CachePut(cacheNames = USERS_CACHE, key = "#result.id")
+    public User registerUser(User user) {
+        int shardIndex = userShards.shardIndexFor(user);
+        LOGGER.debug("Try register new user on shard {}", shardIndex);
+        List<UserLookup> lookupsList = toLookupsList(user.getEmail(), user.getPhoneNumber(), shardIndex);
+        claim(lookupsList);
+        return releaseOnFailure(lookupsList, () -> userShards.get(shardIndex).registerUser(user));
+    }
+
+    @Override
+    public List<User> registerUsers(List<User> usersList) {
+        LOGGER.debug("Try register {} new users on {} shards", usersList.size(), userShards.size());
+        if (usersList.isEmpty()) {
+            return usersList;
+        }
+        Map<Integer, List<User>> usersByShard = usersList.stream()
+                .collect(Collectors.groupingBy(userShards::shardIndexFor, TreeMap::new, Collectors.toList()));
+        Map<Integer, List<UserLookup>> lookupsByShard = new HashMap<>();
+        usersByShard.forEach((shardIndex, shardUsersList) -> lookupsByShard.put(shardIndex, shardUsersList.stream()
+                .flatMap(user -> toLookupsList(user.getEmail(), user.getPhoneNumber(), shardIndex).stream())
+                .collect(Collectors.toList())));
+        claim(lookupsByShard.values().stream().flatMap(List::stream).collect(Collectors.toList()));
+        userShards.scatter(new ArrayList<>(usersByShard.keySet()), (shardIndex, userService) -> releaseOnFailure(
+                lookupsByShard.get(shardIndex), () -> userService.registerUsers(usersByShard.get(shardIndex))));
+        return usersList;
+    }
+
+    @Override
+    public List<User> findUsersByEmailsOrPhoneNumbers(Collection<String> emails, Collection<String> phoneNumbers) {
+        LOGGER.debug("Try get users by {} emails and {} phone numbers from lookup", emails.size(), phoneNumbers.size());
+        List<String> keysList = new ArrayList<>(emails.size() + phoneNumbers.size());
+        emails.forEach(email -> keysList.add(UserLookup.emailKey(email)));
+        phoneNumbers.forEach(phoneNumber -> keysList.add(UserLookup.phoneNumberKey(phoneNumber)));
+        if (keysList.isEmpty()) {
+            return List.of();
+        }
+        Map<Integer, List<String>> keysByShard = userLookupRepository.findAllById(keysList).stream()
+                .collect(Collectors.groupingBy(UserLookup::getShardIndex, TreeMap::new,
+                        Collectors.mapping(UserLookup::getLookupKey, Collectors.toList())));
+        if (keysByShard.isEmpty()) {
+            return List.of();
+        }
+        return userShards.scatter(new ArrayList<>(keysByShard.keySet()), (shardIndex, userService) -> {
+                    List<String> shardKeysList = keysByShard.get(shardIndex);
+                    return userService.findUsersByEmailsOrPhoneNumbers(
+                            emails.stream().filter(email -> shardKeysList.contains(UserLookup.emailKey(email))).collect(Collectors.toList()),
+                            phoneNumbers.stream().filter(phoneNumber -> shardKeysList.contains(UserLookup.phoneNumberKey(phoneNumber)))
+                                    .collect(Collectors.toList()));
+                }).stream()
+                .flatMap(List::stream)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @CachePut(cacheNames = USERS_CACHE, key = "#user.id")
+    public User updateUser(User user) {
+        IUserService userService = userShards.forUser(user.getId());
+        User currentUser = userService.getUserBuId(user.getId());
+        return changeUniqueValues(currentUser, user.getEmail(), user.getPhoneNumber(), () -> userService.updateUser(user));
+    }
+
+    @Override
+    @CachePut(cacheNames = USERS_CACHE, key = "#userId")
+    public User patchUser(long userId, Map<String, Object> changes, Long expectedVersion) {
+        IUserService userService = userShards.forUser(userId);
+        if (!changes.containsKey(EMAIL) && !changes.containsKey(PHONE_NUMBER)) {
+            return userService.patchUser(userId, changes, expectedVersion);
+        }
+        User currentUser = userService.getUserBuId(userId);
+        return changeUniqueValues(currentUser, (String) changes.getOrDefault(EMAIL, currentUser.getEmail()),
+                (String) changes.getOrDefault(PHONE_NUMBER, currentUser.getPhoneNumber()),
+                () -> userService.patchUser(userId, changes, expectedVersion));
+    }
+
+    @Override
+    @CacheEvict(cacheNames = USERS_CACHE, key = "#userId")
+    public void deleteUser(long userId) {
+        IUserService userService = userShards.forUser(userId);
+        User currentUser = userService.getUserBuId(userId);
+        userService.deleteUser(userId);
+        userLookupRepository.deleteAllByIdInBatch(List.of(UserLookup.emailKey(currentUser.getEmail()),
+                UserLookup.phoneNumberKey(currentUser.getPhoneNumber())));
+    }
+
+    @Override
+    public Slice<User> findUsersByBirthDate(LocalDate fromDate, LocalDate toDate, LocalDate afterBirthDate, long afterId, int limit) {
+        LOGGER.debug("Try get {} users by birth date range after {} and id {} from {} shards", limit, afterBirthDate, afterId,
+                userShards.size());
+        checkLimit(limit);
+        return mergeSorted(userShards.scatter(userService -> userService.findUsersByBirthDate(fromDate, toDate, afterBirthDate,
+                afterId, limit)), BY_BIRTH_DATE_AND_ID, limit);
+    }
+
+    @Override
+    public Slice<User> findUsersByBirthday(MonthDay fromMonthDay, MonthDay toMonthDay, MonthDay afterMonthDay, long afterId,
+                                           int limit) {
+        checkLimit(limit);
+        int from = User.toBirthMonthDay(fromMonthDay);
+        Comparator<User> fromWindowStart = Comparator.<User>comparingInt(user -> user.getBirthMonthDay() < from
+                        ? user.getBirthMonthDay() + NEXT_YEAR_OFFSET : user.getBirthMonthDay())
+                .thenComparingLong(User::getId);
+        return mergeSorted(userShards.scatter(userService -> userService.findUsersByBirthday(fromMonthDay, toMonthDay,
+                afterMonthDay, afterId, limit)), fromWindowStart, limit);
+    }
+
+    private static void checkLimit(int limit) {
+        if (limit < 1) {
+            throw new NotValidRequestException("Limit must be greater than 0");
+        }
+    }
+
+    /**
+     * Merges the first {@code limit} items of the shard slices, each sorted by the comparator. There is a next
+     * slice when any shard has one or when merged items were left over.
+     */
+    private static <T> Slice<T> mergeSorted(List<Slice<T>> slicesList, Comparator<? super T> comparator, int limit) {
+        PriorityQueue<MergeCursor<T>> cursorsQueue = new PriorityQueue<>(slicesList.size(),
+                (left, right) -> comparator.compare(left.current(), right.current()));
+        boolean hasNext = false;
+        for (Slice<T> slice : slicesList) {
+            hasNext |= slice.hasNext();
+            if (slice.hasContent()) {
+                cursorsQueue.add(new MergeCursor<>(slice.getContent()));
+            }
+        }
+        List<T> mergedList = new ArrayList<>(limit);
+        while (!cursorsQueue.isEmpty() && mergedList.size() < limit) {
+            MergeCursor<T> cursor = cursorsQueue.poll();
+            mergedList.add(cursor.current());
+            if (cursor.advance()) {
+                cursorsQueue.add(cursor);
+            }
+        }
+        return new SliceImpl<>(mergedList, PageRequest.of(0, limit), hasNext || !cursorsQueue.isEmpty());
+    }
+
+    private static List<UserLookup> toLookupsList(String email, String phoneNumber, int shardIndex) {
+        List<UserLookup> lookupsList = new ArrayList<>(2);
+        if (email != null) {
+            lookupsList.add(new UserLookup(UserLookup.emailKey(email), shardIndex));
+        }
+        if (phoneNumber != null) {
+            lookupsList.add(new UserLookup(UserLookup.phoneNumberKey(phoneNumber), shardIndex));
+        }
+        return lookupsList;
+    }
+
+    /**
+     * Claims the new email and phone number of a user, if they change, before the update and releases the old
+     * ones after it.
+     */
+    private User changeUniqueValues(User currentUser, String email, String phoneNumber, Supplier<User> update) {
+        int shardIndex = ShardedIdGenerator.shardOf(currentUser.getId());
+        List<UserLookup> claimedList = toLookupsList(Objects.equals(email, currentUser.getEmail()) ? null : email,
+                Objects.equals(phoneNumber, currentUser.getPhoneNumber()) ? null : phoneNumber, shardIndex);
+        if (claimedList.isEmpty()) {
+            return update.get();
+        }
+        claim(claimedList);
+        User updatedUser = releaseOnFailure(claimedList, update);
+        List<String> releasedKeysList = new ArrayList<>(2);
+        if (!Objects.equals(updatedUser.getEmail(), currentUser.getEmail())) {
+            releasedKeysList.add(UserLookup.emailKey(currentUser.getEmail()));
+        }
+        if (!Objects.equals(updatedUser.getPhoneNumber(), currentUser.getPhoneNumber())) {
+            releasedKeysList.add(UserLookup.phoneNumberKey(currentUser.getPhoneNumber()));
+        }
+        userLookupRepository.deleteAllByIdInBatch(releasedKeysList);
+        return updatedUser;
+    }
+
+    private void claim(List<UserLookup> lookupsList) {
+        try {
+            userLookupRepository.saveAllAndFlush(lookupsList);
+        } catch (DataIntegrityViolationException exception) {
+            String takenValue = lookupsList.stream()
+                    .filter(lookup -> userLookupRepository.existsById(lookup.getLookupKey()))
+                    .map(UserLookup::describe)
+                    .findFirst()
+                    .orElse("the same email or phone number");
+            throw new UserAlreadyExistsException("User with " + takenValue + " already exists");
+        }
+    }
+
+    private <T> T releaseOnFailure(List<UserLookup> lookupsList, Supplier<T> write) {
+        try {
+            return write.get();
+        } catch (RuntimeException exception) {
+            userLookupRepository.deleteAllByIdInBatch(lookupsList.stream()
+                    .map(UserLookup::getLookupKey)
+                    .collect(Collectors.toList()));
+            throw exception;
+        }
+    }
+
+    private static final class MergeCursor<T> {
+
+        private final List<T> itemsList;
+        private int position;
+
+        private MergeCursor(List<T> itemsList) {
+            this.itemsList = itemsList;
+        }
+
+        private T current() {
+            return itemsList.get(position);
+        }
+
+        private boolean advance() {
+            return ++position < itemsList.size();
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.gmail.voronovskyi.yaroslav.demo.service.impl;
+
+import com.gmail.voronovskyi.yaroslav.demo.model.UserChange;
+import com.gmail.voronovskyi.yaroslav.demo.repository.IUserChangeRepository;
+import com.gmail.voronovskyi.yaroslav.demo.service.IUserChangeFeed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Change log for /users/changes; one poller thread serves all waiting consumers. Changes are served only up to a
+ * missing id until the change after it is {@code gap-timeout-millis} old. Writes time out after
+ * {@code transaction-timeout-seconds}, which must be shorter, so a change is not committed after its gap is skipped.
+ */
+@Component
+@ConditionalOnProperty(name = "application.sharding.enabled", havingValue = "false", matchIfMissing = true)
+public class UserChangeFeed implements IUserChangeFeed {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(UserChangeFeed.class);
+    private static final long PRUNE_INTERVAL_MINUTES = 60;
+    private final IUserChangeRepository userChangeRepository;
+    private final Duration gapTimeout;
+    private final Duration retention;
+    private final int maxBatchSize;
+    private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+    private final ScheduledExecutorService poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "user-change-poller");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ExecutorService deliveryExecutor =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("user-change-delivery-", 0).factory());
+
+    @Autowired
+    public UserChangeFeed(IUserChangeRepository userChangeRepository,
+                          @Value("${application.changes.poll-interval-millis}") long pollIntervalMillis,
+                          @Value("${application.changes.gap-timeout-millis}") long gapTimeoutMillis,
+                          @Value("${application.changes.transaction-timeout-seconds}") long transactionTimeoutSeconds,
+                          @Value("${application.changes.retention-days}") long retentionDays,
+                          @Value("${application.page.max.limit}") int maxBatchSize) {
+        if (transactionTimeoutSeconds < 1 || TimeUnit.SECONDS.toMillis(transactionTimeoutSeconds) >= gapTimeoutMillis) {
+            throw new IllegalArgumentException("Transaction timeout must be at least 1 second and shorter than the gap timeout");
+        }
+        this.userChangeRepository = userChangeRepository;
+        this.gapTimeout = Duration.ofMillis(gapTimeoutMillis);
+        this.retention = Duration.ofDays(retentionDays);
+        this.maxBatchSize = maxBatchSize;
+        poller.scheduleWithFixedDelay(this::serveWaiters, pollIntervalMillis, pollIntervalMillis, TimeUnit.MILLISECONDS);
+        poller.scheduleWithFixedDelay(this::pruneChanges, 0, PRUNE_INTERVAL_MINUTES, TimeUnit.MINUTES);
+    }
+
+    @Override
+    public List<UserChange> getChanges(long afterId, int limit) {
+        LOGGER.debug("Try get {} user changes after id {} from DB", limit, afterId);
+        List<UserChange> changesList = userChangeRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, limit));
+        Instant gapDeadline = Instant.now().minus(gapTimeout);
+        long expectedId = afterId + 1;
+        for (int i = 0; i < changesList.size(); i++) {
+            UserChange change = changesList.get(i);
+            if (change.getId() != expectedId && change.getChangedAt().isAfter(gapDeadline)) {
+                LOGGER.debug("User change {} is not committed yet, holding back {} changes", expectedId, changesList.size() - i);
+                return List.copyOf(changesList.subList(0, i));
+            }
+            expectedId = change.getId() + 1;
+        }
+        return changesList;
+    }
+
+    /**
+     * Completes on a delivery thread; cancel the future to stop waiting.
+     */
+    @Override
+    public CompletableFuture<List<UserChange>> awaitChanges(long afterId, int limit) {
+        Waiter waiter = new Waiter(afterId, limit);
+        deliveryExecutor.execute(() -> {
+            try {
+                List<UserChange> changesList = getChanges(afterId, limit);
+                if (changesList.isEmpty()) {
+                    waiters.add(waiter);
+                } else {
+                    waiter.result.complete(changesList);
+                }
+            } catch (RuntimeException exception) {
+                waiter.result.completeExceptionally(exception);
+            }
+        });
+        return waiter.result;
+    }
+
+    @PreDestroy
+    public void close() {
+        poller.shutdownNow();
+        deliveryExecutor.shutdown();
+        waiters.forEach(waiter -> waiter.result.complete(List.of()));
+    }
+
+    private void serveWaiters() {
+        waiters.removeIf(waiter -> waiter.result.isDone());
+        if (waiters.isEmpty()) {
+            return;
+        }
+        long afterId = waiters.stream().mapToLong(waiter -> waiter.afterId).min().getAsLong();
+        List<UserChange> changesList;
+        try {
+            changesList = getChanges(afterId, maxBatchSize);
+        } catch (RuntimeException exception) {
+            LOGGER.warn("Could not read user changes after id {}", afterId, exception);
+            return;
+        }
+        if (changesList.isEmpty()) {
+            return;
+        }
+        for (Iterator<Waiter> iterator = waiters.iterator(); iterator.hasNext(); ) {
+            Waiter waiter = iterator.next();
+            List<UserChange> waiterChangesList = changesList.stream()
+                    .filter(change -> change.getId() > waiter.afterId)
+                    .limit(waiter.limit)
+                    .collect(Collectors.toList());
+            if (!waiterChangesList.isEmpty()) {
+                iterator.remove();
+                deliveryExecutor.execute(() -> waiter.result.complete(waiterChangesList));
+            }
+        }
+    }
+
+    private void pruneChanges() {
+        try {
+            int deletedCount = userChangeRepository.deleteByChangedAtBefore(Instant.now().minus(retention));
+            LOGGER.debug("{} user changes older than {} were deleted", deletedCount, retention);
+        } catch (RuntimeException exception) {
+            LOGGER.warn("Could not delete old user changes", exception);
+        }
+    }
+
+    private static final class Waiter {
+
+        private final long afterId;
+        private final int limit;
+        private final CompletableFuture<List<UserChange>> result = new CompletableFuture<>();
+
+        private Waiter(long afterId, int limit) {
+            this.afterId = afterId;
+            this.limit = limit;
+        }
+    }
+}
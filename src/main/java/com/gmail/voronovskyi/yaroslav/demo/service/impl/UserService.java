@@ -1,84 +1,347 @@
 package com.gmail.voronovskyi.yaroslav.demo.service.impl;
 
+import com.gmail.voronovskyi.yaroslav.demo.controller.exception.NotValidRequestException;
+import com.gmail.voronovskyi.yaroslav.demo.controller.exception.UserAlreadyExistsException;
+import com.gmail.voronovskyi.yaroslav.demo.controller.exception.UserNotFoundException;
+import com.gmail.voronovskyi.yaroslav.demo.model.IUserVersion;
 import com.gmail.voronovskyi.yaroslav.demo.model.User;
+import com.gmail.voronovskyi.yaroslav.demo.model.UserChange;
+import com.gmail.voronovskyi.yaroslav.demo.repository.IUserChangeRepository;
 import com.gmail.voronovskyi.yaroslav.demo.repository.IUserRepository;
 import com.gmail.voronovskyi.yaroslav.demo.service.IUserService;
+import com.gmail.voronovskyi.yaroslav.demo.service.IUserTextIndex;
+import com.gmail.voronovskyi.yaroslav.demo.service.IUserUniquenessFilter;
+import io.micrometer.core.annotation.Timed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import javax.persistence.EntityNotFoundException;
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaUpdate;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
 import java.time.LocalDate;
+import java.time.MonthDay;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 @Service
+@Timed(UserService.SERVICE_TIMER)
 public class UserService implements IUserService {
 
+    public static final String USERS_CACHE = "users";
+    public static final String SERVICE_TIMER = "users.service";
+    /**
+     * Writes log a change, so they must commit before the change feed gives up waiting for their change id.
+     */
+    public static final String WRITE_TIMEOUT = "${application.changes.transaction-timeout-seconds}";
     private static final Logger LOGGER = LoggerFactory.getLogger(UserService.class);
+    private static final int REGISTRATION_FLUSH_SIZE = 1000;
+    private static final String ID = "id";
+    private static final String VERSION = "version";
+    private static final String BIRTH_DATE = "birthDate";
+    private static final String BIRTH_MONTH_DAY = "birthMonthDay";
+    private static final int LAST_MONTH_DAY = User.toBirthMonthDay(MonthDay.of(12, 31));
     private final IUserRepository userRepository;
+    private final EntityManager entityManager;
+    private final IUserUniquenessFilter uniquenessFilter;
+    private final IUserTextIndex textIndex;
+    private final IUserChangeRepository userChangeRepository;
 
     @Autowired
-    public UserService(IUserRepository userRepository) {
+    public UserService(IUserRepository userRepository, EntityManager entityManager, IUserUniquenessFilter uniquenessFilter,
+                       IUserTextIndex textIndex, IUserChangeRepository userChangeRepository) {
         this.userRepository = userRepository;
+        this.userChangeRepository = userChangeRepository;
+        this.entityManager = entityManager;
+        this.uniquenessFilter = uniquenessFilter;
+        this.textIndex = textIndex;
     }
 
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = USERS_CACHE, key = "#userId")
     public User getUserBuId(long userId) {
         LOGGER.debug("Try get user wih id {} from DB", userId);
-        return userRepository.getReferenceById(userId);
+        return userRepository.findUserById(userId)
+                .orElseThrow(() -> new UserNotFoundException(userId));
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<User> getAllUsers() {
-        LOGGER.debug("Try get all users from DB");
-        List<User> usersList = userRepository.findAll();
-        if (usersList.isEmpty()) {
-            throw new EntityNotFoundException("Users not fount!");
-        }
-        LOGGER.debug("All users was successfully got from DB");
-        return usersList;
+    public long getUserVersion(long userId) {
+        LOGGER.debug("Try get version of user wih id {} from DB", userId);
+        return userRepository.findVersionById(userId)
+                .orElseThrow(() -> new UserNotFoundException(userId));
     }
 
+    /**
+     * Version read in a read-write transaction, so it comes from the primary and not from a lagging replica.
+     */
     @Override
     @Transactional
+    public long getPrimaryUserVersion(long userId) {
+        LOGGER.debug("Try get version of user wih id {} from primary DB", userId);
+        return userRepository.findVersionById(userId)
+                .orElseThrow(() -> new UserNotFoundException(userId));
+    }
+
+    /**
+     * Users with the given ids in the same order, skipping ids that are not in DB.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<User> getUsersByIds(List<Long> userIds) {
+        LOGGER.debug("Try get {} users by ids from DB", userIds.size());
+        if (userIds.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, User> usersById = userRepository.findAllById(userIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        return userIds.stream()
+                .map(usersById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<User> getAllUsers(long afterId, int limit) {
+        LOGGER.debug("Try get {} users after id {} from DB", limit, afterId);
+        if (limit < 1) {
+            throw new NotValidRequestException("Limit must be greater than 0");
+        }
+        Slice<User> usersSlice = userRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, limit));
+        LOGGER.debug("Users after id {} was successfully got from DB", afterId);
+        return usersSlice;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<IUserVersion> getAllUserVersions(long afterId, int limit) {
+        LOGGER.debug("Try get versions of {} users after id {} from DB", limit, afterId);
+        if (limit < 1) {
+            throw new NotValidRequestException("Limit must be greater than 0");
+        }
+        return userRepository.findVersionsByIdGreaterThan(afterId, PageRequest.of(0, limit));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportUsers(Consumer<User> userConsumer) {
+        LOGGER.debug("Try export all users from DB");
+        try (Stream<User> usersStream = userRepository.streamAllByOrderByIdAsc()) {
+            usersStream.forEach(user -> {
+                userConsumer.accept(user);
+                entityManager.detach(user);
+            });
+        }
+        LOGGER.debug("All users was successfully exported from DB");
+    }
+
+    @Override
+    @Transactional(timeoutString = WRITE_TIMEOUT)
+    @CachePut(cacheNames = USERS_CACHE, key = "#result.id")
     public User registerUser(User user) {
         LOGGER.debug("Try register new user and save in DB");
-        return userRepository.save(user);
+        if (uniquenessFilter.mightContainEmail(user.getEmail()) && userRepository.existsByEmail(user.getEmail())) {
+            throw new UserAlreadyExistsException("User with email " + user.getEmail() + " already exists");
+        }
+        if (uniquenessFilter.mightContainPhoneNumber(user.getPhoneNumber()) && userRepository.existsByPhoneNumber(user.getPhoneNumber())) {
+            throw new UserAlreadyExistsException("User with phone number " + user.getPhoneNumber() + " already exists");
+        }
+        User registeredUser = userRepository.save(user);
+        userChangeRepository.save(new UserChange(registeredUser.getId(), UserChange.Type.CREATED, registeredUser.getVersion()));
+        uniquenessFilter.put(registeredUser);
+        afterCommit(() -> textIndex.put(registeredUser));
+        return registeredUser;
     }
 
+    /**
+     * Writes only the changed columns with one UPDATE, conditional on the expected version when there is one.
+     */
     @Override
-    @Transactional
+    @Transactional(timeoutString = WRITE_TIMEOUT)
+    @CachePut(cacheNames = USERS_CACHE, key = "#userId")
+    public User patchUser(long userId, Map<String, Object> changes, Long expectedVersion) {
+        LOGGER.debug("Try update fields {} of user wih id {} in DB", changes.keySet(), userId);
+        int updatedCount = 0;
+        if (!changes.isEmpty()) {
+            CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+            CriteriaUpdate<User> update = criteriaBuilder.createCriteriaUpdate(User.class);
+            Root<User> root = update.from(User.class);
+            changes.forEach((field, value) -> update.set(root.get(field), value));
+            if (changes.containsKey(BIRTH_DATE)) {
+                update.set(root.get(BIRTH_MONTH_DAY), User.toBirthMonthDay((LocalDate) changes.get(BIRTH_DATE)));
+            }
+            update.set(root.<Long>get(VERSION), criteriaBuilder.sum(root.<Long>get(VERSION), 1L));
+            Predicate predicate = criteriaBuilder.equal(root.get(ID), criteriaBuilder.parameter(Long.class, ID));
+            if (expectedVersion != null) {
+                predicate = criteriaBuilder.and(predicate,
+                        criteriaBuilder.equal(root.get(VERSION), criteriaBuilder.parameter(Long.class, VERSION)));
+            }
+            Query query = entityManager.createQuery(update.where(predicate)).setParameter(ID, userId);
+            if (expectedVersion != null) {
+                query.setParameter(VERSION, expectedVersion);
+            }
+            updatedCount = query.executeUpdate();
+        }
+        User user = userRepository.findUserById(userId)
+                .orElseThrow(() -> new UserNotFoundException(userId));
+        if (updatedCount == 0 && expectedVersion != null && user.getVersion() != expectedVersion) {
+            throw new ObjectOptimisticLockingFailureException(User.class, userId);
+        }
+        if (updatedCount > 0) {
+            userChangeRepository.save(new UserChange(userId, UserChange.Type.UPDATED, user.getVersion()));
+        }
+        uniquenessFilter.put(user);
+        afterCommit(() -> textIndex.put(user));
+        LOGGER.debug("Fields {} of user wih id {} was successfully updated in DB", changes.keySet(), userId);
+        return user;
+    }
+
+    @Override
+    @Transactional(timeoutString = WRITE_TIMEOUT)
+    public List<User> registerUsers(List<User> usersList) {
+        LOGGER.debug("Try register {} new users and save in DB", usersList.size());
+        for (int i = 0; i < usersList.size(); i++) {
+            userRepository.save(usersList.get(i));
+            userChangeRepository.save(new UserChange(usersList.get(i).getId(), UserChange.Type.CREATED, usersList.get(i).getVersion()));
+            uniquenessFilter.put(usersList.get(i));
+            if ((i + 1) % REGISTRATION_FLUSH_SIZE == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        afterCommit(() -> usersList.forEach(textIndex::put));
+        LOGGER.debug("{} new users was registered", usersList.size());
+        return usersList;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<User> findUsersByEmailsOrPhoneNumbers(Collection<String> emails, Collection<String> phoneNumbers) {
+        LOGGER.debug("Try get users by {} emails and {} phone numbers from DB", emails.size(), phoneNumbers.size());
+        if (emails.isEmpty() && phoneNumbers.isEmpty()) {
+            return List.of();
+        }
+        return userRepository.findByEmailInOrPhoneNumberIn(emails, phoneNumbers);
+    }
+
+    @Override
+    @Transactional(timeoutString = WRITE_TIMEOUT)
+    @CachePut(cacheNames = USERS_CACHE, key = "#user.id")
     public User updateUser(User user) {
         LOGGER.debug("Try update user wih id {} from DB", user.getId());
-        return userRepository.save(user);
+        User updatedUser = userRepository.saveAndFlush(user);
+        userChangeRepository.save(new UserChange(updatedUser.getId(), UserChange.Type.UPDATED, updatedUser.getVersion()));
+        uniquenessFilter.put(updatedUser);
+        afterCommit(() -> textIndex.put(updatedUser));
+        return updatedUser;
     }
 
     @Override
-    @Transactional
+    @Transactional(timeoutString = WRITE_TIMEOUT)
+    @CacheEvict(cacheNames = USERS_CACHE, key = "#userId")
     public void deleteUser(long userId) {
         LOGGER.debug("Try delete user wih id {} from DB", userId);
-        try {
-            userRepository.deleteById(userId);
-        } catch (EmptyResultDataAccessException exception) {
-            throw new EntityNotFoundException("User with id " + userId + " does not exist or has been deleted");
+        if (userRepository.deleteUserById(userId) == 0) {
+            throw new UserNotFoundException(userId);
         }
+        userChangeRepository.save(new UserChange(userId, UserChange.Type.DELETED, null));
+        afterCommit(() -> textIndex.remove(userId));
         LOGGER.debug("User wih id {} was successfully deleted from DB", userId);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<User> findUsersByBirthDate(LocalDate fromDate, LocalDate toDate) {
-        LOGGER.debug("Try get users by birth date range from DB");
-        List<User> usersList = userRepository.findByBirthDateBetweenOrderByBirthDateAsc(fromDate, toDate);
-        if (usersList.isEmpty()) {
-            throw new EntityNotFoundException("Users not fount!");
+    public Slice<User> findUsersByBirthDate(LocalDate fromDate, LocalDate toDate, LocalDate afterBirthDate, long afterId, int limit) {
+        LOGGER.debug("Try get {} users by birth date range after {} and id {} from DB", limit, afterBirthDate, afterId);
+        if (limit < 1) {
+            throw new NotValidRequestException("Limit must be greater than 0");
         }
+        Slice<User> usersSlice = afterBirthDate == null || afterBirthDate.isBefore(fromDate)
+                ? userRepository.findByBirthDateBetweenOrderByBirthDateAscIdAsc(fromDate, toDate, PageRequest.of(0, limit))
+                : userRepository.findByBirthDateAfterCursor(afterBirthDate, afterId, toDate, PageRequest.of(0, limit));
         LOGGER.debug("Users by birth date range was successfully got from DB");
-        return usersList;
+        return usersSlice;
+    }
+
+    /**
+     * A window that wraps over New Year is read as two index ranges.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<User> findUsersByBirthday(MonthDay fromMonthDay, MonthDay toMonthDay, MonthDay afterMonthDay, long afterId,
+                                           int limit) {
+        LOGGER.debug("Try get {} users with birthday from {} to {} after {} and id {} from DB", limit, fromMonthDay, toMonthDay,
+                afterMonthDay, afterId);
+        if (limit < 1) {
+            throw new NotValidRequestException("Limit must be greater than 0");
+        }
+        int from = User.toBirthMonthDay(fromMonthDay);
+        int to = User.toBirthMonthDay(toMonthDay);
+        int after = afterMonthDay == null ? from : User.toBirthMonthDay(afterMonthDay);
+        long afterUserId = afterMonthDay == null ? 0 : afterId;
+        if (from <= to) {
+            return after < from
+                    ? userRepository.findByBirthMonthDayAfterCursor(from, 0, to, PageRequest.of(0, limit))
+                    : userRepository.findByBirthMonthDayAfterCursor(after, afterUserId, to, PageRequest.of(0, limit));
+        }
+        List<User> usersList = new ArrayList<>(limit);
+        if (after >= from) {
+            Slice<User> yearEndSlice = userRepository.findByBirthMonthDayAfterCursor(after, afterUserId, LAST_MONTH_DAY,
+                    PageRequest.of(0, limit));
+            if (yearEndSlice.hasNext()) {
+                return yearEndSlice;
+            }
+            usersList.addAll(yearEndSlice.getContent());
+            after = 0;
+            afterUserId = 0;
+        }
+        int remaining = limit - usersList.size();
+        Slice<User> yearStartSlice = userRepository.findByBirthMonthDayAfterCursor(after, afterUserId, to,
+                PageRequest.of(0, Math.max(remaining, 1)));
+        if (remaining == 0) {
+            return new SliceImpl<>(usersList, PageRequest.of(0, limit), yearStartSlice.hasContent());
+        }
+        usersList.addAll(yearStartSlice.getContent());
+        return new SliceImpl<>(usersList, PageRequest.of(0, limit), yearStartSlice.hasNext());
+    }
+
+    /**
+     * Runs the action once the current transaction commits, so a rolled back change never reaches the text index.
+     */
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
     }
 }
@@ -0,0 +1,221 @@
+package com.gmail.voronovskyi.yaroslav.demo.service.impl;
+
+import com.gmail.voronovskyi.yaroslav.demo.model.User;
+import com.gmail.voronovskyi.yaroslav.demo.service.IUserService;
+import com.gmail.voronovskyi.yaroslav.demo.service.IUserTextIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Trigram index over the words of the first names, last names and emails of all users, so they can be found
+ * by a prefix, a part or a misspelling of a word without a query. A user matches a query word with score 1 when
+ * one of its words equals it, 0.9 when one starts with it, 0.75 when one contains it and otherwise with the
+ * trigram similarity of its closest word; the score of a user is the average over the query words. Built from
+ * {@link IUserService#exportUsers} once the application is ready and kept up to date by {@link UserService}
+ * writes; rows written to DB by others are only picked up on the next start.
+ */
+@Component
+public class UserTextIndex implements IUserTextIndex {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(UserTextIndex.class);
+    private static final Pattern WORD_SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final double EXACT_SCORE = 1.0;
+    private static final double PREFIX_SCORE = 0.9;
+    private static final double SUBSTRING_SCORE = 0.75;
+    private static final Comparator<ScoredUser> BY_SCORE = Comparator.comparingDouble(ScoredUser::score)
+            .thenComparing(Comparator.comparingLong(ScoredUser::userId).reversed());
+    private final ObjectProvider<IUserService> userService;
+    private final double minSimilarity;
+    private final Map<String, Set<Long>> userIdsByTrigram = new ConcurrentHashMap<>();
+    private final Map<Long, String[]> wordsByUserId = new ConcurrentHashMap<>();
+
+    @Autowired
+    public UserTextIndex(ObjectProvider<IUserService> userService,
+                         @Value("${application.text-search.min-similarity}") double minSimilarity) {
+        this.userService = userService;
+        this.minSimilarity = minSimilarity;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        LOGGER.debug("Try build text index from DB");
+        AtomicLong indexedCount = new AtomicLong();
+        userService.getObject().exportUsers(user -> {
+            wordsByUserId.computeIfAbsent(user.getId(), userId -> addTrigrams(userId, toWords(user)));
+            indexedCount.incrementAndGet();
+        });
+        LOGGER.debug("Text index was successfully built from {} users, {} trigrams", indexedCount.get(), userIdsByTrigram.size());
+    }
+
+    /**
+     * Ids of the best {@code limit} users for the query, best first.
+     */
+    @Override
+    public List<Long> search(String query, int limit) {
+        String[] queryWords = toWords(query);
+        if (queryWords.length == 0) {
+            return List.of();
+        }
+        Map<Long, Integer> sharedTrigramsCounts = new HashMap<>();
+        int queryTrigramsCount = 0;
+        for (String queryWord : queryWords) {
+            Set<String> trigrams = trigrams(queryWord);
+            queryTrigramsCount += trigrams.size();
+            for (String trigram : trigrams) {
+                userIdsByTrigram.getOrDefault(trigram, Set.of())
+                        .forEach(userId -> sharedTrigramsCounts.merge(userId, 1, Integer::sum));
+            }
+        }
+        double minSharedTrigrams = minSimilarity * queryTrigramsCount;
+        PriorityQueue<ScoredUser> bestUsers = new PriorityQueue<>(limit + 1, BY_SCORE);
+        sharedTrigramsCounts.forEach((userId, sharedTrigramsCount) -> {
+            String[] words = wordsByUserId.get(userId);
+            if (sharedTrigramsCount < minSharedTrigrams || words == null) {
+                return;
+            }
+            double score = score(queryWords, words);
+            if (score >= minSimilarity) {
+                bestUsers.add(new ScoredUser(userId, score));
+                if (bestUsers.size() > limit) {
+                    bestUsers.poll();
+                }
+            }
+        });
+        List<Long> userIdsList = new ArrayList<>(bestUsers.size());
+        while (!bestUsers.isEmpty()) {
+            userIdsList.add(bestUsers.poll().userId());
+        }
+        Collections.reverse(userIdsList);
+        return userIdsList;
+    }
+
+    @Override
+    public void put(User user) {
+        String[] words = toWords(user);
+        wordsByUserId.compute(user.getId(), (userId, oldWords) -> {
+            if (oldWords != null) {
+                removeTrigrams(userId, oldWords);
+            }
+            return addTrigrams(userId, words);
+        });
+    }
+
+    @Override
+    public void remove(long userId) {
+        wordsByUserId.computeIfPresent(userId, (id, oldWords) -> {
+            removeTrigrams(id, oldWords);
+            return null;
+        });
+    }
+
+    private String[] addTrigrams(long userId, String[] words) {
+        for (String word : words) {
+            trigrams(word).forEach(trigram -> userIdsByTrigram.computeIfAbsent(trigram, key -> ConcurrentHashMap.newKeySet())
+                    .add(userId));
+        }
+        return words;
+    }
+
+    private void removeTrigrams(long userId, String[] words) {
+        for (String word : words) {
+            trigrams(word).forEach(trigram -> {
+                Set<Long> userIds = userIdsByTrigram.get(trigram);
+                if (userIds != null) {
+                    userIds.remove(userId);
+                }
+            });
+        }
+    }
+
+    private static double score(String[] queryWords, String[] words) {
+        double totalScore = 0;
+        for (String queryWord : queryWords) {
+            double bestScore = 0;
+            for (String word : words) {
+                bestScore = Math.max(bestScore, score(queryWord, word));
+            }
+            totalScore += bestScore;
+        }
+        return totalScore / queryWords.length;
+    }
+
+    private static double score(String queryWord, String word) {
+        if (word.equals(queryWord)) {
+            return EXACT_SCORE;
+        }
+        if (word.startsWith(queryWord)) {
+            return PREFIX_SCORE;
+        }
+        if (word.contains(queryWord)) {
+            return SUBSTRING_SCORE;
+        }
+        Set<String> queryTrigrams = trigrams(queryWord);
+        Set<String> trigrams = trigrams(word);
+        int unionCount = queryTrigrams.size() + trigrams.size();
+        queryTrigrams.retainAll(trigrams);
+        return (double) queryTrigrams.size() / (unionCount - queryTrigrams.size());
+    }
+
+    /**
+     * Trigrams of the word padded with two spaces in front and one behind, so the first letters weigh most.
+     */
+    private static Set<String> trigrams(String word) {
+        String padded = "  " + word + " ";
+        Set<String> trigrams = new HashSet<>(padded.length());
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            trigrams.add(padded.substring(i, i + 3));
+        }
+        return trigrams;
+    }
+
+    private static String[] toWords(User user) {
+        return toWords(user.getFirstName() + " " + user.getLastName() + " " + user.getEmail());
+    }
+
+    private static String[] toWords(String text) {
+        return Arrays.stream(WORD_SEPARATORS.split(text.toLowerCase(Locale.ROOT)))
+                .filter(word -> !word.isEmpty())
+                .distinct()
+                .toArray(String[]::new);
+    }
+
+    private static final class ScoredUser {
+
+        private final long userId;
+        private final double score;
+
+        private ScoredUser(long userId, double score) {
+            this.userId = userId;
+            this.score = score;
+        }
+
+        private long userId() {
+            return userId;
+        }
+
+        private double score() {
+            return score;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.gmail.voronovskyi.yaroslav.demo.service.impl;
+
+import com.gmail.voronovskyi.yaroslav.demo.model.User;
+import com.gmail.voronovskyi.yaroslav.demo.repository.IUserRepository;
+import com.gmail.voronovskyi.yaroslav.demo.service.IUserUniquenessFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.stream.Stream;
+
+/**
+ * Bloom filters of the emails and phone numbers already taken. A miss means the value is definitely free,
+ * so registration can skip the existence query; a hit has to be confirmed by DB. Until the filters are warmed
+ * up from DB every value is reported as a possible hit. Values are never removed, so deleted or changed users
+ * only cost an extra confirm query. Rows written by other application instances are not seen: for those the
+ * unique constraints remain the last line of defence.
+ */
+@Component
+public class UserUniquenessFilter implements IUserUniquenessFilter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(UserUniquenessFilter.class);
+    private final IUserRepository userRepository;
+    private final BloomFilter emailsFilter;
+    private final BloomFilter phoneNumbersFilter;
+    private volatile boolean warmedUp;
+
+    @Autowired
+    public UserUniquenessFilter(IUserRepository userRepository,
+                                @Value("${application.uniqueness-filter.expected-insertions}") long expectedInsertions,
+                                @Value("${application.uniqueness-filter.false-positive-rate}") double falsePositiveRate) {
+        this.userRepository = userRepository;
+        this.emailsFilter = new BloomFilter(expectedInsertions, falsePositiveRate);
+        this.phoneNumbersFilter = new BloomFilter(expectedInsertions, falsePositiveRate);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void warmUp() {
+        LOGGER.debug("Try warm up uniqueness filter from DB");
+        try (Stream<String> emailsStream = userRepository.streamAllEmails()) {
+            emailsStream.forEach(emailsFilter::put);
+        }
+        try (Stream<String> phoneNumbersStream = userRepository.streamAllPhoneNumbers()) {
+            phoneNumbersStream.forEach(phoneNumbersFilter::put);
+        }
+        warmedUp = true;
+        LOGGER.debug("Uniqueness filter was successfully warmed up");
+    }
+
+    @Override
+    public boolean mightContainEmail(String email) {
+        return !warmedUp || emailsFilter.mightContain(email);
+    }
+
+    @Override
+    public boolean mightContainPhoneNumber(String phoneNumber) {
+        return !warmedUp || phoneNumbersFilter.mightContain(phoneNumber);
+    }
+
+    @Override
+    public void put(User user) {
+        if (user.getEmail() != null) {
+            emailsFilter.put(user.getEmail());
+        }
+        if (user.getPhoneNumber() != null) {
+            phoneNumbersFilter.put(user.getPhoneNumber());
+        }
+    }
+}
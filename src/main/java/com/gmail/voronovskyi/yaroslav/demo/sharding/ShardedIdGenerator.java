@@ -0,0 +1,46 @@
+package com.gmail.voronovskyi.yaroslav.demo.sharding;
+
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.io.Serializable;
+import java.util.Properties;
+
+/**
+ * Sequence generator that stores the shard of a user in the low {@value #SHARD_BITS} bits of its id, so any id
+ * can be routed without a lookup. The shard index comes from the {@value #SHARD_INDEX_SETTING} setting of the
+ * persistence unit; without it ids are plain sequence values.
+ */
+public class ShardedIdGenerator extends SequenceStyleGenerator {
+
+    public static final String SHARD_INDEX_SETTING = "application.sharding.shard-index";
+    public static final int SHARD_BITS = 10;
+    public static final int MAX_SHARDS = 1 << SHARD_BITS;
+    private int shardIndex = -1;
+
+    public static long toShardedId(long sequenceValue, int shardIndex) {
+        return sequenceValue << SHARD_BITS | shardIndex;
+    }
+
+    public static int shardOf(long id) {
+        return (int) (id & (MAX_SHARDS - 1));
+    }
+
+    @Override
+    public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) {
+        super.configure(type, params, serviceRegistry);
+        Object setting = serviceRegistry.getService(ConfigurationService.class).getSettings().get(SHARD_INDEX_SETTING);
+        if (setting != null) {
+            shardIndex = Integer.parseInt(setting.toString());
+        }
+    }
+
+    @Override
+    public Serializable generate(SharedSessionContractImplementor session, Object object) {
+        Serializable id = super.generate(session, object);
+        return shardIndex < 0 ? id : toShardedId(((Number) id).longValue(), shardIndex);
+    }
+}
@@ -0,0 +1,59 @@
+package com.gmail.voronovskyi.yaroslav.demo.sharding;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.io.Serializable;
+
+/**
+ * Claim of an email or phone number by the shard its user lives on. Rows are only ever inserted or deleted,
+ * so the primary key makes every value unique across all shards.
+ */
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "user_lookup")
+public class UserLookup implements Serializable, Persistable<String> {
+
+    private static final long serialVersionUID = 1L;
+    private static final String EMAIL_PREFIX = "email:";
+    private static final String PHONE_NUMBER_PREFIX = "phone:";
+
+    @Id
+    @Column(nullable = false, length = 320)
+    private String lookupKey;
+
+    @Column(nullable = false)
+    private int shardIndex;
+
+    public static String emailKey(String email) {
+        return EMAIL_PREFIX + email;
+    }
+
+    public static String phoneNumberKey(String phoneNumber) {
+        return PHONE_NUMBER_PREFIX + phoneNumber;
+    }
+
+    public String describe() {
+        return lookupKey.startsWith(EMAIL_PREFIX)
+                ? "email " + lookupKey.substring(EMAIL_PREFIX.length())
+                : "phone number " + lookupKey.substring(PHONE_NUMBER_PREFIX.length());
+    }
+
+    @Override
+    public String getId() {
+        return lookupKey;
+    }
+
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+}
@@ -0,0 +1,105 @@
+package com.gmail.voronovskyi.yaroslav.demo.sharding;
+
+import com.gmail.voronovskyi.yaroslav.demo.controller.exception.UserNotFoundException;
+import com.gmail.voronovskyi.yaroslav.demo.model.User;
+import com.gmail.voronovskyi.yaroslav.demo.service.IUserService;
+import com.zaxxer.hikari.HikariDataSource;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * The shards of the users table: per shard a transactional {@link IUserService} over its own data source and
+ * persistence unit. Queries that span shards run on a pool with one thread per pooled shard connection.
+ */
+public class UserShards implements AutoCloseable {
+
+    private final List<IUserService> userServicesList;
+    private final List<HikariDataSource> dataSourcesList;
+    private final List<EntityManagerFactory> entityManagerFactoriesList;
+    private final List<Integer> shardIndexesList;
+    private final ExecutorService executor;
+
+    public UserShards(List<IUserService> userServicesList, List<HikariDataSource> dataSourcesList,
+                      List<EntityManagerFactory> entityManagerFactoriesList) {
+        this.userServicesList = userServicesList;
+        this.dataSourcesList = dataSourcesList;
+        this.entityManagerFactoriesList = entityManagerFactoriesList;
+        this.shardIndexesList = IntStream.range(0, userServicesList.size()).boxed().collect(Collectors.toList());
+        this.executor = Executors.newFixedThreadPool(dataSourcesList.stream().mapToInt(HikariDataSource::getMaximumPoolSize).sum(),
+                Thread.ofPlatform().name("shard-query-", 0).daemon().factory());
+    }
+
+    public int size() {
+        return userServicesList.size();
+    }
+
+    public IUserService get(int shardIndex) {
+        return userServicesList.get(shardIndex);
+    }
+
+    public IUserService forUser(long userId) {
+        int shardIndex = ShardedIdGenerator.shardOf(userId);
+        if (userId <= 0 || shardIndex >= size()) {
+            throw new UserNotFoundException(userId);
+        }
+        return get(shardIndex);
+    }
+
+    /**
+     * Shard a new user is placed on, by the hash of its email.
+     */
+    public int shardIndexFor(User user) {
+        return Math.floorMod(user.getEmail().hashCode(), size());
+    }
+
+    public List<HikariDataSource> getDataSourcesList() {
+        return dataSourcesList;
+    }
+
+    public <T> List<T> scatter(Function<IUserService, T> task) {
+        return scatter(shardIndexesList, (shardIndex, userService) -> task.apply(userService));
+    }
+
+    /**
+     * Runs the task on the given shards in parallel and waits for all of them, so no shard is still working
+     * when the first failure is rethrown.
+     */
+    public <T> List<T> scatter(List<Integer> shardIndexes, BiFunction<Integer, IUserService, T> task) {
+        if (shardIndexes.size() == 1) {
+            return List.of(task.apply(shardIndexes.get(0), get(shardIndexes.get(0))));
+        }
+        List<CompletableFuture<T>> futuresList = shardIndexes.stream()
+                .map(shardIndex -> CompletableFuture.supplyAsync(() -> task.apply(shardIndex, get(shardIndex)), executor))
+                .collect(Collectors.toList());
+        CompletableFuture.allOf(futuresList.toArray(CompletableFuture[]::new)).exceptionally(exception -> null).join();
+        List<T> resultsList = new ArrayList<>(futuresList.size());
+        for (CompletableFuture<T> future : futuresList) {
+            try {
+                resultsList.add(future.join());
+            } catch (CompletionException exception) {
+                if (exception.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw exception;
+            }
+        }
+        return resultsList;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        entityManagerFactoriesList.forEach(EntityManagerFactory::close);
+        dataSourcesList.forEach(HikariDataSource::close);
+    }
+}
@@ -0,0 +1,90 @@
+package com.gmail.voronovskyi.yaroslav.demo.admission;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AdaptiveConcurrencyLimitTest {
+
+    private final static long TEST_FAST_LATENCY_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+    private final static long TEST_SLOW_LATENCY_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+    private final static long TEST_MEDIAN_LATENCY_NANOS = TimeUnit.MILLISECONDS.toNanos(2);
+
+    @Test
+    public void shouldRefuseRequestsAboveLimit() {
+        AdaptiveConcurrencyLimit concurrencyLimit = new AdaptiveConcurrencyLimit(2, 1, 10, 2.0);
+        assertEquals(concurrencyLimit.tryAcquire(), 1);
+        assertEquals(concurrencyLimit.tryAcquire(), 2);
+        assertEquals(concurrencyLimit.tryAcquire(), 0);
+        concurrencyLimit.release();
+        assertEquals(concurrencyLimit.tryAcquire(), 2);
+        assertEquals(concurrencyLimit.getInFlight(), 2);
+    }
+
+    @Test
+    public void shouldLowerLimitWhenLatencyGrowsAndRaiseItWhenBusyAndFast() {
+        AdaptiveConcurrencyLimit concurrencyLimit = new AdaptiveConcurrencyLimit(10, 2, 20, 2.0);
+        for (int i = 0; i < 50; i++) {
+            concurrencyLimit.release(TEST_FAST_LATENCY_NANOS, concurrencyLimit.tryAcquire() + 9);
+        }
+        int raisedLimit = concurrencyLimit.getLimit();
+        assertTrue(raisedLimit > 10);
+        for (int i = 0; i < 400; i++) {
+            concurrencyLimit.release(TEST_SLOW_LATENCY_NANOS, concurrencyLimit.tryAcquire());
+        }
+        assertTrue(concurrencyLimit.getLimit() < raisedLimit / 2);
+    }
+
+    @Test
+    public void shouldLowerLimitOncePerWindowOfSlowRequests() {
+        AdaptiveConcurrencyLimit concurrencyLimit = new AdaptiveConcurrencyLimit(10, 2, 20, 2.0);
+        for (int i = 0; i < AdaptiveConcurrencyLimit.WINDOW_SAMPLES; i++) {
+            concurrencyLimit.release(TEST_FAST_LATENCY_NANOS, concurrencyLimit.tryAcquire());
+        }
+        for (int i = 0; i < AdaptiveConcurrencyLimit.WINDOW_SAMPLES; i++) {
+            concurrencyLimit.release(TEST_SLOW_LATENCY_NANOS, concurrencyLimit.tryAcquire());
+        }
+        assertEquals(concurrencyLimit.getLimit(), 9);
+    }
+
+    @Test
+    public void shouldKeepLimitUnderJitteredLatency() {
+        AdaptiveConcurrencyLimit concurrencyLimit = new AdaptiveConcurrencyLimit(20, 1, 200, 2.0);
+        Random random = new Random(42);
+        for (int i = 0; i < 10_000; i++) {
+            long latencyNanos = (long) (TEST_MEDIAN_LATENCY_NANOS * Math.exp(0.5 * random.nextGaussian()));
+            concurrencyLimit.release(latencyNanos, concurrencyLimit.getLimit());
+        }
+        assertTrue(concurrencyLimit.getLimit() >= 20);
+    }
+
+    @Test
+    public void shouldRaiseLimitWithinBoundsUnderConcurrentSamples() throws InterruptedException {
+        AdaptiveConcurrencyLimit concurrencyLimit = new AdaptiveConcurrencyLimit(10, 2, 20, 2.0);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 8; i++) {
+            executor.execute(() -> {
+                for (int j = 0; j < 1000; j++) {
+                    concurrencyLimit.release(TEST_FAST_LATENCY_NANOS, concurrencyLimit.tryAcquire() + 20);
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(concurrencyLimit.getLimit(), 20);
+        assertEquals(concurrencyLimit.getInFlight(), 0);
+    }
+
+    @Test
+    public void shouldThrowExceptionWhenLimitsAreNotValid() {
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveConcurrencyLimit(1, 2, 10, 2.0));
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveConcurrencyLimit(5, 1, 10, 1.0));
+    }
+}
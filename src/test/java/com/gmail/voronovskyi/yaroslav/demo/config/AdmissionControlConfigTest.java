@@ -0,0 +1,59 @@
+package com.gmail.voronovskyi.yaroslav.demo.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebAppConfiguration
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = {AppConfigTest.class})
+@TestPropertySource(locations = "classpath:test.properties", properties = {"spring.datasource.url=jdbc:h2:mem:admission",
+        "application.admission.enabled=true", "application.admission.endpoints.getUserById.rate-per-second=0.5"})
+public class AdmissionControlConfigTest {
+
+    @Autowired
+    private WebApplicationContext appContext;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    public void setup() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(this.appContext).build();
+    }
+
+    @Test
+    public void shouldRefuseRequestsAboveRateWithRetryAfter() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/users/1")
+                        .accept(MediaType.APPLICATION_JSON_VALUE))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(MockMvcRequestBuilders.get("/users/1")
+                        .accept(MediaType.APPLICATION_JSON_VALUE))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "2"))
+                .andExpect(jsonPath("$.error").value(503));
+        mockMvc.perform(MockMvcRequestBuilders.get("/users?limit=1")
+                        .accept(MediaType.APPLICATION_JSON_VALUE))
+                .andExpect(status().isOk());
+        assertEquals(meterRegistry.get("users.admission.rejected").tags("endpoint", "getUserById", "reason", "rate")
+                .counter().count(), 1);
+        assertEquals(meterRegistry.get("users.admission.in.flight").tag("endpoint", "getAllUsers").gauge().value(), 0);
+    }
+}
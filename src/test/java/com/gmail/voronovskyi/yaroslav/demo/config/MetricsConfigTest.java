@@ -0,0 +1,47 @@
+package com.gmail.voronovskyi.yaroslav.demo.config;
+
+import com.gmail.voronovskyi.yaroslav.demo.DemoProjectForClearSolutionApplication;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(classes = DemoProjectForClearSolutionApplication.class, properties = "spring.datasource.url=jdbc:h2:mem:metrics")
+@AutoConfigureMockMvc
+@AutoConfigureMetrics
+public class MetricsConfigTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    public void shouldExposeEndpointServiceAndDBMetricsInPrometheusFormat() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/users/1"))
+                .andExpect(status().isNotFound());
+        String response = mockMvc.perform(MockMvcRequestBuilders.get("/actuator/prometheus"))
+                .andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+        assertTrue(containsSample(response, "http_server_requests_seconds{", "uri=\"/users/{id}\"", "quantile=\"0.999\""));
+        assertTrue(containsSample(response, "http_server_requests_seconds_bucket{", "uri=\"/users/{id}\""));
+        assertTrue(containsSample(response, "users_service_seconds{", "method=\"getUserBuId\"", "quantile=\"0.99\""));
+        assertTrue(containsSample(response, "users_service_seconds_bucket{", "method=\"getUserBuId\""));
+        assertTrue(containsSample(response, "spring_data_repository_invocations_seconds{", "method=\"findUserById\""));
+        assertTrue(containsSample(response, "hikaricp_connections_acquire_seconds{", "quantile=\"0.999\""));
+        assertTrue(containsSample(response, "hikaricp_connections_usage_seconds{"));
+        assertTrue(containsSample(response, "hikaricp_connections_pending{"));
+        assertTrue(containsSample(response, "hibernate_query_executions_total{"));
+        assertTrue(containsSample(response, "hibernate_query_executions_max_seconds{"));
+    }
+
+    private boolean containsSample(String response, String metric, String... labels) {
+        return response.lines()
+                .anyMatch(line -> line.startsWith(metric) && Arrays.stream(labels).allMatch(line::contains));
+    }
+}
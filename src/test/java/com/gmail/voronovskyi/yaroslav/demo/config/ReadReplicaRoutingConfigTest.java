@@ -0,0 +1,89 @@
+package com.gmail.voronovskyi.yaroslav.demo.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceTransactionManagerAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+public class ReadReplicaRoutingConfigTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(DataSourceAutoConfiguration.class,
+                    DataSourceTransactionManagerAutoConfiguration.class))
+            .withUserConfiguration(ReadReplicaRoutingConfig.class)
+            .withPropertyValues("spring.datasource.url=jdbc:h2:mem:config-primary;DB_CLOSE_DELAY=-1",
+                    "spring.datasource.username=H2", "spring.datasource.password=");
+
+    @Test
+    public void shouldUseSingleDataSourceByDefault() {
+        contextRunner.run(context -> {
+            assertFalse(context.containsBean("replicaDataSources"));
+            assertFalse(context.getBean(DataSource.class) instanceof LazyConnectionDataSourceProxy);
+        });
+    }
+
+    @Test
+    public void shouldRouteReadOnlyTransactionsToReplicaWhenEnabled() {
+        contextRunner.withPropertyValues("application.datasource.routing.enabled=true",
+                "application.datasource.routing.replicas[0].url=jdbc:h2:mem:config-replica;DB_CLOSE_DELAY=-1",
+                "application.datasource.routing.replicas[0].username=H2",
+                "application.datasource.routing.replicas[0].password=").run(context -> {
+            DataSource dataSource = context.getBean(DataSource.class);
+            assertInstanceOf(LazyConnectionDataSourceProxy.class, dataSource);
+            TransactionTemplate transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+            assertEquals(transactionTemplate.execute(status -> currentDatabase(dataSource)), "CONFIG-PRIMARY");
+            transactionTemplate.setReadOnly(true);
+            assertEquals(transactionTemplate.execute(status -> currentDatabase(dataSource)), "CONFIG-REPLICA");
+        });
+    }
+
+    @Test
+    public void shouldRouteWriteAfterReadOnlyTransactionInOneEntityManagerToPrimary() {
+        contextRunner.withConfiguration(AutoConfigurations.of(HibernateJpaAutoConfiguration.class))
+                .withPropertyValues("application.datasource.routing.enabled=true",
+                        "application.datasource.routing.replicas[0].url=jdbc:h2:mem:config-replica;DB_CLOSE_DELAY=-1",
+                        "application.datasource.routing.replicas[0].username=H2",
+                        "application.datasource.routing.replicas[0].password=").run(context -> {
+                    EntityManagerFactory entityManagerFactory = context.getBean(EntityManagerFactory.class);
+                    EntityManager entityManager = SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory);
+                    TransactionTemplate transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+                    TransactionTemplate readOnlyTransactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+                    readOnlyTransactionTemplate.setReadOnly(true);
+                    TransactionSynchronizationManager.bindResource(entityManagerFactory,
+                            new EntityManagerHolder(entityManagerFactory.createEntityManager()));
+                    try {
+                        assertEquals(readOnlyTransactionTemplate.execute(status -> currentDatabase(entityManager)), "CONFIG-REPLICA");
+                        assertEquals(transactionTemplate.execute(status -> currentDatabase(entityManager)), "CONFIG-PRIMARY");
+                    } finally {
+                        EntityManagerHolder entityManagerHolder =
+                                (EntityManagerHolder) TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+                        entityManagerHolder.getEntityManager().close();
+                    }
+                });
+    }
+
+    private static String currentDatabase(EntityManager entityManager) {
+        return (String) entityManager.createNativeQuery("select database()").getSingleResult();
+    }
+
+    private static String currentDatabase(DataSource dataSource) {
+        return new JdbcTemplate(dataSource).queryForObject("select database()", String.class);
+    }
+}
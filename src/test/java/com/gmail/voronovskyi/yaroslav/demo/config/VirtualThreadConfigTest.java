@@ -0,0 +1,31 @@
+package com.gmail.voronovskyi.yaroslav.demo.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+
+import java.util.concurrent.ExecutorService;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class VirtualThreadConfigTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withUserConfiguration(VirtualThreadConfig.class);
+
+    @Test
+    public void shouldNotRegisterVirtualThreadExecutorByDefault() {
+        contextRunner.run(context -> assertFalse(context.containsBean("virtualThreadProtocolHandlerCustomizer")));
+    }
+
+    @Test
+    public void shouldRunTasksOnVirtualThreadsWhenEnabled() {
+        contextRunner.withPropertyValues("application.virtual-threads.enabled=true").run(context -> {
+            assertEquals(context.getBeansOfType(TomcatProtocolHandlerCustomizer.class).size(), 1);
+            ExecutorService executor = context.getBean("virtualThreadExecutor", ExecutorService.class);
+            assertTrue(executor.submit(() -> Thread.currentThread().isVirtual()).get());
+        });
+    }
+}
@@ -1,6 +1,16 @@
 package com.gmail.voronovskyi.yaroslav.demo.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gmail.voronovskyi.yaroslav.demo.controller.exception.NotImplementedException;
+import com.gmail.voronovskyi.yaroslav.demo.controller.exception.NotValidAgeException;
+import com.gmail.voronovskyi.yaroslav.demo.controller.exception.NotValidRequestException;
+import com.gmail.voronovskyi.yaroslav.demo.controller.exception.PreconditionFailedException;
+import com.gmail.voronovskyi.yaroslav.demo.controller.rest.dto.BatchRegistrationResultDto;
 import com.gmail.voronovskyi.yaroslav.demo.controller.rest.dto.UserDto;
+import com.gmail.voronovskyi.yaroslav.demo.controller.rest.etag.IETagResolver;
+import com.gmail.voronovskyi.yaroslav.demo.controller.rest.etag.impl.ETagResolver;
+import com.gmail.voronovskyi.yaroslav.demo.controller.rest.mapper.IUserMapper;
+import com.gmail.voronovskyi.yaroslav.demo.controller.rest.mapper.impl.UserMapper;
 import com.gmail.voronovskyi.yaroslav.demo.model.User;
 import com.gmail.voronovskyi.yaroslav.demo.service.IUserService;
 import org.junit.jupiter.api.Test;
@@ -8,16 +18,31 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
-import org.modelmapper.ModelMapper;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.async.WebAsyncTask;
 
+import javax.validation.Validation;
+import javax.validation.Validator;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 
 @ExtendWith(MockitoExtension.class)
@@ -26,53 +51,232 @@ public class UsersRestControllerTest {
 
     private final static long TEST_USER_ID = 1L;
     private final static long MIN_VALID_AGE = 18L;
+    private final static int PAGE_LIMIT = 50;
+    private final static int MAX_PAGE_LIMIT = 1000;
+    private final static int MAX_BATCH_SIZE = 5000;
+    private final static long EXPORT_TIMEOUT_MINUTES = 60L;
     private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd-MM-yyyy");
 
     @Mock
     private IUserService userServiceMock;
-    @Mock
-    private ModelMapper modelMapperMock = new ModelMapper();
+    @Spy
+    private IUserMapper userMapper = new UserMapper();
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+    @Spy
+    private IETagResolver eTagResolver = new ETagResolver();
     @InjectMocks
     private UsersRestController usersRestController;
 
     @Test
     public void shouldReturnUserDtoDyoById() {
-        Mockito.when(modelMapperMock.map(any(), any())).thenReturn(createTestUserDto());
         Mockito.when(userServiceMock.getUserBuId(TEST_USER_ID)).thenReturn(createTestUser());
-        assertEquals(usersRestController.getUserById(TEST_USER_ID), createTestUserDto());
+        ResponseEntity<UserDto> response = usersRestController.getUserById(TEST_USER_ID, null);
+        assertEquals(response.getBody(), createTestUserDto());
+        assertEquals(response.getHeaders().getETag(), "\"0\"");
+    }
+
+    @Test
+    public void shouldReturnNotModifiedWhenUserETagMatches() {
+        Mockito.when(userServiceMock.getUserVersion(TEST_USER_ID)).thenReturn(3L);
+        ResponseEntity<UserDto> response = usersRestController.getUserById(TEST_USER_ID, "\"3\"");
+        assertEquals(response.getStatusCode(), HttpStatus.NOT_MODIFIED);
+        assertNull(response.getBody());
+        Mockito.verify(userServiceMock, Mockito.never()).getUserBuId(TEST_USER_ID);
+    }
+
+    @Test
+    public void shouldReturnNotModifiedWhenUsersPageETagMatches() {
+        Mockito.when(userServiceMock.getAllUsers(0L, PAGE_LIMIT)).thenReturn(new SliceImpl<>(List.of(createTestUser())));
+        Mockito.when(userServiceMock.getAllUserVersions(0L, PAGE_LIMIT)).thenReturn(new SliceImpl<>(List.of(createTestUser())));
+        String eTag = usersRestController.getAllUsers(0L, PAGE_LIMIT, MAX_PAGE_LIMIT, null).getHeaders().getETag();
+        ResponseEntity<List<UserDto>> response = usersRestController.getAllUsers(0L, PAGE_LIMIT, MAX_PAGE_LIMIT, eTag);
+        assertEquals(response.getStatusCode(), HttpStatus.NOT_MODIFIED);
+        Mockito.verify(userServiceMock).getAllUsers(0L, PAGE_LIMIT);
     }
 
     @Test
     public void shouldReturnUserDtosList() {
-        Mockito.when(modelMapperMock.map(any(), any())).thenReturn(createTestUserDto());
-        Mockito.when(userServiceMock.getAllUsers()).thenReturn(List.of(createTestUser()));
-        assertEquals(usersRestController.getAllUsers(), List.of(createTestUserDto()));
+        Mockito.when(userServiceMock.getAllUsers(0L, PAGE_LIMIT)).thenReturn(new SliceImpl<>(List.of(createTestUser())));
+        ResponseEntity<List<UserDto>> response = usersRestController.getAllUsers(0L, PAGE_LIMIT, MAX_PAGE_LIMIT, null);
+        assertEquals(response.getBody(), List.of(createTestUserDto()));
+        assertNull(response.getHeaders().getFirst(UsersRestController.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    public void shouldReturnNextCursorWhenMoreUsersExist() {
+        Mockito.when(userServiceMock.getAllUsers(0L, 1))
+                .thenReturn(new SliceImpl<>(List.of(createTestUser()), PageRequest.of(0, 1), true));
+        ResponseEntity<List<UserDto>> response = usersRestController.getAllUsers(0L, 1, MAX_PAGE_LIMIT, null);
+        assertEquals(response.getHeaders().getFirst(UsersRestController.NEXT_CURSOR_HEADER), String.valueOf(TEST_USER_ID));
+    }
+
+    @Test
+    public void shouldLimitPageSizeToMaxLimit() {
+        Mockito.when(userServiceMock.getAllUsers(0L, MAX_PAGE_LIMIT)).thenReturn(new SliceImpl<>(List.of(createTestUser())));
+        usersRestController.getAllUsers(0L, MAX_PAGE_LIMIT + 1, MAX_PAGE_LIMIT, null);
+        Mockito.verify(userServiceMock).getAllUsers(0L, MAX_PAGE_LIMIT);
+    }
+
+    @Test
+    public void shouldThrowExceptionWhenPageLimitIsNotPositive() {
+        assertThrows(NotValidRequestException.class, () -> usersRestController.getAllUsers(0L, 0, MAX_PAGE_LIMIT, null));
+        Mockito.verify(userServiceMock, Mockito.never()).getAllUsers(Mockito.anyLong(), Mockito.anyInt());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldExportUsersAsNdjson() throws Exception {
+        Mockito.doAnswer(invocation -> {
+            Consumer<User> userConsumer = invocation.getArgument(0);
+            userConsumer.accept(createTestUser());
+            userConsumer.accept(createTestUser());
+            return null;
+        }).when(userServiceMock).exportUsers(any(Consumer.class));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        WebAsyncTask<Void> exportTask = usersRestController.exportUsers(response, EXPORT_TIMEOUT_MINUTES);
+        exportTask.getCallable().call();
+        String[] lines = response.getContentAsString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(exportTask.getTimeout(), TimeUnit.MINUTES.toMillis(EXPORT_TIMEOUT_MINUTES));
+        assertEquals(response.getContentType(), MediaType.APPLICATION_NDJSON_VALUE);
+        assertEquals(lines.length, 2);
+        assertEquals(objectMapper.readValue(lines[0], UserDto.class), createTestUserDto());
+        assertEquals(objectMapper.readValue(lines[1], UserDto.class), createTestUserDto());
     }
 
     @Test
     public void shouldRegisterNewUser() {
-        Mockito.when(userServiceMock.registerUser(modelMapperMock.map(createTestUserDto(), User.class))).thenReturn(createTestUser());
-        Mockito.when(modelMapperMock.map(createTestUser(), UserDto.class)).thenReturn(createTestUserDto());
-        UserDto userDto = usersRestController.registerNewUser(createTestUserDto(), MIN_VALID_AGE);
+        Mockito.when(userServiceMock.registerUser(createTestUser())).thenReturn(createTestUser());
+        UserDto userDto = usersRestController.registerNewUser(null, createTestUserDto(), MIN_VALID_AGE);
         assertEquals(userDto, createTestUserDto());
     }
 
+    @Test
+    public void shouldRegisterValidUsersAndReportNotValidOnes() {
+        Mockito.when(userServiceMock.registerUsers(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        UserDto notValidUserDto = createTestUserDto();
+        notValidUserDto.setEmail("yaroslav.voronovskyigmail.com");
+        BatchRegistrationResultDto result = usersRestController.registerNewUsers(
+                List.of(createTestUserDto(), notValidUserDto), MIN_VALID_AGE, MAX_BATCH_SIZE);
+        assertEquals(result.getRegistered().size(), 1);
+        assertEquals(result.getRegistered().get(0).getEmail(), createTestUserDto().getEmail());
+        assertEquals(result.getErrors().size(), 1);
+        assertEquals(result.getErrors().get(0).getIndex(), 1);
+    }
+
+    @Test
+    public void shouldReportExistingUsersInBatch() {
+        Mockito.when(userServiceMock.findUsersByEmailsOrPhoneNumbers(any(), any())).thenReturn(List.of(createTestUser()));
+        BatchRegistrationResultDto result = usersRestController.registerNewUsers(
+                List.of(createTestUserDto()), MIN_VALID_AGE, MAX_BATCH_SIZE);
+        assertEquals(result.getRegistered(), List.of());
+        assertEquals(result.getErrors().get(0).getMessage(), List.of("email already exists", "phoneNumber already exists"));
+        Mockito.verify(userServiceMock).registerUsers(List.of());
+    }
+
+    @Test
+    public void shouldThrowExceptionWhenBatchIsTooLarge() {
+        assertThrows(NotValidRequestException.class, () -> usersRestController.registerNewUsers(
+                List.of(createTestUserDto(), createTestUserDto()), MIN_VALID_AGE, 1));
+    }
+
     @Test
     public void shouldUpdateUserInformation() {
-        Mockito.when(modelMapperMock.map(any(), any())).thenReturn(createTestUser());
         UserDto userDto = createTestUserDto();
         userDto.setPhoneNumber("+380976714493");
-        usersRestController.updateUser(TEST_USER_ID, userDto);
-        Mockito.verify(userServiceMock).updateUser(createTestUser());
+        Mockito.when(userServiceMock.updateUser(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        usersRestController.updateUser(TEST_USER_ID, null, null, userDto);
+        User user = createTestUser();
+        user.setPhoneNumber("+380976714493");
+        Mockito.verify(userServiceMock).updateUser(user);
     }
 
     @Test
-    public void shouldUpdateSomeUserFields() {
-        Mockito.when(modelMapperMock.map(any(), any())).thenReturn(createTestUser());
-        UserDto userDto = createTestUserDto();
-        userDto.setAddress("Ukraine, Lviv");
-        usersRestController.updateSomeUserField(TEST_USER_ID, userDto);
-        Mockito.verify(userServiceMock).updateUser(createTestUser());
+    public void shouldUpdateOnlySuppliedUserFields() {
+        User user = createTestUser();
+        user.setAddress("Ukraine, Lviv");
+        user.setVersion(1L);
+        Mockito.when(userServiceMock.patchUser(TEST_USER_ID, Map.of("address", "Ukraine, Lviv"), null)).thenReturn(user);
+        ResponseEntity<UserDto> response = usersRestController.updateSomeUserField(TEST_USER_ID, null,
+                objectMapper.createObjectNode().put("id", 7L).put("address", "Ukraine, Lviv"), MIN_VALID_AGE);
+        assertEquals(response.getBody().getAddress(), "Ukraine, Lviv");
+        assertEquals(response.getHeaders().getETag(), "\"1\"");
+    }
+
+    @Test
+    public void shouldPassIfMatchVersionToPartialUpdate() {
+        Mockito.when(userServiceMock.patchUser(TEST_USER_ID, Map.of("firstName", "Yarko"), 3L)).thenReturn(createTestUser());
+        usersRestController.updateSomeUserField(TEST_USER_ID, "\"3\"", objectMapper.createObjectNode().put("firstName", "Yarko"), MIN_VALID_AGE);
+        Mockito.verify(userServiceMock).patchUser(TEST_USER_ID, Map.of("firstName", "Yarko"), 3L);
+        Mockito.verify(userServiceMock, Mockito.never()).getPrimaryUserVersion(TEST_USER_ID);
+    }
+
+    @Test
+    public void shouldThrowExceptionWhenPartialUpdateIsNotValid() {
+        assertThrows(NotValidRequestException.class, () -> usersRestController.updateSomeUserField(TEST_USER_ID, null,
+                objectMapper.createObjectNode().put("email", "yaroslav.voronovskyigmail.com"), MIN_VALID_AGE));
+        assertThrows(NotValidRequestException.class, () -> usersRestController.updateSomeUserField(TEST_USER_ID, null,
+                objectMapper.createObjectNode().putNull("lastName"), MIN_VALID_AGE));
+        assertThrows(NotValidRequestException.class, () -> usersRestController.updateSomeUserField(TEST_USER_ID, null,
+                objectMapper.createObjectNode().put("version", 5L), MIN_VALID_AGE));
+        Mockito.verify(userServiceMock, Mockito.never()).patchUser(Mockito.anyLong(), any(), any());
+    }
+
+    @Test
+    public void shouldThrowExceptionWhenPartialUpdateMakesUserTooYoung() {
+        assertThrows(NotValidAgeException.class, () -> usersRestController.updateSomeUserField(TEST_USER_ID, null,
+                objectMapper.createObjectNode().put("birthDate", LocalDate.now().minusYears(17).format(DATE_FORMAT)),
+                MIN_VALID_AGE));
+        Mockito.verify(userServiceMock, Mockito.never()).patchUser(Mockito.anyLong(), any(), any());
+    }
+
+    @Test
+    public void shouldThrowExceptionWhenIfMatchETagIsStale() {
+        Mockito.when(userServiceMock.getPrimaryUserVersion(TEST_USER_ID)).thenReturn(2L);
+        assertThrows(PreconditionFailedException.class,
+                () -> usersRestController.updateUser(TEST_USER_ID, "\"1\"", null, createTestUserDto()));
+        Mockito.verify(userServiceMock, Mockito.never()).updateUser(any());
+        Mockito.verify(userServiceMock, Mockito.never()).getUserVersion(TEST_USER_ID);
+    }
+
+    @Test
+    public void shouldReturnUserDtosListByBirthDateWithNextCursor() {
+        LocalDate fromDate = LocalDate.parse("01-01-1980", DATE_FORMAT);
+        LocalDate toDate = LocalDate.parse("01-01-2000", DATE_FORMAT);
+        Mockito.when(userServiceMock.findUsersByBirthDate(fromDate, toDate, null, 0L, 1))
+                .thenReturn(new SliceImpl<>(List.of(createTestUser()), PageRequest.of(0, 1), true));
+        ResponseEntity<List<UserDto>> response = usersRestController.findUserByBirthDate(fromDate, toDate, null, 1, MAX_PAGE_LIMIT);
+        assertEquals(response.getBody(), List.of(createTestUserDto()));
+        assertEquals(response.getHeaders().getFirst(UsersRestController.NEXT_CURSOR_HEADER), "11-11-1986_1");
+    }
+
+    @Test
+    public void shouldReturnUserDtosListByBirthDateAfterCursor() {
+        LocalDate fromDate = LocalDate.parse("01-01-1980", DATE_FORMAT);
+        LocalDate toDate = LocalDate.parse("01-01-2000", DATE_FORMAT);
+        LocalDate afterBirthDate = LocalDate.parse("11-11-1986", DATE_FORMAT);
+        Mockito.when(userServiceMock.findUsersByBirthDate(fromDate, toDate, afterBirthDate, TEST_USER_ID, PAGE_LIMIT))
+                .thenReturn(new SliceImpl<>(List.of(createTestUser())));
+        ResponseEntity<List<UserDto>> response = usersRestController.findUserByBirthDate(fromDate, toDate, "11-11-1986_1",
+                PAGE_LIMIT, MAX_PAGE_LIMIT);
+        assertEquals(response.getBody(), List.of(createTestUserDto()));
+        assertNull(response.getHeaders().getFirst(UsersRestController.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    public void shouldThrowExceptionWhenBirthDateCursorIsNotValid() {
+        LocalDate fromDate = LocalDate.parse("01-01-1980", DATE_FORMAT);
+        LocalDate toDate = LocalDate.parse("01-01-2000", DATE_FORMAT);
+        assertThrows(NotValidRequestException.class,
+                () -> usersRestController.findUserByBirthDate(fromDate, toDate, "1", PAGE_LIMIT, MAX_PAGE_LIMIT));
+    }
+
+    @Test
+    public void shouldThrowExceptionWhenChangeFeedIsNotAvailable() {
+        assertThrows(NotImplementedException.class,
+                () -> usersRestController.getUserChanges(0, PAGE_LIMIT, 0, MAX_PAGE_LIMIT, 30));
     }
 
     @Test
@@ -0,0 +1,65 @@
+package com.gmail.voronovskyi.yaroslav.demo.controller.exception;
+
+import com.gmail.voronovskyi.yaroslav.demo.config.AppConfigTest;
+import com.gmail.voronovskyi.yaroslav.demo.model.User;
+import com.gmail.voronovskyi.yaroslav.demo.repository.IUserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.context.web.WebAppConfiguration;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@WebAppConfiguration
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = {AppConfigTest.class})
+@TestPropertySource(locations = "classpath:test.properties", properties = "spring.datasource.url=jdbc:h2:mem:constraints")
+public class CarRestControllerExceptionHandlerTest {
+
+    @Autowired
+    private IUserRepository userRepository;
+    @Autowired
+    private CarRestControllerExceptionHandler exceptionHandler;
+
+    @Test
+    public void shouldReportConflictOnlyForTakenEmailOrPhoneNumber() {
+        userRepository.saveAndFlush(createTestUser("constraint@gmail.com", "+380976700901"));
+        ResponseEntity<Object> emailResponse = exceptionHandler.handlerRequestException(assertThrows(DataIntegrityViolationException.class,
+                () -> userRepository.saveAndFlush(createTestUser("constraint@gmail.com", "+380976700902"))));
+        assertEquals(emailResponse.getStatusCode(), HttpStatus.CONFLICT);
+        assertEquals(((ApiError) Objects.requireNonNull(emailResponse.getBody())).getMessage(),
+                List.of("User with the same email already exists"));
+        ResponseEntity<Object> phoneNumberResponse = exceptionHandler.handlerRequestException(assertThrows(DataIntegrityViolationException.class,
+                () -> userRepository.saveAndFlush(createTestUser("constraint.other@gmail.com", "+380976700901"))));
+        assertEquals(phoneNumberResponse.getStatusCode(), HttpStatus.CONFLICT);
+        assertEquals(((ApiError) Objects.requireNonNull(phoneNumberResponse.getBody())).getMessage(),
+                List.of("User with the same phone number already exists"));
+        User userWithoutAddress = createTestUser("constraint.null@gmail.com", "+380976700903");
+        userWithoutAddress.setAddress(null);
+        ResponseEntity<Object> notNullResponse = exceptionHandler.handlerRequestException(assertThrows(DataIntegrityViolationException.class,
+                () -> userRepository.saveAndFlush(userWithoutAddress)));
+        assertEquals(notNullResponse.getStatusCode(), HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+
+    private User createTestUser(String email, String phoneNumber) {
+        return User.builder()
+                .email(email)
+                .firstName("Yaroslav")
+                .lastName("Voronovskyi")
+                .birthDate(LocalDate.of(1986, 11, 11))
+                .address("Ukraine, Kyiv")
+                .phoneNumber(phoneNumber)
+                .build();
+    }
+}
@@ -4,6 +4,8 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.gmail.voronovskyi.yaroslav.demo.config.AppConfigTest;
+import com.gmail.voronovskyi.yaroslav.demo.controller.UsersRestController;
+import com.gmail.voronovskyi.yaroslav.demo.controller.rest.dto.BatchRegistrationResultDto;
 import com.gmail.voronovskyi.yaroslav.demo.controller.rest.dto.UserDto;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.MethodOrderer;
@@ -12,13 +14,16 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestMethodOrder;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.context.web.WebAppConfiguration;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
@@ -28,6 +33,14 @@ import java.time.format.DateTimeFormatter;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebAppConfiguration
@@ -147,27 +160,35 @@ public class UsersRestControllerTest {
     @Test
     @Order(5)
     public void shouldUpdateExpectedSomeUserDtoField() throws Exception {
-        UserDto userDto = UserDto.builder()
-                .email("yaroslav.voronovskyigmail.com")
-                .firstName("Yaroslav")
-                .lastName("Voronovskyi")
-                .birthDate(LocalDate.parse("11-11-2000", DATE_FORMAT))
-                .address("Ukraine, Lviv")
-                .phoneNumber("+380976714792")
-                .build();
-        ObjectMapper mapper = new ObjectMapper();
-        mapper.findAndRegisterModules();
-        mapper.configure(SerializationFeature.WRAP_ROOT_VALUE, false);
-        ObjectWriter objectWriter = mapper.writer().withDefaultPrettyPrinter();
-        String requestJson = objectWriter.writeValueAsString(userDto);
+        mockMvc.perform(MockMvcRequestBuilders.patch("/users/1")
+                        .content("{\"address\": \"Ukraine, Odesa\", \"email\": \"yaroslav.voronovskyigmail.com\"}")
+                        .contentType(UsersRestController.MERGE_PATCH_JSON_VALUE)
+                        .accept(MediaType.APPLICATION_JSON_VALUE))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(MockMvcRequestBuilders.patch("/users/1")
+                        .content("{\"birthDate\": \"" + LocalDate.now().minusYears(17).format(DATE_FORMAT) + "\"}")
+                        .contentType(UsersRestController.MERGE_PATCH_JSON_VALUE)
+                        .accept(MediaType.APPLICATION_JSON_VALUE))
+                .andExpect(status().isBadRequest());
         String response = mockMvc.perform(MockMvcRequestBuilders.patch("/users/1")
-                        .content(requestJson)
-                        .contentType(MediaType.APPLICATION_JSON_VALUE)
+                        .content("{\"id\": 7, \"address\": \"Ukraine, Lviv\"}")
+                        .contentType(UsersRestController.MERGE_PATCH_JSON_VALUE)
                         .accept(MediaType.APPLICATION_JSON_VALUE))
                 .andExpect(status().is2xxSuccessful()).andReturn().getResponse().getContentAsString();
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.findAndRegisterModules();
         UserDto userDtoExpected = mapper.readValue(response, UserDto.class);
         assertEquals(userDtoExpected.getId(), TEST_USER_ID);
         assertEquals(userDtoExpected.getAddress(), "Ukraine, Lviv");
+        assertEquals(userDtoExpected.getEmail(), "yaroslav.voronovskyi@gmail.com");
+        assertEquals(userDtoExpected.getPhoneNumber(), "+380976714792");
+        assertEquals(userDtoExpected.getBirthDate(), LocalDate.parse("11-11-2000", DATE_FORMAT));
+        mockMvc.perform(MockMvcRequestBuilders.patch("/users/1")
+                        .header(HttpHeaders.IF_MATCH, "\"1\"")
+                        .content("{\"address\": \"Ukraine, Odesa\"}")
+                        .contentType(UsersRestController.MERGE_PATCH_JSON_VALUE)
+                        .accept(MediaType.APPLICATION_JSON_VALUE))
+                .andExpect(status().isPreconditionFailed());
     }
 
     @Test
@@ -280,6 +301,311 @@ public class UsersRestControllerTest {
                         .isBadRequest());
     }
 
+    @Test
+    @Order(12)
+    public void shouldReturnUserDtosPageWithNextCursor() throws Exception {
+        MockHttpServletResponse firstPage = mockMvc.perform(MockMvcRequestBuilders.get("/users/?limit=2")
+                        .contentType(MediaType.APPLICATION_JSON_VALUE)
+                        .accept(MediaType.APPLICATION_JSON_VALUE))
+                .andExpect(status().is2xxSuccessful()).andReturn().getResponse();
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.findAndRegisterModules();
+        List<UserDto> firstUserDtosList = mapper.readerForListOf(UserDto.class).readValue(firstPage.getContentAsString());
+        assertEquals(firstUserDtosList.size(), 2);
+        assertEquals(firstUserDtosList.get(0).getId(), 1);
+        assertEquals(firstUserDtosList.get(1).getId(), 2);
+        assertEquals(firstPage.getHeader("X-Next-Cursor"), "2");
+        MockHttpServletResponse lastPage = mockMvc.perform(MockMvcRequestBuilders.get("/users/?limit=10&after=2")
+                        .contentType(MediaType.APPLICATION_JSON_VALUE)
+                        .accept(MediaType.APPLICATION_JSON_VALUE))
+                .andExpect(status().is2xxSuccessful()).andReturn().getResponse();
+        List<UserDto> lastUserDtosList = mapper.readerForListOf(UserDto.class).readValue(lastPage.getContentAsString());
+        assertEquals(lastUserDtosList.size(), 3);
+        assertEquals(lastUserDtosList.get(0).getId(), 3);
+        assertNull(lastPage.getHeader("X-Next-Cursor"));
+    }
+
+    @Test
+    @Order(13)
+    public void shouldExportAllUserDtosAsNdjson() throws Exception {
+        MvcResult mvcResult = mockMvc.perform(MockMvcRequestBuilders.get("/users/export")
+                        .accept(MediaType.APPLICATION_NDJSON_VALUE))
+                .andExpect(request().asyncStarted()).andReturn();
+        String response = mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().is2xxSuccessful())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.findAndRegisterModules();
+        List<UserDto> userDtosList = mapper.readerFor(UserDto.class).<UserDto>readValues(response).readAll();
+        assertEquals(userDtosList.size(), 5);
+        assertEquals(userDtosList.get(0).getId(), TEST_USER_ID);
+        assertEquals(userDtosList.get(0).getLastName(), "Voronovskyi");
+        assertEquals(userDtosList.get(4).getId(), 6);
+    }
+
+    @Test
+    @Order(14)
+    public void shouldRegisterNewUserDtosBatchAndReportErrorsPerItem() throws Exception {
+        List<UserDto> userDtosList = List.of(
+                createTestUserDtoWithOutId("olena.batch@gmail.com", "+380976700001"),
+                createTestUserDtoWithOutId("kseniya.bobyl@gmail.com", "+380976700002"),
+                createTestUserDtoWithOutId("not-valid-email", "+380976700003"),
+                createTestUserDtoWithOutId("petro.batch@gmail.com", "+380976700004"));
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.findAndRegisterModules();
+        String requestJson = mapper.writeValueAsString(userDtosList);
+        String response = mockMvc.perform(MockMvcRequestBuilders.post("/users/batch")
+                        .content(requestJson)
+                        .contentType(MediaType.APPLICATION_JSON_VALUE)
+                        .accept(MediaType.APPLICATION_JSON_VALUE))
+                .andExpect(status().is2xxSuccessful()).andReturn().getResponse().getContentAsString();
+        BatchRegistrationResultDto result = mapper.readValue(response, BatchRegistrationResultDto.class);
+        assertEquals(result.getRegistered().size(), 2);
+        assertEquals(result.getRegistered().get(0).getEmail(), "olena.batch@gmail.com");
+        assertEquals(result.getRegistered().get(1).getEmail(), "petro.batch@gmail.com");
+        assertEquals(result.getErrors().size(), 2);
+        assertEquals(result.getErrors().get(0).getIndex(), 1);
+        assertEquals(result.getErrors().get(0).getMessage(), List.of("email already exists"));
+        assertEquals(result.getErrors().get(1).getIndex(), 2);
+        UserDto userDtoExpected = mapper.readValue(mockMvc.perform(MockMvcRequestBuilders
+                        .get("/users/" + result.getRegistered().get(1).getId())
+                        .accept(MediaType.APPLICATION_JSON_VALUE))
+                .andExpect(status().is2xxSuccessful()).andReturn().getResponse().getContentAsString(), UserDto.class);
+        assertEquals(userDtoExpected.getPhoneNumber(), "+380976700004");
+    }
+
+    @Test
+    @Order(15)
+    public void shouldReturnUserDtosListByBirthDatePageWithNextCursor() throws Exception {
+        MockHttpServletResponse firstPage = mockMvc.perform(MockMvcRequestBuilders.get("/users/search/?from=01-01-1980&to=01-01-2001&limit=2")
+                        .accept(MediaType.APPLICATION_JSON_VALUE))
+                .andExpect(status().is2xxSuccessful()).andReturn().getResponse();
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.findAndRegisterModules();
+        List<UserDto> firstUserDtosList = mapper.readerForListOf(UserDto.class).readValue(firstPage.getContentAsString());
+        assertEquals(firstUserDtosList.size(), 2);
+        assertEquals(firstUserDtosList.get(0).getId(), 3);
+        assertEquals(firstUserDtosList.get(1).getId(), 2);
+        assertEquals(firstPage.getHeader("X-Next-Cursor"), "10-08-1988_2");
+        MockHttpServletResponse nextPage = mockMvc.perform(MockMvcRequestBuilders.get("/users/search/?from=01-01-1980&to=01-01-2001&limit=2&after=10-08-1988_2")
+                        .accept(MediaType.APPLICATION_JSON_VALUE))
+                .andExpect(status().is2xxSuccessful()).andReturn().getResponse();
+        List<UserDto> nextUserDtosList = mapper.readerForListOf(UserDto.class).readValue(nextPage.getContentAsString());
+        assertEquals(nextUserDtosList.get(0).getId(), 4);
+        assertEquals(nextUserDtosList.get(0).getBirthDate(), LocalDate.parse("08-01-2000", DATE_FORMAT));
+    }
+
+    @Test
+    @Order(16)
+    public void shouldAnswerConditionalRequestsByETag() throws Exception {
+        String eTag = mockMvc.perform(MockMvcRequestBuilders.get("/users/1")
+                        .accept(MediaType.APPLICATION_JSON_VALUE))
+                .andExpect(status().isOk()).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(MockMvcRequestBuilders.get("/users/1")
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                        .accept(MediaType.APPLICATION_JSON_VALUE))
+                .andExpect(status().isNotModified());
+        String pageETag = mockMvc.perform(MockMvcRequestBuilders.get("/users/?limit=2")
+                        .accept(MediaType.APPLICATION_JSON_VALUE))
+                .andExpect(status().isOk()).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(MockMvcRequestBuilders.get("/users/?limit=2")
+                        .header(HttpHeaders.IF_NONE_MATCH, pageETag)
+                        .accept(MediaType.APPLICATION_JSON_VALUE))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("X-Next-Cursor", "2"));
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.findAndRegisterModules();
+        UserDto userDto = createTestUserDto();
+        userDto.setAddress("Ukraine, Odesa");
+        String requestJson = mapper.writeValueAsString(userDto);
+        mockMvc.perform(MockMvcRequestBuilders.put("/users/1")
+                        .header(HttpHeaders.IF_MATCH, "\"100\"")
+                        .content(requestJson)
+                        .contentType(MediaType.APPLICATION_JSON_VALUE)
+                        .accept(MediaType.APPLICATION_JSON_VALUE))
+                .andExpect(status().isPreconditionFailed());
+        String newETag = mockMvc.perform(MockMvcRequestBuilders.put("/users/1")
+                        .header(HttpHeaders.IF_MATCH, eTag)
+                        .content(requestJson)
+                        .contentType(MediaType.APPLICATION_JSON_VALUE)
+                        .accept(MediaType.APPLICATION_JSON_VALUE))
+                .andExpect(status().isOk()).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(newETag, eTag);
+        mockMvc.perform(MockMvcRequestBuilders.get("/users/1")
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                        .accept(MediaType.APPLICATION_JSON_VALUE))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, newETag));
+        mockMvc.perform(MockMvcRequestBuilders.get("/users/?limit=2")
+                        .header(HttpHeaders.IF_NONE_MATCH, pageETag)
+                        .accept(MediaType.APPLICATION_JSON_VALUE))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @Order(17)
+    public void shouldRejectRegistrationOfExistingUserDtoWithConflict() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.findAndRegisterModules();
+        mockMvc.perform(MockMvcRequestBuilders.post("/users/")
+                        .content(mapper.writeValueAsString(createTestUserDtoWithOutId("kseniya.bobyl@gmail.com", "+380976700201")))
+                        .contentType(MediaType.APPLICATION_JSON_VALUE)
+                        .accept(MediaType.APPLICATION_JSON_VALUE))
+                .andExpect(status().isConflict());
+        mockMvc.perform(MockMvcRequestBuilders.post("/users/")
+                        .content(mapper.writeValueAsString(createTestUserDtoWithOutId("olena.conflict@gmail.com", "+380976714423")))
+                        .contentType(MediaType.APPLICATION_JSON_VALUE)
+                        .accept(MediaType.APPLICATION_JSON_VALUE))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    @Order(18)
+    public void shouldReturnEmptyListWhenNoUsersFound() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/users?after=1000000")
+                        .accept(MediaType.APPLICATION_JSON_VALUE))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[]"));
+        mockMvc.perform(MockMvcRequestBuilders.get("/users/search?from=01-01-1900&to=31-12-1900")
+                        .accept(MediaType.APPLICATION_JSON_VALUE))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[]"));
+        mockMvc.perform(MockMvcRequestBuilders.delete("/users/1000000")
+                        .contentType(MediaType.APPLICATION_JSON_VALUE))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @Order(19)
+    public void shouldReturnUsersByBirthdayOverNewYear() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.findAndRegisterModules();
+        for (String birthDate : List.of("02-01-1991", "30-12-1990", "05-01-1992")) {
+            UserDto userDto = createTestUserDtoWithOutId("birthday." + birthDate + "@gmail.com", "+38097" + birthDate.replace("-", ""));
+            userDto.setBirthDate(LocalDate.parse(birthDate, DATE_FORMAT));
+            mockMvc.perform(MockMvcRequestBuilders.post("/users/")
+                            .content(mapper.writeValueAsString(userDto))
+                            .contentType(MediaType.APPLICATION_JSON_VALUE)
+                            .accept(MediaType.APPLICATION_JSON_VALUE))
+                    .andExpect(status().isOk());
+        }
+        String nextCursor = mockMvc.perform(MockMvcRequestBuilders.get("/users/birthdays?from=28-12&to=03-01&limit=1")
+                        .accept(MediaType.APPLICATION_JSON_VALUE))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].birthDate").value("30-12-1990"))
+                .andExpect(jsonPath("$.length()").value(1))
+                .andReturn().getResponse().getHeader(UsersRestController.NEXT_CURSOR_HEADER);
+        mockMvc.perform(MockMvcRequestBuilders.get("/users/birthdays?from=28-12&to=03-01&limit=1&after=" + nextCursor)
+                        .accept(MediaType.APPLICATION_JSON_VALUE))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].birthDate").value("02-01-1991"))
+                .andExpect(header().doesNotExist(UsersRestController.NEXT_CURSOR_HEADER));
+        mockMvc.perform(MockMvcRequestBuilders.get("/users/birthdays?from=31-02&to=03-01")
+                        .accept(MediaType.APPLICATION_JSON_VALUE))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Order(20)
+    public void shouldSearchUsersByPrefixAndMisspelledText() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.findAndRegisterModules();
+        UserDto userDto = createTestUserDtoWithOutId("bohdana.k@gmail.com", "+380976700901");
+        userDto.setFirstName("Bohdana");
+        userDto.setLastName("Khmelnytska");
+        mockMvc.perform(MockMvcRequestBuilders.post("/users/")
+                        .content(mapper.writeValueAsString(userDto))
+                        .contentType(MediaType.APPLICATION_JSON_VALUE)
+                        .accept(MediaType.APPLICATION_JSON_VALUE))
+                .andExpect(status().isOk());
+        mockMvc.perform(MockMvcRequestBuilders.get("/users/search/text?q=bohd")
+                        .accept(MediaType.APPLICATION_JSON_VALUE))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].email").value("bohdana.k@gmail.com"));
+        mockMvc.perform(MockMvcRequestBuilders.get("/users/search/text?q=Bohdana Khmelnitska&limit=1")
+                        .accept(MediaType.APPLICATION_JSON_VALUE))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].lastName").value("Khmelnytska"))
+                .andExpect(jsonPath("$.length()").value(1));
+        mockMvc.perform(MockMvcRequestBuilders.get("/users/search/text?q= ")
+                        .accept(MediaType.APPLICATION_JSON_VALUE))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Order(21)
+    public void shouldLongPollAndStreamUserChanges() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.findAndRegisterModules();
+        MvcResult headResult = mockMvc.perform(MockMvcRequestBuilders.get("/users/changes?since=0&limit=1000")
+                        .accept(MediaType.APPLICATION_JSON_VALUE))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String headCursor = mockMvc.perform(asyncDispatch(headResult))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(UsersRestController.NEXT_CURSOR_HEADER);
+        MvcResult longPollResult = mockMvc.perform(MockMvcRequestBuilders.get("/users/changes?wait=10&since=" + headCursor)
+                        .accept(MediaType.APPLICATION_JSON_VALUE))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(MockMvcRequestBuilders.post("/users/")
+                        .content(mapper.writeValueAsString(createTestUserDtoWithOutId("changes.feed@gmail.com", "+380976701001")))
+                        .contentType(MediaType.APPLICATION_JSON_VALUE)
+                        .accept(MediaType.APPLICATION_JSON_VALUE))
+                .andExpect(status().isOk());
+        mockMvc.perform(asyncDispatch(longPollResult))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].type").value("CREATED"))
+                .andExpect(jsonPath("$[0].user.email").value("changes.feed@gmail.com"))
+                .andExpect(header().exists(UsersRestController.NEXT_CURSOR_HEADER));
+        MvcResult streamResult = mockMvc.perform(MockMvcRequestBuilders.get("/users/changes?since=" + headCursor)
+                        .accept(MediaType.TEXT_EVENT_STREAM_VALUE))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MockHttpServletResponse streamResponse = streamResult.getResponse();
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!streamResponse.getContentAsString().contains("changes.feed@gmail.com") && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        String events = streamResponse.getContentAsString();
+        assertTrue(events.contains("event:CREATED"));
+        assertTrue(events.contains("changes.feed@gmail.com"));
+    }
+
+    @Test
+    @Order(22)
+    public void shouldReplayRegistrationWithSameIdempotencyKey() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.findAndRegisterModules();
+        String userJson = mapper.writeValueAsString(createTestUserDtoWithOutId("retry.idempotent@gmail.com", "+380976701101"));
+        String firstResponse = mockMvc.perform(MockMvcRequestBuilders.post("/users/")
+                        .header(UsersRestController.IDEMPOTENCY_KEY_HEADER, "retry-1")
+                        .content(userJson)
+                        .contentType(MediaType.APPLICATION_JSON_VALUE)
+                        .accept(MediaType.APPLICATION_JSON_VALUE))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        mockMvc.perform(MockMvcRequestBuilders.post("/users/")
+                        .header(UsersRestController.IDEMPOTENCY_KEY_HEADER, "retry-1")
+                        .content(userJson)
+                        .contentType(MediaType.APPLICATION_JSON_VALUE)
+                        .accept(MediaType.APPLICATION_JSON_VALUE))
+                .andExpect(status().isOk())
+                .andExpect(content().json(firstResponse, true));
+        mockMvc.perform(MockMvcRequestBuilders.post("/users/")
+                        .header(UsersRestController.IDEMPOTENCY_KEY_HEADER, "retry-1")
+                        .content(mapper.writeValueAsString(createTestUserDtoWithOutId("retry.other@gmail.com", "+380976701102")))
+                        .contentType(MediaType.APPLICATION_JSON_VALUE)
+                        .accept(MediaType.APPLICATION_JSON_VALUE))
+                .andExpect(status().isUnprocessableEntity());
+        mockMvc.perform(MockMvcRequestBuilders.post("/users/")
+                        .content(userJson)
+                        .contentType(MediaType.APPLICATION_JSON_VALUE)
+                        .accept(MediaType.APPLICATION_JSON_VALUE))
+                .andExpect(status().isConflict());
+    }
+
     private UserDto createTestUserDto() {
         return UserDto.builder()
                 .id(TEST_USER_ID)
@@ -293,13 +619,17 @@ public class UsersRestControllerTest {
     }
 
     private UserDto createTestUserDtoWithOutId() {
+        return createTestUserDtoWithOutId("yaroslav.voronovskyi-aws@gmail.com", "+380976714499");
+    }
+
+    private UserDto createTestUserDtoWithOutId(String email, String phoneNumber) {
         return UserDto.builder()
-                .email("yaroslav.voronovskyi-aws@gmail.com")
+                .email(email)
                 .firstName("Yaroslav")
                 .lastName("Voronovskyi")
                 .birthDate(LocalDate.parse("11-11-2000", DATE_FORMAT))
                 .address("Ukraine, Kyiv")
-                .phoneNumber("+380976714499")
+                .phoneNumber(phoneNumber)
                 .build();
     }
 }
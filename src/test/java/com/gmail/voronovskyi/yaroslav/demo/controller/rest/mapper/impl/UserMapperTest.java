@@ -0,0 +1,85 @@
+package com.gmail.voronovskyi.yaroslav.demo.controller.rest.mapper.impl;
+
+import com.gmail.voronovskyi.yaroslav.demo.controller.exception.NotValidRequestException;
+import com.gmail.voronovskyi.yaroslav.demo.controller.exception.UserNotFoundException;
+import com.gmail.voronovskyi.yaroslav.demo.controller.rest.dto.UserDto;
+import com.gmail.voronovskyi.yaroslav.demo.model.User;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import javax.persistence.EntityNotFoundException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class UserMapperTest {
+
+    private final static long TEST_USER_ID = 1L;
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd-MM-yyyy");
+
+    private final UserMapper userMapper = new UserMapper();
+
+    @Test
+    public void shouldMapUserToUserDto() {
+        assertEquals(userMapper.toDto(createTestUser()), createTestUserDto());
+    }
+
+    @Test
+    public void shouldMapUserDtoToUser() {
+        assertEquals(userMapper.toEntity(createTestUserDto()), createTestUser());
+    }
+
+    @Test
+    public void shouldMapUsersListToUserDtosList() {
+        assertEquals(userMapper.toDtoList(List.of(createTestUser(), createTestUser())),
+                List.of(createTestUserDto(), createTestUserDto()));
+    }
+
+    @Test
+    public void shouldMapSuppliedUserDtoFieldsToChanges() {
+        Map<String, Object> changesMap = userMapper.toChanges(createTestUserDto(), List.of("address", "birthDate"));
+        assertEquals(changesMap, Map.of("address", "Ukraine, Kyiv", "birthDate", LocalDate.parse("11-11-1986", DATE_FORMAT)));
+        assertThrows(NotValidRequestException.class, () -> userMapper.toChanges(createTestUserDto(), List.of("version")));
+    }
+
+    @Test
+    public void shouldThrowExceptionWhenUserIsNull() {
+        assertThrows(UserNotFoundException.class, () -> userMapper.toDto(null));
+    }
+
+    @Test
+    public void shouldThrowExceptionWhenUserDoesNotExist() {
+        User userProxy = Mockito.mock(User.class);
+        Mockito.when(userProxy.getEmail()).thenThrow(new EntityNotFoundException("Unable to find User with id 1"));
+        UserNotFoundException exception = assertThrows(UserNotFoundException.class, () -> userMapper.toDto(userProxy));
+        assertEquals(exception.getMessage(), "User does not exist or has been deleted");
+    }
+
+    private User createTestUser() {
+        return User.builder()
+                .id(TEST_USER_ID)
+                .email("yaroslav.voronovskyi@gmail.com")
+                .firstName("Yaroslav")
+                .lastName("Voronovskyi")
+                .birthDate(LocalDate.parse("11-11-1986", DATE_FORMAT))
+                .address("Ukraine, Kyiv")
+                .phoneNumber("+380976714492")
+                .build();
+    }
+
+    private UserDto createTestUserDto() {
+        return UserDto.builder()
+                .id(TEST_USER_ID)
+                .email("yaroslav.voronovskyi@gmail.com")
+                .firstName("Yaroslav")
+                .lastName("Voronovskyi")
+                .birthDate(LocalDate.parse("11-11-1986", DATE_FORMAT))
+                .address("Ukraine, Kyiv")
+                .phoneNumber("+380976714492")
+                .build();
+    }
+}
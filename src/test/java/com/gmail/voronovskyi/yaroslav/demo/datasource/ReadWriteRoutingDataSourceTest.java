@@ -0,0 +1,96 @@
+package com.gmail.voronovskyi.yaroslav.demo.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ReadWriteRoutingDataSourceTest {
+
+    private final static Duration TEST_MAX_LAG = Duration.ofSeconds(1);
+    private final static Duration TEST_CHECK_INTERVAL = Duration.ofMinutes(1);
+    private final static String TEST_LAG_QUERY = "select seconds from replication_lag";
+
+    private final HikariDataSource primary = createNode("primary", 0);
+    private final List<HikariDataSource> replicasList = new ArrayList<>(List.of(createNode("replica0", 0),
+            createNode("replica1", 0)));
+    private ReplicaLagMonitor lagMonitor;
+
+    @AfterEach
+    public void tearDown() {
+        if (lagMonitor != null) {
+            lagMonitor.close();
+        }
+        primary.close();
+        replicasList.forEach(HikariDataSource::close);
+    }
+
+    @Test
+    public void shouldSendReadOnlyTransactionsToReplicasRoundRobin() {
+        DataSource dataSource = createRoutingDataSource(ReplicaSelection.ROUND_ROBIN);
+        assertEquals(readNode(dataSource, true), "replica0");
+        assertEquals(readNode(dataSource, true), "replica1");
+        assertEquals(readNode(dataSource, true), "replica0");
+        assertEquals(readNode(dataSource, false), "primary");
+        assertEquals(new JdbcTemplate(dataSource).queryForObject("select name from node", String.class), "primary");
+    }
+
+    @Test
+    public void shouldSendReadOnlyTransactionsToReplicaWithLeastConnections() throws Exception {
+        DataSource dataSource = createRoutingDataSource(ReplicaSelection.LEAST_CONNECTIONS);
+        try (Connection connection = replicasList.get(0).getConnection()) {
+            assertEquals(readNode(dataSource, true), "replica1");
+            assertEquals(readNode(dataSource, true), "replica1");
+        }
+    }
+
+    @Test
+    public void shouldSkipLaggingReplicas() {
+        replicasList.set(0, createNode("lagging-replica0", 10));
+        lagMonitor = new ReplicaLagMonitor(replicasList, TEST_LAG_QUERY, TEST_MAX_LAG, TEST_CHECK_INTERVAL);
+        DataSource dataSource = createRoutingDataSource(ReplicaSelection.ROUND_ROBIN);
+        assertEquals(readNode(dataSource, true), "replica1");
+        assertEquals(readNode(dataSource, true), "replica1");
+
+        new JdbcTemplate(replicasList.get(1)).update("update replication_lag set seconds = 5");
+        lagMonitor.checkReplicas();
+        assertEquals(readNode(dataSource, true), "primary");
+    }
+
+    private DataSource createRoutingDataSource(ReplicaSelection selection) {
+        return new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(primary, replicasList, selection, lagMonitor));
+    }
+
+    private String readNode(DataSource dataSource, boolean readOnly) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        transactionTemplate.setReadOnly(readOnly);
+        return transactionTemplate.execute(status ->
+                new JdbcTemplate(dataSource).queryForObject("select name from node", String.class));
+    }
+
+    private static HikariDataSource createNode(String name, double lagSeconds) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:routing-" + name + ";DB_CLOSE_DELAY=-1");
+        dataSource.setUsername("H2");
+        dataSource.setPassword("");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table if not exists node (name varchar(20))");
+        jdbcTemplate.execute("create table if not exists replication_lag (seconds double)");
+        jdbcTemplate.update("delete from node");
+        jdbcTemplate.update("delete from replication_lag");
+        jdbcTemplate.update("insert into node values (?)", name.replace("lagging-", ""));
+        jdbcTemplate.update("insert into replication_lag values (?)", lagSeconds);
+        return dataSource;
+    }
+}
@@ -0,0 +1,86 @@
+package com.gmail.voronovskyi.yaroslav.demo.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.AppenderBase;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DropCountingAsyncAppenderTest {
+
+    private final static int TEST_QUEUE_SIZE = 4;
+    private final static int TEST_EVENTS_COUNT = 100;
+
+    @Test
+    public void shouldDropAndCountEventsWhenQueueIsFullInsteadOfBlocking() throws InterruptedException {
+        LoggerContext loggerContext = new LoggerContext();
+        CountDownLatch writeLatch = new CountDownLatch(1);
+        AtomicInteger writtenCount = new AtomicInteger();
+        AppenderBase<ILoggingEvent> slowAppender = new AppenderBase<>() {
+            @Override
+            protected void append(ILoggingEvent event) {
+                try {
+                    writeLatch.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                writtenCount.incrementAndGet();
+            }
+        };
+        DropCountingAsyncAppender asyncAppender = createAsyncAppender(loggerContext, slowAppender, 0);
+
+        for (int i = 0; i < TEST_EVENTS_COUNT; i++) {
+            asyncAppender.doAppend(createEvent(loggerContext, Level.ERROR));
+        }
+        long droppedCount = asyncAppender.getDroppedCount();
+        writeLatch.countDown();
+        asyncAppender.stop();
+
+        assertTrue(droppedCount >= TEST_EVENTS_COUNT - TEST_QUEUE_SIZE - 1);
+        assertEquals(TEST_EVENTS_COUNT, droppedCount + writtenCount.get());
+    }
+
+    @Test
+    public void shouldDropOnlyDiscardableEventsBelowDiscardingThreshold() {
+        LoggerContext loggerContext = new LoggerContext();
+        AppenderBase<ILoggingEvent> noOpAppender = new AppenderBase<>() {
+            @Override
+            protected void append(ILoggingEvent event) {
+            }
+        };
+        DropCountingAsyncAppender asyncAppender = createAsyncAppender(loggerContext, noOpAppender, TEST_QUEUE_SIZE + 1);
+
+        asyncAppender.doAppend(createEvent(loggerContext, Level.DEBUG));
+        asyncAppender.doAppend(createEvent(loggerContext, Level.INFO));
+        asyncAppender.doAppend(createEvent(loggerContext, Level.WARN));
+        asyncAppender.stop();
+
+        assertEquals(2, asyncAppender.getDroppedCount());
+    }
+
+    private DropCountingAsyncAppender createAsyncAppender(LoggerContext loggerContext,
+                                                          AppenderBase<ILoggingEvent> appender, int discardingThreshold) {
+        appender.setContext(loggerContext);
+        appender.start();
+        DropCountingAsyncAppender asyncAppender = new DropCountingAsyncAppender();
+        asyncAppender.setContext(loggerContext);
+        asyncAppender.setName("TEST");
+        asyncAppender.setQueueSize(TEST_QUEUE_SIZE);
+        asyncAppender.setDiscardingThreshold(discardingThreshold);
+        asyncAppender.addAppender(appender);
+        asyncAppender.start();
+        return asyncAppender;
+    }
+
+    private LoggingEvent createEvent(LoggerContext loggerContext, Level level) {
+        return new LoggingEvent(DropCountingAsyncAppenderTest.class.getName(),
+                loggerContext.getLogger(DropCountingAsyncAppenderTest.class), level, "Test message", null, null);
+    }
+}
@@ -0,0 +1,42 @@
+package com.gmail.voronovskyi.yaroslav.demo.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class SampledDebugTurboFilterTest {
+
+    private final SampledDebugTurboFilter turboFilter = new SampledDebugTurboFilter();
+    private final Logger logger = new LoggerContext().getLogger(SampledDebugTurboFilterTest.class);
+
+    @BeforeEach
+    public void setUp() {
+        turboFilter.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        MDC.remove(DebugLogSamplingFilter.SAMPLED_MDC_KEY);
+    }
+
+    @Test
+    public void shouldDenyDebugOutsideSampledRequest() {
+        assertEquals(FilterReply.DENY, turboFilter.decide(null, logger, Level.DEBUG, "Test", null, null));
+        assertEquals(FilterReply.DENY, turboFilter.decide(null, logger, Level.TRACE, "Test", null, null));
+        assertEquals(FilterReply.NEUTRAL, turboFilter.decide(null, logger, Level.INFO, "Test", null, null));
+    }
+
+    @Test
+    public void shouldLeaveDebugToLoggerLevelInSampledRequest() {
+        MDC.put(DebugLogSamplingFilter.SAMPLED_MDC_KEY, Boolean.TRUE.toString());
+
+        assertEquals(FilterReply.NEUTRAL, turboFilter.decide(null, logger, Level.DEBUG, "Test", null, null));
+    }
+}
@@ -0,0 +1,43 @@
+package com.gmail.voronovskyi.yaroslav.demo.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BloomFilterTest {
+
+    private final static int TEST_INSERTIONS = 10000;
+    private final static double TEST_FALSE_POSITIVE_RATE = 0.01;
+
+    @Test
+    public void shouldContainEveryPutValue() {
+        BloomFilter bloomFilter = new BloomFilter(TEST_INSERTIONS, TEST_FALSE_POSITIVE_RATE);
+        for (int i = 0; i < TEST_INSERTIONS; i++) {
+            bloomFilter.put("user" + i + "@gmail.com");
+        }
+        for (int i = 0; i < TEST_INSERTIONS; i++) {
+            assertTrue(bloomFilter.mightContain("user" + i + "@gmail.com"));
+        }
+    }
+
+    @Test
+    public void shouldKeepFalsePositiveRateNearExpected() {
+        BloomFilter bloomFilter = new BloomFilter(TEST_INSERTIONS, TEST_FALSE_POSITIVE_RATE);
+        for (int i = 0; i < TEST_INSERTIONS; i++) {
+            bloomFilter.put("+38" + (1_000_000_000L + i));
+        }
+        int falsePositivesCount = 0;
+        for (int i = TEST_INSERTIONS; i < 2 * TEST_INSERTIONS; i++) {
+            if (bloomFilter.mightContain("+38" + (1_000_000_000L + i))) {
+                falsePositivesCount++;
+            }
+        }
+        assertTrue(falsePositivesCount < TEST_INSERTIONS * TEST_FALSE_POSITIVE_RATE * 2);
+    }
+
+    @Test
+    public void shouldThrowExceptionWhenFalsePositiveRateIsNotValid() {
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(TEST_INSERTIONS, 1));
+    }
+}
@@ -0,0 +1,156 @@
+package com.gmail.voronovskyi.yaroslav.demo.service.impl;
+
+import com.gmail.voronovskyi.yaroslav.demo.config.AppConfigTest;
+import com.gmail.voronovskyi.yaroslav.demo.controller.exception.UserAlreadyExistsException;
+import com.gmail.voronovskyi.yaroslav.demo.model.User;
+import com.gmail.voronovskyi.yaroslav.demo.service.IUserRegistrationBatcher;
+import com.gmail.voronovskyi.yaroslav.demo.service.IUserService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.context.web.WebAppConfiguration;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@WebAppConfiguration
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = {AppConfigTest.class})
+@TestPropertySource(locations = "classpath:test.properties", properties = {"spring.datasource.url=jdbc:h2:mem:group-commit",
+        "application.group-commit.enabled=true", "application.group-commit.max-delay-millis=200"})
+public class GroupCommitRegistrationBatcherTest {
+
+    @Autowired
+    private IUserRegistrationBatcher registrationBatcher;
+    @Autowired
+    private IUserService userService;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    public void shouldRegisterConcurrentUsersInOneBatchWithOwnIds() {
+        DistributionSummary batchSizeSummary = meterRegistry.get("users.group.commit.batch.size").summary();
+        long batchesBefore = batchSizeSummary.count();
+        List<CompletableFuture<User>> futuresList = IntStream.range(0, 20)
+                .mapToObj(i -> registrationBatcher.registerUser(createTestUser("group" + i + "@gmail.com", "+3809767007" + (10 + i))))
+                .collect(Collectors.toList());
+        List<User> usersList = futuresList.stream().map(CompletableFuture::join).collect(Collectors.toList());
+        assertEquals(usersList.stream().map(User::getId).distinct().count(), 20);
+        assertTrue(batchSizeSummary.count() - batchesBefore < 20);
+        usersList.forEach(user -> assertEquals(userService.getUserBuId(user.getId()).getEmail(), user.getEmail()));
+    }
+
+    @Test
+    public void shouldFailOnlyDuplicatedRegistrationsOfBatch() {
+        userService.registerUser(createTestUser("group.taken@gmail.com", "+380976700801"));
+        CompletableFuture<User> takenFuture = registrationBatcher.registerUser(createTestUser("group.taken@gmail.com", "+380976700802"));
+        CompletableFuture<User> firstFuture = registrationBatcher.registerUser(createTestUser("group.first@gmail.com", "+380976700803"));
+        CompletableFuture<User> secondFuture = registrationBatcher.registerUser(createTestUser("group.second@gmail.com", "+380976700803"));
+        CompletionException exception = assertThrows(CompletionException.class, takenFuture::join);
+        assertInstanceOf(UserAlreadyExistsException.class, exception.getCause());
+        assertEquals(firstFuture.join().getEmail(), "group.first@gmail.com");
+        exception = assertThrows(CompletionException.class, secondFuture::join);
+        assertEquals(exception.getCause().getMessage(), "User with phone number +380976700803 already exists");
+    }
+
+    @Test
+    public void shouldReRegisterOnlyUnsavedUsersWhenBatchFailsAfterPartialCommit() throws InterruptedException {
+        IUserService partialUserService = mock(IUserService.class);
+        doAnswer(invocation -> {
+            List<User> usersList = invocation.getArgument(0);
+            usersList.get(0).setId(1L);
+            usersList.get(1).setId(2L);
+            throw new IllegalStateException("Second shard failed");
+        }).when(partialUserService).registerUsers(anyList());
+        when(partialUserService.getUsersByIds(List.of(1L, 2L))).thenReturn(List.of(User.builder().id(1L).build()));
+        when(partialUserService.registerUser(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        GroupCommitRegistrationBatcher batcher = new GroupCommitRegistrationBatcher(partialUserService,
+                new SimpleMeterRegistry(), 10, 200, 10_000);
+        User savedUser = createTestUser("partial.saved@gmail.com", "+380976700901");
+        User unsavedUser = createTestUser("partial.unsaved@gmail.com", "+380976700902");
+        CompletableFuture<User> savedFuture = batcher.registerUser(savedUser);
+        CompletableFuture<User> unsavedFuture = batcher.registerUser(unsavedUser);
+        assertEquals(savedFuture.join().getId(), 1L);
+        assertEquals(unsavedFuture.join().getId(), 0L);
+        verify(partialUserService, never()).registerUser(savedUser);
+        verify(partialUserService).registerUser(unsavedUser);
+        batcher.close();
+    }
+
+    @Test
+    public void shouldFailRegistrationWithTimeoutWhenBatchIsNotWrittenInTime() throws InterruptedException {
+        IUserService slowUserService = mock(IUserService.class);
+        CountDownLatch writeLatch = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            writeLatch.await();
+            return null;
+        }).when(slowUserService).registerUsers(anyList());
+        GroupCommitRegistrationBatcher batcher = new GroupCommitRegistrationBatcher(slowUserService,
+                new SimpleMeterRegistry(), 10, 1, 100);
+        CompletableFuture<User> future = batcher.registerUser(createTestUser("slow@gmail.com", "+380976700903"));
+        CompletionException exception = assertThrows(CompletionException.class, future::join);
+        assertInstanceOf(TimeoutException.class, exception.getCause());
+        writeLatch.countDown();
+        batcher.close();
+    }
+
+    @Test
+    public void shouldNotWriteRegistrationThatTimedOutInQueue() throws InterruptedException {
+        IUserService slowUserService = mock(IUserService.class);
+        CountDownLatch writingLatch = new CountDownLatch(1);
+        CountDownLatch writeLatch = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            writingLatch.countDown();
+            writeLatch.await();
+            return null;
+        }).when(slowUserService).registerUsers(anyList());
+        GroupCommitRegistrationBatcher batcher = new GroupCommitRegistrationBatcher(slowUserService,
+                new SimpleMeterRegistry(), 10, 1, 100);
+        batcher.registerUser(createTestUser("first@gmail.com", "+380976700904"));
+        writingLatch.await();
+        User queuedUser = createTestUser("queued@gmail.com", "+380976700905");
+        CompletableFuture<User> future = batcher.registerUser(queuedUser);
+        CompletionException exception = assertThrows(CompletionException.class, future::join);
+        assertInstanceOf(TimeoutException.class, exception.getCause());
+        writeLatch.countDown();
+        batcher.close();
+        verify(slowUserService, times(1)).registerUsers(anyList());
+        verify(slowUserService, never()).registerUser(queuedUser);
+    }
+
+    private User createTestUser(String email, String phoneNumber) {
+        return User.builder()
+                .email(email)
+                .firstName("Yaroslav")
+                .lastName("Voronovskyi")
+                .birthDate(LocalDate.of(1986, 11, 11))
+                .address("Ukraine, Kyiv")
+                .phoneNumber(phoneNumber)
+                .build();
+    }
+}
@@ -0,0 +1,90 @@
+package com.gmail.voronovskyi.yaroslav.demo.service.impl;
+
+import com.gmail.voronovskyi.yaroslav.demo.controller.exception.IdempotencyKeyReusedException;
+import com.gmail.voronovskyi.yaroslav.demo.controller.exception.RequestInProgressException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class IdempotencyStoreTest {
+
+    private final static long TEST_MAX_ENTRIES = 100;
+    private final static long TEST_TTL_MINUTES = 1;
+    private final static long TEST_WAIT_TIMEOUT_MILLIS = 5000;
+
+    @Test
+    public void shouldRunConcurrentRepeatsOnceAndReplayResult() {
+        IdempotencyStore idempotencyStore = createTestIdempotencyStore(TEST_WAIT_TIMEOUT_MILLIS);
+        AtomicInteger runsCount = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        List<CompletableFuture<String>> futuresList = IntStream.range(0, 4)
+                .mapToObj(i -> CompletableFuture.supplyAsync(() -> idempotencyStore.execute("POST /users", "key-1", "request",
+                        () -> {
+                            runsCount.incrementAndGet();
+                            await(release);
+                            return "result";
+                        })))
+                .collect(Collectors.toList());
+        release.countDown();
+        futuresList.forEach(future -> assertEquals(future.join(), "result"));
+        assertEquals(idempotencyStore.execute("POST /users", "key-1", "request", () -> "other"), "result");
+        assertEquals(runsCount.get(), 1);
+    }
+
+    @Test
+    public void shouldRunAgainAfterFailure() {
+        IdempotencyStore idempotencyStore = createTestIdempotencyStore(TEST_WAIT_TIMEOUT_MILLIS);
+        assertThrows(IllegalStateException.class, () -> idempotencyStore.execute("POST /users", "key-1", "request", () -> {
+            throw new IllegalStateException("DB is down");
+        }));
+        assertEquals(idempotencyStore.execute("POST /users", "key-1", "request", () -> "result"), "result");
+    }
+
+    @Test
+    public void shouldRejectKeyReusedForAnotherRequest() {
+        IdempotencyStore idempotencyStore = createTestIdempotencyStore(TEST_WAIT_TIMEOUT_MILLIS);
+        idempotencyStore.execute("POST /users", "key-1", "request", () -> "result");
+        assertThrows(IdempotencyKeyReusedException.class,
+                () -> idempotencyStore.execute("POST /users", "key-1", "another request", () -> "result"));
+        assertEquals(idempotencyStore.execute("PUT /users/1", "key-1", "another request", () -> "updated"), "updated");
+    }
+
+    @Test
+    public void shouldThrowExceptionWhenFirstRequestTakesTooLong() {
+        IdempotencyStore idempotencyStore = createTestIdempotencyStore(50);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        CompletableFuture<String> firstFuture = CompletableFuture.supplyAsync(() -> idempotencyStore.execute("POST /users",
+                "key-1", "request", () -> {
+                    started.countDown();
+                    await(release);
+                    return "result";
+                }));
+        await(started);
+        assertThrows(RequestInProgressException.class,
+                () -> idempotencyStore.execute("POST /users", "key-1", "request", () -> "result"));
+        release.countDown();
+        assertEquals(firstFuture.join(), "result");
+    }
+
+    private IdempotencyStore createTestIdempotencyStore(long waitTimeoutMillis) {
+        return new IdempotencyStore(new SimpleMeterRegistry(), TEST_MAX_ENTRIES, TEST_TTL_MINUTES, waitTimeoutMillis);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
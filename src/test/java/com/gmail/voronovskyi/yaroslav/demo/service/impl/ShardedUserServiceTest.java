@@ -0,0 +1,162 @@
+package com.gmail.voronovskyi.yaroslav.demo.service.impl;
+
+import com.gmail.voronovskyi.yaroslav.demo.config.AppConfigTest;
+import com.gmail.voronovskyi.yaroslav.demo.controller.exception.UserAlreadyExistsException;
+import com.gmail.voronovskyi.yaroslav.demo.controller.exception.UserNotFoundException;
+import com.gmail.voronovskyi.yaroslav.demo.model.User;
+import com.gmail.voronovskyi.yaroslav.demo.service.IUserService;
+import com.gmail.voronovskyi.yaroslav.demo.sharding.ShardedIdGenerator;
+import com.gmail.voronovskyi.yaroslav.demo.sharding.UserShards;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Slice;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.context.web.WebAppConfiguration;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@WebAppConfiguration
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = {AppConfigTest.class})
+@TestPropertySource(locations = "classpath:test.properties", properties = {
+        "spring.datasource.url=jdbc:h2:mem:sharded-lookup",
+        "application.sharding.enabled=true",
+        "application.sharding.shards[0].url=jdbc:h2:mem:sharded-0", "application.sharding.shards[0].username=H2",
+        "application.sharding.shards[1].url=jdbc:h2:mem:sharded-1", "application.sharding.shards[1].username=H2",
+        "application.sharding.shards[2].url=jdbc:h2:mem:sharded-2", "application.sharding.shards[2].username=H2"})
+public class ShardedUserServiceTest {
+
+    @Autowired
+    private IUserService userService;
+    @Autowired
+    private UserShards userShards;
+
+    @Test
+    public void shouldStoreUserOnShardEncodedInItsId() {
+        assertInstanceOf(ShardedUserService.class, userService);
+        for (int i = 0; i < 6; i++) {
+            User user = createTestUser("placement" + i + "@gmail.com", "+38097670020" + i, LocalDate.of(1980, 1, 1));
+            int shardIndex = userShards.shardIndexFor(user);
+            user = userService.registerUser(user);
+            long userId = user.getId();
+            assertEquals(ShardedIdGenerator.shardOf(userId), shardIndex);
+            assertEquals(userShards.get(shardIndex).getUserBuId(userId).getEmail(), user.getEmail());
+            int otherShardIndex = (shardIndex + 1) % userShards.size();
+            assertThrows(UserNotFoundException.class, () -> userShards.get(otherShardIndex).getUserBuId(userId));
+            assertEquals(userService.getUserBuId(userId).getEmail(), user.getEmail());
+        }
+    }
+
+    @Test
+    public void shouldKeepEmailAndPhoneNumberUniqueAcrossShards() {
+        List<String> emailsList = emailsOnDistinctShards("unique", 2);
+        userService.registerUser(createTestUser(emailsList.get(0), "+380976700301", LocalDate.of(1980, 1, 1)));
+        UserAlreadyExistsException exception = assertThrows(UserAlreadyExistsException.class,
+                () -> userService.registerUser(createTestUser(emailsList.get(1), "+380976700301", LocalDate.of(1980, 1, 1))));
+        assertEquals(exception.getMessage(), "User with phone number +380976700301 already exists");
+        User user = userService.registerUser(createTestUser(emailsList.get(1), "+380976700302", LocalDate.of(1980, 1, 1)));
+        assertEquals(user.getEmail(), emailsList.get(1));
+    }
+
+    @Test
+    public void shouldReleaseEmailAndPhoneNumberAfterChangeAndDelete() {
+        User user = userService.registerUser(createTestUser("release.old@gmail.com", "+380976700401", LocalDate.of(1980, 1, 1)));
+        User changedUser = createTestUser("release.new@gmail.com", "+380976700401", LocalDate.of(1980, 1, 1));
+        changedUser.setId(user.getId());
+        changedUser.setVersion(user.getVersion());
+        userService.updateUser(changedUser);
+        User patchedUser = userService.patchUser(user.getId(), Map.of("phoneNumber", "+380976700402"), null);
+        assertEquals(patchedUser.getPhoneNumber(), "+380976700402");
+        assertThrows(UserAlreadyExistsException.class,
+                () -> userService.registerUser(createTestUser("release.new@gmail.com", "+380976700403", LocalDate.of(1980, 1, 1))));
+        User reusingUser = userService.registerUser(createTestUser("release.old@gmail.com", "+380976700401", LocalDate.of(1980, 1, 1)));
+        userService.deleteUser(user.getId());
+        assertThrows(UserNotFoundException.class, () -> userService.getUserBuId(user.getId()));
+        userService.registerUser(createTestUser("release.new@gmail.com", "+380976700402", LocalDate.of(1980, 1, 1)));
+        assertEquals(userService.findUsersByEmailsOrPhoneNumbers(Set.of("release.old@gmail.com", "release.new@gmail.com"), Set.of())
+                .size(), 2);
+        assertEquals(userService.getUserBuId(reusingUser.getId()).getEmail(), "release.old@gmail.com");
+    }
+
+    @Test
+    public void shouldMergeUsersOfAllShardsInIdOrder() {
+        List<User> usersList = userService.registerUsers(IntStream.range(0, 9)
+                .mapToObj(i -> createTestUser("merge" + i + "@gmail.com", "+38097670050" + i, LocalDate.of(1990, 1, 1)))
+                .collect(Collectors.toList()));
+        assertTrue(usersList.stream().map(user -> ShardedIdGenerator.shardOf(user.getId())).distinct().count() > 1);
+        List<Long> registeredIdsList = usersList.stream().map(User::getId).sorted().collect(Collectors.toList());
+        List<Long> pagedIdsList = new ArrayList<>();
+        long afterId = 0;
+        Slice<User> usersSlice;
+        do {
+            usersSlice = userService.getAllUsers(afterId, 4);
+            usersSlice.forEach(user -> pagedIdsList.add(user.getId()));
+            afterId = pagedIdsList.get(pagedIdsList.size() - 1);
+        } while (usersSlice.hasNext());
+        assertEquals(pagedIdsList, pagedIdsList.stream().sorted().distinct().collect(Collectors.toList()));
+        assertTrue(pagedIdsList.containsAll(registeredIdsList));
+        assertEquals(userService.findUsersByEmailsOrPhoneNumbers(Set.of("merge0@gmail.com"), Set.of("+380976700508")).size(), 2);
+    }
+
+    @Test
+    public void shouldMergeBirthDateSearchOfAllShards() {
+        for (int i = 0; i < 6; i++) {
+            userService.registerUser(createTestUser("birthday" + i + "@gmail.com", "+38097670060" + i, LocalDate.of(1970, 1, 6 - i)));
+        }
+        List<LocalDate> birthDatesList = new ArrayList<>();
+        LocalDate afterBirthDate = null;
+        long afterId = 0;
+        Slice<User> usersSlice;
+        do {
+            usersSlice = userService.findUsersByBirthDate(LocalDate.of(1970, 1, 1), LocalDate.of(1970, 1, 31),
+                    afterBirthDate, afterId, 4);
+            assertFalse(usersSlice.isEmpty());
+            usersSlice.forEach(user -> birthDatesList.add(user.getBirthDate()));
+            User lastUser = usersSlice.getContent().get(usersSlice.getNumberOfElements() - 1);
+            afterBirthDate = lastUser.getBirthDate();
+            afterId = lastUser.getId();
+        } while (usersSlice.hasNext());
+        assertEquals(birthDatesList, IntStream.rangeClosed(1, 6).mapToObj(day -> LocalDate.of(1970, 1, day))
+                .collect(Collectors.toList()));
+    }
+
+    private List<String> emailsOnDistinctShards(String prefix, int count) {
+        List<String> emailsList = new ArrayList<>();
+        for (int i = 0; emailsList.size() < count; i++) {
+            String email = prefix + i + "@gmail.com";
+            int shardIndex = userShards.shardIndexFor(createTestUser(email, "", null));
+            if (emailsList.stream().allMatch(other -> userShards.shardIndexFor(createTestUser(other, "", null)) != shardIndex)) {
+                emailsList.add(email);
+            }
+        }
+        assertNotEquals(emailsList.get(0), emailsList.get(1));
+        return emailsList;
+    }
+
+    private User createTestUser(String email, String phoneNumber, LocalDate birthDate) {
+        return User.builder()
+                .email(email)
+                .firstName("Yaroslav")
+                .lastName("Voronovskyi")
+                .birthDate(birthDate)
+                .address("Ukraine, Kyiv")
+                .phoneNumber(phoneNumber)
+                .build();
+    }
+}
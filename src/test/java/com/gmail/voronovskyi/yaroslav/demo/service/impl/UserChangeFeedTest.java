@@ -0,0 +1,85 @@
+package com.gmail.voronovskyi.yaroslav.demo.service.impl;
+
+import com.gmail.voronovskyi.yaroslav.demo.model.UserChange;
+import com.gmail.voronovskyi.yaroslav.demo.repository.IUserChangeRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class UserChangeFeedTest {
+
+    private static final long GAP_TIMEOUT_MILLIS = 10_000;
+    private static final long TRANSACTION_TIMEOUT_SECONDS = 5;
+    private static final int TEST_LIMIT = 50;
+
+    private IUserChangeRepository userChangeRepositoryMock;
+    private UserChangeFeed changeFeed;
+
+    @BeforeEach
+    public void setup() {
+        userChangeRepositoryMock = Mockito.mock(IUserChangeRepository.class);
+    }
+
+    @AfterEach
+    public void close() {
+        if (changeFeed != null) {
+            changeFeed.close();
+        }
+    }
+
+    @Test
+    public void shouldHoldBackChangesAfterRecentGap() {
+        Instant now = Instant.now();
+        Mockito.when(userChangeRepositoryMock.findByIdGreaterThanOrderByIdAsc(0, PageRequest.of(0, TEST_LIMIT)))
+                .thenReturn(List.of(createTestChange(1, now), createTestChange(2, now), createTestChange(4, now)));
+        assertEquals(toIds(createChangeFeed().getChanges(0, TEST_LIMIT)), List.of(1L, 2L));
+    }
+
+    @Test
+    public void shouldHoldBackChangesAfterRecentGapAtCursor() {
+        Mockito.when(userChangeRepositoryMock.findByIdGreaterThanOrderByIdAsc(2, PageRequest.of(0, TEST_LIMIT)))
+                .thenReturn(List.of(createTestChange(4, Instant.now())));
+        assertEquals(toIds(createChangeFeed().getChanges(2, TEST_LIMIT)), List.of());
+    }
+
+    @Test
+    public void shouldSkipGapOlderThanTimeout() {
+        Instant expired = Instant.now().minusMillis(GAP_TIMEOUT_MILLIS + 1000);
+        Mockito.when(userChangeRepositoryMock.findByIdGreaterThanOrderByIdAsc(0, PageRequest.of(0, TEST_LIMIT)))
+                .thenReturn(List.of(createTestChange(1, expired), createTestChange(4, expired), createTestChange(5, Instant.now())));
+        assertEquals(toIds(createChangeFeed().getChanges(0, TEST_LIMIT)), List.of(1L, 4L, 5L));
+    }
+
+    @Test
+    public void shouldThrowExceptionWhenTransactionsMayOutliveGapTimeout() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new UserChangeFeed(userChangeRepositoryMock, 60_000, GAP_TIMEOUT_MILLIS, 10, 7, TEST_LIMIT));
+        assertThrows(IllegalArgumentException.class,
+                () -> new UserChangeFeed(userChangeRepositoryMock, 60_000, GAP_TIMEOUT_MILLIS, 0, 7, TEST_LIMIT));
+    }
+
+    /**
+     * Created after the stubbing, since the feed starts pruning on its own thread at once.
+     */
+    private UserChangeFeed createChangeFeed() {
+        changeFeed = new UserChangeFeed(userChangeRepositoryMock, 60_000, GAP_TIMEOUT_MILLIS, TRANSACTION_TIMEOUT_SECONDS, 7, TEST_LIMIT);
+        return changeFeed;
+    }
+
+    private List<Long> toIds(List<UserChange> changesList) {
+        return changesList.stream().map(UserChange::getId).collect(Collectors.toList());
+    }
+
+    private UserChange createTestChange(long id, Instant changedAt) {
+        return new UserChange(id, id, UserChange.Type.CREATED, 0L, changedAt);
+    }
+}
@@ -0,0 +1,126 @@
+package com.gmail.voronovskyi.yaroslav.demo.service.impl;
+
+import com.gmail.voronovskyi.yaroslav.demo.config.AppConfigTest;
+import com.gmail.voronovskyi.yaroslav.demo.controller.exception.UserNotFoundException;
+import com.gmail.voronovskyi.yaroslav.demo.model.User;
+import com.gmail.voronovskyi.yaroslav.demo.service.IUserService;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.context.web.WebAppConfiguration;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@WebAppConfiguration
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = {AppConfigTest.class})
+@TestPropertySource(locations = "classpath:test.properties", properties = "spring.datasource.url=jdbc:h2:mem:cache")
+public class UserServiceCacheTest {
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd-MM-yyyy");
+
+    @Autowired
+    private IUserService userService;
+    @Autowired
+    private CacheManager cacheManager;
+    private CaffeineCache usersCache;
+
+    @BeforeEach
+    public void setup() {
+        usersCache = (CaffeineCache) Objects.requireNonNull(cacheManager.getCache(UserService.USERS_CACHE));
+        usersCache.clear();
+    }
+
+    @Test
+    public void shouldReturnCachedUserWithoutDBRoundTrip() {
+        User user = userService.registerUsers(List.of(createTestUser("cache.hit@gmail.com", "+380976700101"))).get(0);
+        CacheStats statsBefore = usersCache.getNativeCache().stats();
+        userService.getUserBuId(user.getId());
+        userService.getUserBuId(user.getId());
+        CacheStats stats = usersCache.getNativeCache().stats().minus(statsBefore);
+        assertEquals(stats.missCount(), 1);
+        assertEquals(stats.hitCount(), 1);
+    }
+
+    @Test
+    public void shouldCacheRegisteredUser() {
+        User user = userService.registerUser(createTestUser("cache.register@gmail.com", "+380976700107"));
+        CacheStats statsBefore = usersCache.getNativeCache().stats();
+        assertEquals(userService.getUserBuId(user.getId()).getEmail(), "cache.register@gmail.com");
+        CacheStats stats = usersCache.getNativeCache().stats().minus(statsBefore);
+        assertEquals(stats.missCount(), 0);
+        assertEquals(stats.hitCount(), 1);
+    }
+
+    @Test
+    public void shouldNotReturnStaleUserAfterUpdate() {
+        User user = userService.registerUser(createTestUser("cache.update@gmail.com", "+380976700102"));
+        userService.getUserBuId(user.getId());
+        User updatedUser = createTestUser("cache.update@gmail.com", "+380976700102");
+        updatedUser.setId(user.getId());
+        updatedUser.setAddress("Ukraine, Lviv");
+        userService.updateUser(updatedUser);
+        assertEquals(userService.getUserBuId(user.getId()).getAddress(), "Ukraine, Lviv");
+    }
+
+    @Test
+    public void shouldNotReturnDeletedUser() {
+        User user = userService.registerUser(createTestUser("cache.delete@gmail.com", "+380976700103"));
+        userService.getUserBuId(user.getId());
+        userService.deleteUser(user.getId());
+        assertThrows(UserNotFoundException.class, () -> userService.getUserBuId(user.getId()));
+    }
+
+    @Test
+    public void shouldNotCacheUserLoadedBeforeUpdateCommitted() {
+        User user = userService.registerUser(createTestUser("cache.race@gmail.com", "+380976700104"));
+        User loadedUser = userService.getUserBuId(user.getId());
+        User updatedUser = createTestUser("cache.race@gmail.com", "+380976700104");
+        updatedUser.setId(user.getId());
+        updatedUser.setAddress("Ukraine, Lviv");
+        userService.updateUser(updatedUser);
+        usersCache.put(user.getId(), loadedUser);
+        assertEquals(userService.getUserBuId(user.getId()).getAddress(), "Ukraine, Lviv");
+    }
+
+    @Test
+    public void shouldNotCacheUserLoadedBeforeDeleteCommitted() {
+        User user = userService.registerUser(createTestUser("cache.tombstone@gmail.com", "+380976700105"));
+        User loadedUser = userService.getUserBuId(user.getId());
+        userService.deleteUser(user.getId());
+        usersCache.put(user.getId(), loadedUser);
+        assertThrows(UserNotFoundException.class, () -> userService.getUserBuId(user.getId()));
+    }
+
+    @Test
+    public void shouldNotShareCachedUserBetweenCallers() {
+        User user = userService.registerUser(createTestUser("cache.copy@gmail.com", "+380976700106"));
+        userService.getUserBuId(user.getId());
+        userService.getUserBuId(user.getId()).setAddress("Ukraine, Lviv");
+        assertEquals(userService.getUserBuId(user.getId()).getAddress(), "Ukraine, Kyiv");
+    }
+
+    private User createTestUser(String email, String phoneNumber) {
+        return User.builder()
+                .email(email)
+                .firstName("Yaroslav")
+                .lastName("Voronovskyi")
+                .birthDate(LocalDate.parse("11-11-1986", DATE_FORMAT))
+                .address("Ukraine, Kyiv")
+                .phoneNumber(phoneNumber)
+                .build();
+    }
+}
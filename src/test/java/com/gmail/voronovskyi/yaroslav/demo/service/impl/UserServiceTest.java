@@ -1,7 +1,14 @@
 package com.gmail.voronovskyi.yaroslav.demo.service.impl;
 
+import com.gmail.voronovskyi.yaroslav.demo.controller.exception.NotValidRequestException;
+import com.gmail.voronovskyi.yaroslav.demo.controller.exception.UserAlreadyExistsException;
+import com.gmail.voronovskyi.yaroslav.demo.controller.exception.UserNotFoundException;
 import com.gmail.voronovskyi.yaroslav.demo.model.User;
+import com.gmail.voronovskyi.yaroslav.demo.model.UserChange;
+import com.gmail.voronovskyi.yaroslav.demo.repository.IUserChangeRepository;
 import com.gmail.voronovskyi.yaroslav.demo.repository.IUserRepository;
+import com.gmail.voronovskyi.yaroslav.demo.service.IUserTextIndex;
+import com.gmail.voronovskyi.yaroslav.demo.service.IUserUniquenessFilter;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -10,95 +17,262 @@ import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import javax.persistence.EntityNotFoundException;
+import javax.persistence.EntityManager;
 import java.time.LocalDate;
+import java.time.MonthDay;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @ExtendWith(MockitoExtension.class)
 @MockitoSettings(strictness = Strictness.LENIENT)
 public class UserServiceTest {
 
     private final static long TEST_USER_ID = 1L;
+    private final static int TEST_PAGE_LIMIT = 50;
     private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd-MM-yyyy");
     private final static LocalDate TEST_DATE_FROM = LocalDate.parse("01-01-1980", DATE_FORMAT);
     private final static LocalDate TEST_DATE_TO = LocalDate.parse("01-01-2000", DATE_FORMAT);
 
     @Mock
     private IUserRepository userRepositoryMock;
+    @Mock
+    private EntityManager entityManagerMock;
+    @Mock
+    private IUserUniquenessFilter uniquenessFilterMock;
+    @Mock
+    private IUserTextIndex textIndexMock;
+    @Mock
+    private IUserChangeRepository userChangeRepositoryMock;
 
     @InjectMocks
     private UserService userService;
 
     @Test
     public void shouldReturnUserById() {
-        Mockito.when(userRepositoryMock.getReferenceById(TEST_USER_ID)).thenReturn(createTestUser());
+        Mockito.when(userRepositoryMock.findUserById(TEST_USER_ID)).thenReturn(Optional.of(createTestUser()));
         assertEquals(userService.getUserBuId(TEST_USER_ID), createTestUser());
     }
 
+    @Test
+    public void shouldReturnUserVersionById() {
+        Mockito.when(userRepositoryMock.findVersionById(TEST_USER_ID)).thenReturn(Optional.of(2L));
+        assertEquals(userService.getUserVersion(TEST_USER_ID), 2L);
+    }
+
+    @Test
+    public void shouldReturnPrimaryUserVersionById() {
+        Mockito.when(userRepositoryMock.findVersionById(TEST_USER_ID)).thenReturn(Optional.of(3L));
+        assertEquals(userService.getPrimaryUserVersion(TEST_USER_ID), 3L);
+    }
+
+    @Test
+    public void shouldThrowExceptionWhenTryGetVersionOfNotExistingUser() {
+        Mockito.when(userRepositoryMock.findVersionById(TEST_USER_ID)).thenReturn(Optional.empty());
+        assertThrows(UserNotFoundException.class, () -> userService.getUserVersion(TEST_USER_ID));
+    }
+
     @Test
     public void shouldReturnUsersList() {
-        Mockito.when(userRepositoryMock.findAll()).thenReturn(List.of(createTestUser()));
-        assertEquals(userService.getAllUsers(), List.of(createTestUser()));
+        Mockito.when(userRepositoryMock.findByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, TEST_PAGE_LIMIT)))
+                .thenReturn(new SliceImpl<>(List.of(createTestUser())));
+        assertEquals(userService.getAllUsers(0L, TEST_PAGE_LIMIT).getContent(), List.of(createTestUser()));
+    }
+
+    @Test
+    public void shouldExportAndDetachAllUsers() {
+        List<User> usersList = createTestUsersList();
+        Mockito.when(userRepositoryMock.streamAllByOrderByIdAsc()).thenReturn(usersList.stream());
+        List<User> exportedUsersList = new ArrayList<>();
+        userService.exportUsers(exportedUsersList::add);
+        assertEquals(exportedUsersList, usersList);
+        Mockito.verify(entityManagerMock).detach(usersList.get(0));
+        Mockito.verify(entityManagerMock).detach(usersList.get(1));
     }
 
     @Test
     public void shouldRegisterNewUser() {
         User user = createTestUser();
+        Mockito.when(userRepositoryMock.save(user)).thenReturn(user);
         userService.registerUser(user);
         Mockito.verify(userRepositoryMock).save(user);
+        Mockito.verify(userChangeRepositoryMock).save(Mockito.argThat(change -> change.getType() == UserChange.Type.CREATED
+                && change.getUserId() == user.getId()));
+        Mockito.verify(userRepositoryMock, Mockito.never()).existsByEmail(user.getEmail());
+        Mockito.verify(userRepositoryMock, Mockito.never()).existsByPhoneNumber(user.getPhoneNumber());
+    }
+
+    @Test
+    public void shouldRegisterNewUserWhenUniquenessFilterHitIsFalse() {
+        User user = createTestUser();
+        Mockito.when(uniquenessFilterMock.mightContainEmail(user.getEmail())).thenReturn(true);
+        Mockito.when(userRepositoryMock.save(user)).thenReturn(user);
+        userService.registerUser(user);
+        Mockito.verify(userRepositoryMock).existsByEmail(user.getEmail());
+        Mockito.verify(uniquenessFilterMock).put(user);
+    }
+
+    @Test
+    public void shouldThrowExceptionWhenRegisteredPhoneNumberAlreadyExists() {
+        User user = createTestUser();
+        Mockito.when(uniquenessFilterMock.mightContainPhoneNumber(user.getPhoneNumber())).thenReturn(true);
+        Mockito.when(userRepositoryMock.existsByPhoneNumber(user.getPhoneNumber())).thenReturn(true);
+        assertThrows(UserAlreadyExistsException.class, () -> userService.registerUser(user));
+        Mockito.verify(userRepositoryMock, Mockito.never()).save(user);
+    }
+
+    @Test
+    public void shouldRegisterNewUsers() {
+        List<User> usersList = createTestUsersList();
+        assertEquals(userService.registerUsers(usersList), usersList);
+        Mockito.verify(userRepositoryMock).save(usersList.get(0));
+        Mockito.verify(userRepositoryMock).save(usersList.get(1));
+    }
+
+    @Test
+    public void shouldNotQueryDBWhenNoEmailsAndPhoneNumbers() {
+        assertEquals(userService.findUsersByEmailsOrPhoneNumbers(List.of(), List.of()), List.of());
+        Mockito.verifyNoInteractions(userRepositoryMock);
+    }
+
+    @Test
+    public void shouldQueryDBForAllEmailsAndPhoneNumbersOfBatch() {
+        userService.findUsersByEmailsOrPhoneNumbers(List.of("taken@gmail.com", "free@gmail.com"), List.of("+380976700001"));
+        Mockito.verify(userRepositoryMock).findByEmailInOrPhoneNumberIn(List.of("taken@gmail.com", "free@gmail.com"),
+                List.of("+380976700001"));
+        Mockito.verifyNoInteractions(uniquenessFilterMock);
     }
 
     @Test
     public void shouldUpdateUserInformation() {
-        Mockito.when(userRepositoryMock.getReferenceById(TEST_USER_ID)).thenReturn(createTestUser());
+        Mockito.when(userRepositoryMock.findUserById(TEST_USER_ID)).thenReturn(Optional.of(createTestUser()));
         User user = userService.getUserBuId(TEST_USER_ID);
         user.setPhoneNumber("+380976714493");
+        User flushedUser = user.toBuilder().version(user.getVersion() + 1).build();
+        Mockito.when(userRepositoryMock.saveAndFlush(user)).thenReturn(flushedUser);
         userService.updateUser(user);
-        Mockito.verify(userRepositoryMock).save(user);
+        Mockito.verify(userRepositoryMock).saveAndFlush(user);
+        Mockito.verify(userChangeRepositoryMock).save(Mockito.argThat(change -> change.getType() == UserChange.Type.UPDATED
+                && change.getVersion() == flushedUser.getVersion()));
+    }
+
+    @Test
+    public void shouldPutUserInTextIndexOnlyAfterCommit() {
+        User user = createTestUser();
+        Mockito.when(userRepositoryMock.saveAndFlush(user)).thenReturn(user);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            userService.updateUser(user);
+            Mockito.verify(textIndexMock, Mockito.never()).put(user);
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            Mockito.verify(textIndexMock).put(user);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void shouldThrowExceptionWhenEmptyPatchExpectsStaleVersion() {
+        User user = createTestUser();
+        user.setVersion(2L);
+        Mockito.when(userRepositoryMock.findUserById(TEST_USER_ID)).thenReturn(Optional.of(user));
+        assertEquals(userService.patchUser(TEST_USER_ID, Map.of(), 2L), user);
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> userService.patchUser(TEST_USER_ID, Map.of(), 1L));
     }
 
     @Test
     public void shouldDeleteUserById() {
+        Mockito.when(userRepositoryMock.deleteUserById(TEST_USER_ID)).thenReturn(1);
         userService.deleteUser(TEST_USER_ID);
-        Mockito.verify(userRepositoryMock).deleteById(TEST_USER_ID);
+        Mockito.verify(userRepositoryMock).deleteUserById(TEST_USER_ID);
+        Mockito.verify(userChangeRepositoryMock).save(Mockito.argThat(change -> change.getType() == UserChange.Type.DELETED
+                && change.getUserId() == TEST_USER_ID && change.getVersion() == null));
     }
 
     @Test
     public void shouldReturnUsersListByBirthDate() {
-        Mockito.when(userRepositoryMock.findByBirthDateBetweenOrderByBirthDateAsc(TEST_DATE_FROM, TEST_DATE_TO))
-                .thenReturn(createTestUsersList());
-        assertEquals(userService.findUsersByBirthDate(TEST_DATE_FROM, TEST_DATE_TO), createTestUsersList());
+        Mockito.when(userRepositoryMock.findByBirthDateBetweenOrderByBirthDateAscIdAsc(TEST_DATE_FROM, TEST_DATE_TO,
+                        PageRequest.of(0, TEST_PAGE_LIMIT)))
+                .thenReturn(new SliceImpl<>(createTestUsersList()));
+        assertEquals(userService.findUsersByBirthDate(TEST_DATE_FROM, TEST_DATE_TO, null, 0L, TEST_PAGE_LIMIT).getContent(),
+                createTestUsersList());
+    }
+
+    @Test
+    public void shouldReturnUsersListByBirthDateAfterCursor() {
+        LocalDate afterBirthDate = LocalDate.parse("11-11-1986", DATE_FORMAT);
+        Mockito.when(userRepositoryMock.findByBirthDateAfterCursor(afterBirthDate, TEST_USER_ID, TEST_DATE_TO,
+                        PageRequest.of(0, TEST_PAGE_LIMIT)))
+                .thenReturn(new SliceImpl<>(createTestUsersList().subList(1, 2)));
+        assertEquals(userService.findUsersByBirthDate(TEST_DATE_FROM, TEST_DATE_TO, afterBirthDate, TEST_USER_ID, TEST_PAGE_LIMIT)
+                .getContent(), createTestUsersList().subList(1, 2));
+    }
+
+    @Test
+    public void shouldReturnUsersByBirthdayWrappingOverNewYear() {
+        List<User> usersList = createTestUsersList();
+        Mockito.when(userRepositoryMock.findByBirthMonthDayAfterCursor(1228, 0L, 1231, PageRequest.of(0, TEST_PAGE_LIMIT)))
+                .thenReturn(new SliceImpl<>(usersList.subList(0, 1)));
+        Mockito.when(userRepositoryMock.findByBirthMonthDayAfterCursor(0, 0L, 103, PageRequest.of(0, TEST_PAGE_LIMIT - 1)))
+                .thenReturn(new SliceImpl<>(usersList.subList(1, 2)));
+        assertEquals(userService.findUsersByBirthday(MonthDay.of(12, 28), MonthDay.of(1, 3), null, 0L, TEST_PAGE_LIMIT)
+                .getContent(), usersList.subList(0, 2));
+    }
+
+    @Test
+    public void shouldReturnUsersByBirthdayAfterCursorInNewYear() {
+        Mockito.when(userRepositoryMock.findByBirthMonthDayAfterCursor(102, TEST_USER_ID, 103, PageRequest.of(0, TEST_PAGE_LIMIT)))
+                .thenReturn(new SliceImpl<>(List.of(createTestUser())));
+        assertEquals(userService.findUsersByBirthday(MonthDay.of(12, 28), MonthDay.of(1, 3), MonthDay.of(1, 2), TEST_USER_ID,
+                TEST_PAGE_LIMIT).getContent(), List.of(createTestUser()));
+        Mockito.verify(userRepositoryMock, Mockito.never()).findByBirthMonthDayAfterCursor(Mockito.anyInt(), Mockito.anyLong(),
+                Mockito.eq(1231), Mockito.any());
     }
 
     @Test
     public void shouldThrowExceptionWhenTryGetUserById() {
-        Mockito.when(userRepositoryMock.getReferenceById(TEST_USER_ID)).thenThrow(EntityNotFoundException.class);
-        assertThrows(EntityNotFoundException.class, () -> userService.getUserBuId(TEST_USER_ID));
+        Mockito.when(userRepositoryMock.findUserById(TEST_USER_ID)).thenReturn(Optional.empty());
+        UserNotFoundException exception = assertThrows(UserNotFoundException.class, () -> userService.getUserBuId(TEST_USER_ID));
+        assertEquals(exception.getStackTrace().length, 0);
     }
 
     @Test
-    public void shouldThrowExceptionWhenTryGetUserList() {
-        Mockito.when(userRepositoryMock.findAll()).thenReturn(List.of());
-        assertThrows(EntityNotFoundException.class, () -> userService.getAllUsers());
+    public void shouldReturnEmptyUsersListWhenNoUsersFound() {
+        Mockito.when(userRepositoryMock.findByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, TEST_PAGE_LIMIT)))
+                .thenReturn(new SliceImpl<>(List.of()));
+        assertTrue(userService.getAllUsers(0L, TEST_PAGE_LIMIT).isEmpty());
     }
 
     @Test
-    public void shouldThrowExceptionWhenTryGetUserListByBirthDate() {
-        Mockito.when(userRepositoryMock.findByBirthDateBetweenOrderByBirthDateAsc(TEST_DATE_FROM, TEST_DATE_TO)).thenReturn(List.of());
-        assertThrows(EntityNotFoundException.class, () -> userService.findUsersByBirthDate(TEST_DATE_FROM, TEST_DATE_TO));
+    public void shouldThrowExceptionWhenTryGetUserListWithNotValidLimit() {
+        assertThrows(NotValidRequestException.class, () -> userService.getAllUsers(0L, 0));
     }
 
-//    @Test
-//    public void shouldThrowExceptionWhenTryDeleteUserById() {
-//        assertThrows(EntityNotFoundException.class, () -> {
-//            doThrow().when(userRepositoryMock).deleteById(isA(Long.class));
-//        });
-//    }
+    @Test
+    public void shouldReturnEmptyUsersListByBirthDateWhenNoUsersFound() {
+        Mockito.when(userRepositoryMock.findByBirthDateBetweenOrderByBirthDateAscIdAsc(TEST_DATE_FROM, TEST_DATE_TO,
+                        PageRequest.of(0, TEST_PAGE_LIMIT)))
+                .thenReturn(new SliceImpl<>(List.of()));
+        assertTrue(userService.findUsersByBirthDate(TEST_DATE_FROM, TEST_DATE_TO, null, 0L, TEST_PAGE_LIMIT).isEmpty());
+    }
+
+    @Test
+    public void shouldThrowExceptionWhenTryDeleteUserById() {
+        Mockito.when(userRepositoryMock.deleteUserById(TEST_USER_ID)).thenReturn(0);
+        assertThrows(UserNotFoundException.class, () -> userService.deleteUser(TEST_USER_ID));
+    }
 
     private User createTestUser() {
         return User.builder()
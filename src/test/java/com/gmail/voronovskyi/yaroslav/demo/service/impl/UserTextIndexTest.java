@@ -0,0 +1,49 @@
+package com.gmail.voronovskyi.yaroslav.demo.service.impl;
+
+import com.gmail.voronovskyi.yaroslav.demo.model.User;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class UserTextIndexTest {
+
+    private final static double TEST_MIN_SIMILARITY = 0.3;
+
+    @Test
+    public void shouldRankExactPrefixAndMisspelledMatchesInOrder() {
+        UserTextIndex textIndex = new UserTextIndex(null, TEST_MIN_SIMILARITY);
+        textIndex.put(createTestUser(1L, "Olena", "Marchenko", "olena.m@gmail.com"));
+        textIndex.put(createTestUser(2L, "Oleksandr", "Kovalenko", "kovalenko@gmail.com"));
+        textIndex.put(createTestUser(3L, "Ole", "Hansen", "hansen@gmail.com"));
+        textIndex.put(createTestUser(4L, "Taras", "Shevchenko", "taras@gmail.com"));
+        assertEquals(textIndex.search("ole", 10), List.of(3L, 1L, 2L));
+        assertEquals(textIndex.search("Kovalenco", 10), List.of(2L));
+        assertEquals(textIndex.search("olena marchenko", 1), List.of(1L));
+        assertEquals(textIndex.search("chenko", 10), List.of(1L, 4L));
+        assertTrue(textIndex.search("zzz", 10).isEmpty());
+    }
+
+    @Test
+    public void shouldFollowChangedAndRemovedUsers() {
+        UserTextIndex textIndex = new UserTextIndex(null, TEST_MIN_SIMILARITY);
+        textIndex.put(createTestUser(1L, "Olena", "Marchenko", "olena.m@gmail.com"));
+        textIndex.put(createTestUser(1L, "Olena", "Bondarenko", "olena.b@gmail.com"));
+        assertTrue(textIndex.search("marchenko", 10).isEmpty());
+        assertEquals(textIndex.search("bondarenko", 10), List.of(1L));
+        textIndex.remove(1L);
+        assertTrue(textIndex.search("olena", 10).isEmpty());
+    }
+
+    private User createTestUser(long id, String firstName, String lastName, String email) {
+        User user = User.builder()
+                .email(email)
+                .firstName(firstName)
+                .lastName(lastName)
+                .build();
+        user.setId(id);
+        return user;
+    }
+}
@@ -1,7 +1,9 @@
 
-INSERT INTO users (email, first_name, last_name, birth_date, address, phone_number)
-        VALUES ('yaroslav.voronovskyi@gmail.com', 'Yaroslav', 'Voronovskyi', '1986-11-11', 'Ukraine, Kyiv', '+380976714492'),
-           	  ('kseniya.bobyl@gmail.com', 'Kseniya', 'Bobyl', '1988-08-10', 'Ukraine, Lviv', '+380976714423'),
-           	  ('dariya.gribok@gmail.com', 'Dariya', 'Gribok', '1988-01-26', 'Ukraine, Kyiv', '+380976714467'),
-           	  ('mariya.magula@gmail.com', 'Mariya', 'Magula', '2000-01-08', 'Ukraine, Kyiv', '+380976714409'),
-           	  ('katrina.voronina@gmail.com', 'Katrina', 'Voronina', '2000-11-11', 'UK, London', '+380976714442');
+INSERT INTO users (id, email, first_name, last_name, birth_date, birth_month_day, address, phone_number, version)
+        VALUES (1, 'yaroslav.voronovskyi@gmail.com', 'Yaroslav', 'Voronovskyi', '1986-11-11', 1111, 'Ukraine, Kyiv', '+380976714492', 0),
+           	  (2, 'kseniya.bobyl@gmail.com', 'Kseniya', 'Bobyl', '1988-08-10', 810, 'Ukraine, Lviv', '+380976714423', 0),
+           	  (3, 'dariya.gribok@gmail.com', 'Dariya', 'Gribok', '1988-01-26', 126, 'Ukraine, Kyiv', '+380976714467', 0),
+           	  (4, 'mariya.magula@gmail.com', 'Mariya', 'Magula', '2000-01-08', 108, 'Ukraine, Kyiv', '+380976714409', 0),
+           	  (5, 'katrina.voronina@gmail.com', 'Katrina', 'Voronina', '2000-11-11', 1111, 'UK, London', '+380976714442', 0);
+
+ALTER SEQUENCE users_seq RESTART WITH 6;